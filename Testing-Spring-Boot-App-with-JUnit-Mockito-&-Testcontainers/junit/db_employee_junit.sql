@@ -4,10 +4,32 @@ USE db_employee_junit;
 
 CREATE TABLE IF NOT EXISTS employee
 (
-	id         BIGINT AUTO_INCREMENT NOT NULL,
+	id         BIGINT UNSIGNED       NOT NULL,
 	first_name VARCHAR(255)          NOT NULL,
 	last_name  VARCHAR(255)          NOT NULL,
 	email      VARCHAR(255)          NOT NULL,
-	CONSTRAINT pk_employee PRIMARY KEY (id)
+	updated_at DATETIME(6)           NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+	deleted    BOOLEAN               NOT NULL DEFAULT FALSE,
+	CONSTRAINT pk_employee PRIMARY KEY (id),
+	INDEX idx_employee_name (first_name, last_name),
+	INDEX idx_employee_updated_at_id (updated_at, id)
 );
 
+CREATE TABLE IF NOT EXISTS employee_id_block
+(
+	name       VARCHAR(64)     NOT NULL,
+	next_block BIGINT UNSIGNED NOT NULL,
+	CONSTRAINT pk_employee_id_block PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS employee_outbox
+(
+	id           BIGINT UNSIGNED AUTO_INCREMENT NOT NULL,
+	event_type   VARCHAR(16)                    NOT NULL,
+	employee_id  BIGINT UNSIGNED                NOT NULL,
+	payload      TEXT                           NOT NULL,
+	created_at   DATETIME(6)                    NOT NULL,
+	published_at DATETIME(6)                    NULL,
+	CONSTRAINT pk_employee_outbox PRIMARY KEY (id),
+	INDEX idx_employee_outbox_published_at (published_at, id)
+);
@@ -0,0 +1,240 @@
+package com.spring.boot.test.junit.bulkhead;
+
+import com.spring.boot.test.junit.exception.BulkheadRejectedException;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executor dedicado a uma {@link TrafficClass}, com número fixo de threads, fila limitada e prazo máximo
+ * de espera na fila por tarefa.
+ * <p>
+ * Uma tarefa que encontra a fila cheia, ou que não começa a executar dentro do prazo, falha com
+ * {@link BulkheadRejectedException} e nunca é executada. Assim a saturação de uma classe de tráfego fica
+ * restrita às suas próprias threads e não se propaga para as demais. Uma tarefa que já começou não expira:
+ * ela não é interrompida, e responder 503 enquanto ela ainda pode efetivar uma escrita faria o cliente
+ * repetir uma operação já aplicada; o resultado é sempre o da própria tarefa.
+ * <p>
+ * Os prazos de todos os bulkheads são controlados por uma única thread agendadora, e o prazo de uma tarefa é
+ * cancelado, e removido da fila da agendadora, assim que ela começa a executar.
+ */
+public class Bulkhead {
+
+    private static final ScheduledThreadPoolExecutor TIMEOUTS = timeoutScheduler();
+
+    private final TrafficClass trafficClass;
+    private final ThreadPoolExecutor executor;
+    private final TaskDecorator taskDecorator;
+    private final ScheduledExecutorService timeouts;
+    private final long timeoutMillis;
+    private final LongAdder queueFullRejections = new LongAdder();
+    private final LongAdder timeoutRejections = new LongAdder();
+
+    public Bulkhead(TrafficClass trafficClass, int threads, int queueSize, Duration timeout) {
+        this(trafficClass, threads, queueSize, timeout, task -> task);
+    }
+
+    /**
+     * @param taskDecorator Aplicado a cada tarefa na thread que a submete, para propagar contexto (como o
+     *                      shard da requisição) para a thread do bulkhead.
+     */
+    public Bulkhead(TrafficClass trafficClass, int threads, int queueSize, Duration timeout,
+                    TaskDecorator taskDecorator) {
+        this(trafficClass, threads, queueSize, timeout, taskDecorator, TIMEOUTS);
+    }
+
+    Bulkhead(TrafficClass trafficClass, int threads, int queueSize, Duration timeout,
+             TaskDecorator taskDecorator, ScheduledExecutorService timeouts) {
+        this.trafficClass = trafficClass;
+        this.taskDecorator = taskDecorator;
+        this.timeouts = timeouts;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new BulkheadThreadFactory(trafficClass));
+    }
+
+    /**
+     * Executa a tarefa em uma thread do bulkhead, com a {@link TrafficClass} do bulkhead no
+     * {@link TrafficClassContext}.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        Queued<T> queued = new Queued<>(task);
+
+        try {
+            queued.future = executor.submit(taskDecorator.decorate(queued::runIfUnclaimed));
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            return CompletableFuture.failedFuture(new BulkheadRejectedException(trafficClass, "queue is full"));
+        }
+
+        queued.timeout = timeouts.schedule(queued::expireIfUnclaimed, timeoutMillis, TimeUnit.MILLISECONDS);
+        // A tarefa pode ter começado antes de o prazo ser agendado, sem vê-lo para cancelar
+        if (queued.claimed.get())
+            queued.timeout.cancel(false);
+
+        return queued.result;
+    }
+
+    /**
+     * Executa as tarefas em paralelo nas threads do bulkhead e na thread que chama, com a {@link TrafficClass} do
+     * bulkhead, e retorna os resultados na ordem das tarefas.
+     * <p>
+     * Serve para dividir um trabalho já admitido pelo bulkhead, como uma consulta em todos os shards: as partes
+     * não têm prazo nem são rejeitadas. A thread que chama executa a primeira parte e, em seguida, as que ainda
+     * estão na fila ou que não couberam nela, então a espera nunca depende de uma thread livre e a divisão feita
+     * por uma thread do próprio bulkhead não causa deadlock.
+     *
+     * @throws RuntimeException A exceção da primeira parte que falhou, na ordem das tarefas.
+     */
+    public <T> List<T> invokeAll(List<? extends Supplier<T>> tasks) {
+        List<Part<T>> parts = new ArrayList<>(tasks.size());
+        for (Supplier<T> task : tasks)
+            parts.add(new Part<>(task));
+
+        for (int i = 1; i < parts.size(); i++) {
+            try {
+                executor.execute(taskDecorator.decorate(parts.get(i)::runIfUnclaimed));
+            } catch (RejectedExecutionException e) {
+                // Fila cheia: a parte fica para a thread que chama
+            }
+        }
+
+        parts.forEach(Part::runIfUnclaimed);
+
+        List<T> results = new ArrayList<>(parts.size());
+        for (Part<T> part : parts) {
+            try {
+                results.add(part.result.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause)
+                    throw cause;
+                if (e.getCause() instanceof Error error)
+                    throw error;
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    public TrafficClass getTrafficClass() {
+        return trafficClass;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public long getQueueFullRejections() {
+        return queueFullRejections.sum();
+    }
+
+    public long getTimeoutRejections() {
+        return timeoutRejections.sum();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tarefa de {@link #submit(Supplier)}, disputada entre a thread do bulkhead, ao iniciá-la, e o seu prazo de
+     * espera na fila.
+     */
+    private final class Queued<T> {
+        private final Supplier<T> task;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile Future<?> future;
+        private volatile ScheduledFuture<?> timeout;
+
+        private Queued(Supplier<T> task) {
+            this.task = task;
+        }
+
+        private void runIfUnclaimed() {
+            if (!claimed.compareAndSet(false, true))
+                return;
+
+            ScheduledFuture<?> scheduledTimeout = timeout;
+            if (scheduledTimeout != null)
+                scheduledTimeout.cancel(false);
+
+            try {
+                result.complete(TrafficClassContext.callAs(trafficClass, task));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void expireIfUnclaimed() {
+            if (!claimed.compareAndSet(false, true))
+                return;
+
+            timeoutRejections.increment();
+            future.cancel(false);
+            result.completeExceptionally(new BulkheadRejectedException(trafficClass, "timed out"));
+        }
+    }
+
+    /**
+     * Parte de {@link #invokeAll(List)}, executada por quem a pegar primeiro: uma thread do bulkhead ou a que
+     * chamou.
+     */
+    private final class Part<T> {
+        private final Supplier<T> task;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Part(Supplier<T> task) {
+            this.task = task;
+        }
+
+        private void runIfUnclaimed() {
+            if (!claimed.compareAndSet(false, true))
+                return;
+            try {
+                result.complete(TrafficClassContext.callAs(trafficClass, task));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor timeoutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "employee-bulkhead-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static final class BulkheadThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private BulkheadThreadFactory(TrafficClass trafficClass) {
+            this.prefix = "employee-" + trafficClass.name().toLowerCase(Locale.ROOT) + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.spring.boot.test.junit.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Os bulkheads de cada {@link TrafficClass} da API de funcionários.
+ * <p>
+ * Varreduras grandes ficam limitadas a poucas threads e a uma fila curta, com prazo de espera longo; leituras
+ * pontuais têm mais threads e prazo curto. O prazo vale apenas para a espera na fila (veja {@link Bulkhead}). Com
+ * {@code employee.bulkhead.datasource.enabled}, cada classe também usa seu próprio pool de conexões (veja
+ * {@link TrafficClassRoutingDataSource}).
+ * <p>
+ * Por padrão, o bulkhead tem uma thread por conexão do pool da classe, {@code employee.bulkhead.<classe>.pool-size}:
+ * uma thread a mais só esperaria por uma conexão, sem o prazo e a rejeição do bulkhead. Os tamanhos padrão dos pools
+ * são os deste bulkhead, e somam o tamanho padrão do pool único do Hikari.
+ */
+@Component
+public class EmployeeBulkheads implements DisposableBean {
+
+    public static final int DEFAULT_BULK_POOL_SIZE = 2;
+    public static final int DEFAULT_POINT_POOL_SIZE = 6;
+    public static final int DEFAULT_WRITE_POOL_SIZE = 2;
+
+    private final Bulkhead bulk;
+    private final Bulkhead point;
+    private final Bulkhead write;
+
+    public EmployeeBulkheads(@Value("${employee.bulkhead.bulk.threads:${employee.bulkhead.bulk.pool-size:"
+                                     + DEFAULT_BULK_POOL_SIZE + "}}") int bulkThreads,
+                             @Value("${employee.bulkhead.bulk.queue-size:8}") int bulkQueueSize,
+                             @Value("${employee.bulkhead.bulk.timeout:PT30S}") Duration bulkTimeout,
+                             @Value("${employee.bulkhead.point.threads:${employee.bulkhead.point.pool-size:"
+                                     + DEFAULT_POINT_POOL_SIZE + "}}") int pointThreads,
+                             @Value("${employee.bulkhead.point.queue-size:256}") int pointQueueSize,
+                             @Value("${employee.bulkhead.point.timeout:PT2S}") Duration pointTimeout,
+                             @Value("${employee.bulkhead.write.threads:${employee.bulkhead.write.pool-size:"
+                                     + DEFAULT_WRITE_POOL_SIZE + "}}") int writeThreads,
+                             @Value("${employee.bulkhead.write.queue-size:128}") int writeQueueSize,
+                             @Value("${employee.bulkhead.write.timeout:PT5S}") Duration writeTimeout,
+                             ObjectProvider<TaskDecorator> taskDecorator,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        TaskDecorator decorator = taskDecorator.getIfUnique(() -> task -> task);
+
+        this.bulk = new Bulkhead(TrafficClass.BULK, bulkThreads, bulkQueueSize, bulkTimeout, decorator);
+        this.point = new Bulkhead(TrafficClass.POINT, pointThreads, pointQueueSize, pointTimeout, decorator);
+        this.write = new Bulkhead(TrafficClass.WRITE, writeThreads, writeQueueSize, writeTimeout, decorator);
+
+        meterRegistry.ifAvailable(registry -> List.of(bulk, point, write).forEach(bulkhead -> bindMetrics(bulkhead, registry)));
+    }
+
+    public Bulkhead bulk() {
+        return bulk;
+    }
+
+    public Bulkhead point() {
+        return point;
+    }
+
+    public Bulkhead write() {
+        return write;
+    }
+
+    /**
+     * @return O bulkhead da classe de tráfego, ou {@code null} se ela não tem bulkhead próprio.
+     */
+    @Nullable
+    public Bulkhead forTrafficClass(TrafficClass trafficClass) {
+        return switch (trafficClass) {
+            case BULK -> bulk;
+            case POINT -> point;
+            case WRITE -> write;
+            case ID_BLOCK -> null;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        bulk.shutdown();
+        point.shutdown();
+        write.shutdown();
+    }
+
+    private static void bindMetrics(Bulkhead bulkhead, MeterRegistry registry) {
+        String trafficClass = bulkhead.getTrafficClass().name().toLowerCase(Locale.ROOT);
+
+        Gauge.builder("employee.bulkhead.active", bulkhead, Bulkhead::getActiveCount)
+                .tag("traffic_class", trafficClass)
+                .register(registry);
+        Gauge.builder("employee.bulkhead.queued", bulkhead, Bulkhead::getQueueSize)
+                .tag("traffic_class", trafficClass)
+                .register(registry);
+        FunctionCounter.builder("employee.bulkhead.rejections", bulkhead, Bulkhead::getQueueFullRejections)
+                .tag("traffic_class", trafficClass)
+                .tag("reason", "queue_full")
+                .register(registry);
+        FunctionCounter.builder("employee.bulkhead.rejections", bulkhead, Bulkhead::getTimeoutRejections)
+                .tag("traffic_class", trafficClass)
+                .tag("reason", "timeout")
+                .register(registry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.spring.boot.test.junit.bulkhead;
+
+/**
+ * Classes de tráfego da API de funcionários, isoladas em bulkheads próprios.
+ */
+public enum TrafficClass {
+
+    /**
+     * Leituras que percorrem a tabela inteira ou grandes faixas dela (listagem, export, sincronização).
+     */
+    BULK,
+
+    /**
+     * Leituras pontuais por chave ou índice seletivo.
+     */
+    POINT,
+
+    /**
+     * Inclusões, alterações e exclusões.
+     */
+    WRITE,
+
+    /**
+     * Reservas de blocos de ids do gerador {@code hilo}, feitas durante as inclusões. Sem bulkhead próprio: o pool
+     * separado impede que as threads de escrita, cada uma com a sua conexão, esperem por uma segunda conexão do
+     * mesmo pool.
+     */
+    ID_BLOCK
+}
@@ -0,0 +1,42 @@
+package com.spring.boot.test.junit.bulkhead;
+
+import java.util.function.Supplier;
+
+/**
+ * Guarda a {@link TrafficClass} da tarefa executada pela thread atual, usada por
+ * {@link TrafficClassRoutingDataSource} para escolher o pool de conexões.
+ */
+public final class TrafficClassContext {
+
+    private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+    private TrafficClassContext() {
+    }
+
+    /**
+     * @return A classe de tráfego da thread atual, ou {@code null} fora de um bulkhead.
+     */
+    public static TrafficClass current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callAs(TrafficClass trafficClass, Supplier<T> task) {
+        TrafficClass previous = CURRENT.get();
+        CURRENT.set(trafficClass);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    public static void runAs(TrafficClass trafficClass, Runnable task) {
+        callAs(trafficClass, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.spring.boot.test.junit.bulkhead;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega a cada {@link TrafficClass} conexões de um pool próprio, de acordo com o
+ * {@link TrafficClassContext} da thread que pede a conexão.
+ * <p>
+ * Código executado fora de um bulkhead (tarefas agendadas, inicialização) usa o pool de leituras pontuais.
+ */
+public class TrafficClassRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<TrafficClass, DataSource> pools;
+
+    public TrafficClassRoutingDataSource(Map<TrafficClass, DataSource> pools) {
+        this.pools = Map.copyOf(pools);
+
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(TrafficClass.POINT));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TrafficClassContext.current();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools.values())
+            if (pool instanceof AutoCloseable closeable)
+                closeable.close();
+    }
+}
@@ -0,0 +1,27 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Substitui o pool único do Hikari por um pool por {@link TrafficClass}. Com sharding, os pools por classe de
+ * tráfego são criados para cada shard por {@link ShardingConfig}.
+ */
+@Configuration
+@ConditionalOnExpression("${employee.bulkhead.datasource.enabled:false} and !${employee.sharding.enabled:false}")
+public class BulkheadDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        return HikariPools.create(properties.initializeDataSourceBuilder(), Binder.get(environment), "employee",
+                pool -> {
+                });
+    }
+}
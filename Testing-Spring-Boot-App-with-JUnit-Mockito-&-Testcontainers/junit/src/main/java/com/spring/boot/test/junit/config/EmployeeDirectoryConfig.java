@@ -0,0 +1,99 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.directory.EmployeeDirectoryRefresher;
+import com.spring.boot.test.junit.directory.EmployeeDirectorySnapshot;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Habilita o {@link EmployeeDirectory}, que passa a atender as leituras por id e por e-mail, as sugestões por
+ * prefixo e a verificação de e-mail repetido de {@code EmployeeServiceImpl} assim que a carga inicial termina.
+ * <p>
+ * Com {@code employee.directory.snapshot.path} configurado, um snapshot gravado há menos de
+ * {@code employee.directory.snapshot.max-age} é restaurado na inicialização: o diretório atende leituras
+ * imediatamente e a primeira atualização traz apenas as alterações feitas depois do snapshot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employee.directory.enabled", havingValue = "true")
+public class EmployeeDirectoryConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectoryConfig.class);
+
+    private final int expectedEmployees;
+    private final Path snapshotFile;
+    private final Duration snapshotMaxAge;
+
+    private Optional<EmployeeDirectorySnapshot.Restored> restored;
+
+    public EmployeeDirectoryConfig(@Value("${employee.directory.expected-employees:100000}") int expectedEmployees,
+                                   @Value("${employee.directory.snapshot.path:}") String snapshotPath,
+                                   @Value("${employee.directory.snapshot.max-age:PT1H}") Duration snapshotMaxAge) {
+        this.expectedEmployees = expectedEmployees;
+        this.snapshotFile = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.snapshotMaxAge = snapshotMaxAge;
+    }
+
+    @Bean
+    public EmployeeDirectory employeeDirectory() {
+        return restored()
+                .map(EmployeeDirectorySnapshot.Restored::directory)
+                .orElseGet(() -> new EmployeeDirectory(expectedEmployees));
+    }
+
+    @Bean
+    public EmployeeDirectoryRefresher employeeDirectoryRefresher(EmployeeDirectory employeeDirectory,
+                                                                 EmployeeService employeeService,
+                                                                 @Value("${employee.directory.page-size:5000}") int pageSize,
+                                                                 @Value("${employee.directory.snapshot.interval:PT5M}") Duration snapshotInterval) {
+        SyncWatermark watermark = restored()
+                .filter(snapshot -> snapshot.directory() == employeeDirectory)
+                .map(EmployeeDirectorySnapshot.Restored::watermark)
+                .orElse(SyncWatermark.INITIAL);
+
+        return new EmployeeDirectoryRefresher(employeeDirectory, employeeService, pageSize, watermark, snapshotFile,
+                snapshotInterval);
+    }
+
+    private synchronized Optional<EmployeeDirectorySnapshot.Restored> restored() {
+        if (restored == null)
+            restored = restore();
+
+        return restored;
+    }
+
+    private Optional<EmployeeDirectorySnapshot.Restored> restore() {
+        if (snapshotFile == null)
+            return Optional.empty();
+
+        long started = System.nanoTime();
+
+        try {
+            Optional<EmployeeDirectorySnapshot.Restored> snapshot = EmployeeDirectorySnapshot.read(snapshotFile)
+                    .filter(candidate -> candidate.createdAt().isAfter(Instant.now().minus(snapshotMaxAge)));
+
+            snapshot.ifPresent(candidate -> {
+                candidate.directory().markReady();
+                log.info("Employee directory restored {} employees from {} (written at {}) in {} ms",
+                        candidate.directory().size(), snapshotFile, candidate.createdAt(),
+                        (System.nanoTime() - started) / 1_000_000);
+            });
+            return snapshot;
+        } catch (IOException e) {
+            log.warn("Could not read employee directory snapshot {}", snapshotFile, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.bulkhead.EmployeeBulkheads;
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.bulkhead.TrafficClassRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Cria os pools do Hikari de um banco de dados: um pool único ou, com
+ * {@code employee.bulkhead.datasource.enabled}, um pool por {@link TrafficClass}. Todos os pools recebem as
+ * propriedades {@code spring.datasource.hikari.*} comuns.
+ * <p>
+ * O pool de {@link TrafficClass#ID_BLOCK} só é criado com o gerador de ids {@code hilo}. Com o pool único, as
+ * threads de escrita são menos que as conexões e a reserva de um bloco sempre encontra uma conexão livre.
+ */
+final class HikariPools {
+
+    /**
+     * Os mesmos padrões das threads de {@link EmployeeBulkheads}, que têm uma thread por conexão.
+     */
+    private static final Map<TrafficClass, Integer> DEFAULT_POOL_SIZES = Map.of(
+            TrafficClass.BULK, EmployeeBulkheads.DEFAULT_BULK_POOL_SIZE,
+            TrafficClass.POINT, EmployeeBulkheads.DEFAULT_POINT_POOL_SIZE,
+            TrafficClass.WRITE, EmployeeBulkheads.DEFAULT_WRITE_POOL_SIZE,
+            TrafficClass.ID_BLOCK, 1);
+
+    private HikariPools() {
+    }
+
+    static DataSource create(DataSourceBuilder<?> connection, Binder binder, String name,
+                             Consumer<HikariDataSource> customizer) {
+        if (!binder.bind("employee.bulkhead.datasource.enabled", Boolean.class).orElse(false))
+            return pool(connection, binder, name + "-pool", customizer);
+
+        boolean hiLo = "hilo".equals(binder.bind("employee.id.generator", String.class).orElse(null));
+
+        Map<TrafficClass, DataSource> pools = new EnumMap<>(TrafficClass.class);
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            if (trafficClass == TrafficClass.ID_BLOCK && !hiLo)
+                continue;
+
+            String key = trafficClass.name().toLowerCase(Locale.ROOT);
+            int size = binder.bind("employee.bulkhead." + key + ".pool-size", Integer.class)
+                    .orElse(DEFAULT_POOL_SIZES.get(trafficClass));
+
+            HikariDataSource pool = pool(connection, binder, name + "-" + key + "-pool", customizer);
+            pool.setMaximumPoolSize(size);
+            pool.setMinimumIdle(size);
+            pools.put(trafficClass, pool);
+        }
+        return new TrafficClassRoutingDataSource(pools);
+    }
+
+    private static HikariDataSource pool(DataSourceBuilder<?> connection, Binder binder, String poolName,
+                                         Consumer<HikariDataSource> customizer) {
+        HikariDataSource dataSource = connection.type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+
+        dataSource.setPoolName(poolName);
+        customizer.accept(dataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.id.*;
+import com.spring.boot.test.junit.shard.ShardResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Escolhe a estratégia de geração dos ids de funcionários: {@code snowflake} (padrão), que não consulta o
+ * banco, ou {@code hilo}, que reserva blocos de {@code employee.id.block-size} valores na tabela
+ * {@code employee_id_block}.
+ * <p>
+ * O {@code employee.id.node-id} só é lido pelo {@code snowflake}; no perfil de produção ele vem de
+ * {@code EMPLOYEE_NODE_ID}, sem valor padrão, e a aplicação não inicia sem ele: duas instâncias com o mesmo
+ * node-id gerariam ids repetidos.
+ * <p>
+ * O gerador do Hibernate ({@link EmployeeIdentifierGenerator}) busca a {@link EmployeeIdStrategy} deste contexto
+ * ao criar a {@code SessionFactory}.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator employeeIdGenerator(@Value("${employee.id.generator:snowflake}") String strategy,
+                                           @Value("${employee.id.block-size:1000}") int blockSize,
+                                           ObjectProvider<DataSource> dataSource,
+                                           Environment environment) {
+        return switch (strategy) {
+            // Lido só aqui: o hilo não exige o node-id
+            case "snowflake" ->
+                    new SnowflakeIdGenerator(environment.getProperty("employee.id.node-id", Integer.class, 0));
+            case "hilo" -> new HiLoIdGenerator(new JdbcIdBlockSource(dataSource.getObject(), "employee"), blockSize);
+            default -> throw new IllegalArgumentException("Unknown employee.id.generator: " + strategy);
+        };
+    }
+
+    @Bean
+    public EmployeeIdStrategy employeeIdStrategy(IdGenerator employeeIdGenerator,
+                                                 ObjectProvider<ShardResolver> shardResolver) {
+        return new EmployeeIdStrategy(employeeIdGenerator,
+                shardResolver.getIfAvailable(() -> EmployeeIdStrategy.defaults().resolver()));
+    }
+}
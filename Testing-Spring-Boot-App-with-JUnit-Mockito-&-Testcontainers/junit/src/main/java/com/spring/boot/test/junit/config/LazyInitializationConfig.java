@@ -0,0 +1,29 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectoryRefresher;
+import com.spring.boot.test.junit.id.IdGenerator;
+import com.spring.boot.test.junit.notification.EmployeeChangeBroadcaster;
+import com.spring.boot.test.junit.outbox.EmployeeOutboxRelay;
+import com.spring.boot.test.junit.writebehind.EmployeeWriteBehind;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans que continuam sendo criados na inicialização com {@code spring.main.lazy-initialization=true}: os que
+ * têm tarefas {@code @Scheduled}, registradas apenas quando o bean é criado, e o gerador de ids, que se registra
+ * no Hibernate ao ser criado.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                IdGenerator.class,
+                EmployeeOutboxRelay.class,
+                EmployeeChangeBroadcaster.class,
+                EmployeeDirectoryRefresher.class,
+                EmployeeWriteBehind.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.id.EmployeeIdentifierGenerator;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.outbox.EmployeeEvent;
+import com.spring.boot.test.junit.repository.EmployeeRepository;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+/**
+ * Metadados de reflexão para o executável nativo (perfil Maven {@code native}) que o processamento AOT do Spring
+ * não descobre sozinho.
+ * <p>
+ * Os métodos do controller retornam {@code CompletableFuture<ResponseEntity<...>>}, e o AOT do Spring MVC só
+ * registra o tipo do corpo quando ele aparece diretamente ou dentro de um {@code ResponseEntity}; por isso os
+ * tipos serializados pelo Jackson, incluindo os acessores gerados pelo Lombok em {@link Employee}, são
+ * registrados aqui. O gerador de ids é instanciado pelo Hibernate por reflexão a partir de {@code @EmployeeId}.
+ * <p>
+ * As contagens agrupadas das consultas nativas são lidas pela projeção {@link EmployeeRepository.GroupCount}, que
+ * o Spring Data implementa com um proxy do JDK criado em tempo de execução.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.EmployeeRuntimeHints.class)
+public class NativeImageConfig {
+
+    static class EmployeeRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    Employee.class, EmployeeChangesPage.class, SyncWatermark.class, EmployeeEvent.class,
+                    EmployeeStats.class, EmployeeStats.GroupCount.class);
+
+            hints.reflection().registerType(Employee.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+            hints.reflection().registerType(Employee.EmployeeBuilder.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(EmployeeIdentifierGenerator.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+            // Nomes e anotações dos parâmetros das consultas derivadas e nomeadas
+            hints.reflection().registerType(EmployeeRepository.class,
+                    MemberCategory.INTROSPECT_PUBLIC_METHODS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            hints.proxies().registerJdkProxy(EmployeeRepository.GroupCount.class,
+                    TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+            hints.reflection().registerType(EmployeeRepository.GroupCount.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.ratelimit.RateLimitInterceptor;
+import com.spring.boot.test.junit.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "employee.rate-limit.enabled", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RateLimitConfig(RateLimitProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // O stream SSE de alterações é uma conexão longa e não deve ocupar o limite de concorrência.
+        registry.addInterceptor(new RateLimitInterceptor(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new)))
+                .addPathPatterns("/api/v1/employee", "/api/v1/employee/**")
+                .excludePathPatterns("/api/v1/employee/changes");
+    }
+}
@@ -0,0 +1,107 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.bulkhead.EmployeeBulkheads;
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.service.impl.EmployeeServiceImpl;
+import com.spring.boot.test.junit.service.impl.ShardedEmployeeService;
+import com.spring.boot.test.junit.shard.*;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "employee.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig implements WebMvcConfigurer {
+
+    private final ShardingProperties properties;
+
+    public ShardingConfig(ShardingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public ShardResolver shardResolver() {
+        return new ShardResolver(properties.getShards().size(), properties.getTenants());
+    }
+
+    /**
+     * Cada conexão de um shard gera ids com passo igual ao número de shards e deslocamento próprio, para que
+     * os ids sejam únicos entre os shards e indiquem o shard de origem. Só o MySQL tem essas variáveis; em outros
+     * bancos (o H2 dos testes) os ids gerados pelo banco se repetem entre os shards, e apenas os dos funcionários,
+     * atribuídos pela aplicação, indicam o shard.
+     */
+    @Bean
+    public ShardRoutingDataSource dataSource(ShardResolver shardResolver, Environment environment) {
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>();
+
+        for (int index = 0; index < properties.getShards().size(); index++) {
+            ShardingProperties.Shard shard = properties.getShards().get(index);
+            String autoIncrement = "SET SESSION auto_increment_increment = " + shardResolver.shardCount()
+                    + ", auto_increment_offset = " + shardResolver.autoIncrementOffset(index);
+            boolean mysql = shard.getUrl().startsWith("jdbc:mysql:");
+
+            shards.add(HikariPools.create(
+                    DataSourceBuilder.create().url(shard.getUrl()).username(shard.getUsername()).password(shard.getPassword()),
+                    binder,
+                    "employee-shard" + index,
+                    pool -> pool.setConnectionInitSql(mysql ? autoIncrement : null)));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * Aplica as migrações em todos os shards; sem isso o Flyway migraria apenas o shard padrão do
+     * {@link ShardRoutingDataSource}.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(ShardRoutingDataSource dataSource) {
+        return flyway -> {
+            for (DataSource shard : dataSource.shards())
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+        };
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardResolver shardResolver, EmployeeBulkheads bulkheads) {
+        return new ShardRouter(shardResolver, bulkheads::forTrafficClass);
+    }
+
+    @Bean
+    @Primary
+    public EmployeeService shardedEmployeeService(EmployeeServiceImpl employeeServiceImpl, ShardRouter shardRouter,
+                                                  @Nullable EmployeeDirectory employeeDirectory) {
+        return new ShardedEmployeeService(employeeServiceImpl, shardRouter, employeeDirectory);
+    }
+
+    /**
+     * Propaga o shard da requisição para as threads dos bulkheads e do executor assíncrono do Spring MVC.
+     */
+    @Bean
+    public TaskDecorator shardContextTaskDecorator() {
+        return ShardContext::decorate;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ShardInterceptor(shardResolver(), properties.getTenantHeader()))
+                .addPathPatterns("/api/v1/employee", "/api/v1/employee/**");
+    }
+}
@@ -0,0 +1,44 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.outbox.EmployeeOutbox;
+import com.spring.boot.test.junit.writebehind.EmployeeWriteBehind;
+import com.spring.boot.test.junit.writebehind.WriteBehindLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Habilita a escrita tardia de {@code EmployeeServiceImpl#updateEmployeeById}, com {@link EmployeeWriteBehind}.
+ * As descargas antecipadas, quando o buffer enche, executam no agendador das tarefas {@code @Scheduled}, e não na
+ * thread da requisição. Com sharding, as alterações continuam sendo gravadas uma a uma.
+ */
+@Configuration
+@ConditionalOnExpression("${employee.write-behind.enabled:false} and !${employee.sharding.enabled:false}")
+public class WriteBehindConfig {
+
+    @Bean
+    public EmployeeWriteBehind employeeWriteBehind(DataSource dataSource,
+                                                   PlatformTransactionManager transactionManager,
+                                                   EmployeeOutbox employeeOutbox,
+                                                   ObjectProvider<EmployeeDirectory> employeeDirectory,
+                                                   TaskScheduler taskScheduler,
+                                                   @Value("${employee.write-behind.log.path:write-behind}") String logPath,
+                                                   @Value("${employee.write-behind.log.sync:true}") boolean logSync,
+                                                   @Value("${employee.write-behind.max-pending:10000}") int maxPending,
+                                                   @Value("${employee.write-behind.batch-size:500}") int batchSize)
+            throws IOException {
+        return new EmployeeWriteBehind(new WriteBehindLog(Path.of(logPath), logSync), dataSource, transactionManager,
+                employeeOutbox, employeeDirectory.getIfAvailable(), task -> taskScheduler.schedule(task, Instant.now()),
+                maxPending, batchSize);
+    }
+}
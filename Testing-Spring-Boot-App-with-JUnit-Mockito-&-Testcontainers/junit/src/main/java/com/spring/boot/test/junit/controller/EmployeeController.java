@@ -1,63 +1,177 @@
 package com.spring.boot.test.junit.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.bulkhead.TrafficClassContext;
 import com.spring.boot.test.junit.exception.ResourceNotFoundException;
+import com.spring.boot.test.junit.idempotency.IdempotentRequests;
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.service.AsyncEmployeeService;
 import com.spring.boot.test.junit.service.EmployeeService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 public class EmployeeController {
 
+    private static final int MAX_CHANGES_PAGE_SIZE = 5000;
+    private static final int MAX_STATS_TOP = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final EmployeeService employeeService;
+    private final AsyncEmployeeService asyncEmployeeService;
+    private final IdempotentRequests idempotentRequests;
+    private final ObjectWriter employeeWriter;
+    private final Duration exportTimeout;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, AsyncEmployeeService asyncEmployeeService,
+                              IdempotentRequests idempotentRequests, ObjectMapper objectMapper,
+                              @Value("${employee.export.timeout:PT30M}") Duration exportTimeout) {
         this.employeeService = employeeService;
+        this.asyncEmployeeService = asyncEmployeeService;
+        this.idempotentRequests = idempotentRequests;
+        this.employeeWriter = objectMapper.writerFor(Employee.class).withRootValueSeparator("\n");
+        this.exportTimeout = exportTimeout;
     }
 
+    /**
+     * Com o cabeçalho {@code Idempotency-Key}, uma repetição da requisição retorna a resposta original sem
+     * incluir o funcionário de novo (veja {@link IdempotentRequests}).
+     */
     @PostMapping
-    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
-        Employee savedEmployee = employeeService.saveEmployee(employee);
-        return new ResponseEntity<>(savedEmployee, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(
+            @RequestHeader(value = IdempotentRequests.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody Employee employee) {
+        if (idempotencyKey == null)
+            return saveEmployee(employee);
+
+        // O salvamento atribui o id ao próprio corpo recebido
+        Object fingerprint = Arrays.asList(employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        return idempotentRequests.execute(idempotencyKey, fingerprint, () -> saveEmployee(employee));
+    }
+
+    private CompletableFuture<ResponseEntity<Employee>> saveEmployee(Employee employee) {
+        return asyncEmployeeService.saveEmployee(employee)
+                .thenApply(savedEmployee -> new ResponseEntity<>(savedEmployee, HttpStatus.CREATED));
     }
 
     @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees() {
-        List<Employee> employees = employeeService.getAllEmployees();
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees() {
+        return asyncEmployeeService.getAllEmployees()
+                .thenApply(employees -> new ResponseEntity<>(employees, HttpStatus.OK));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable Long id) {
-        return employeeService.getEmployeeById(id)
-                .map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+    /**
+     * Escreve todos os funcionários, um JSON por linha, à medida que são lidos do banco.
+     * <p>
+     * O corpo é escrito pelo executor assíncrono do Spring MVC, com prazo próprio ({@code employee.export.timeout}):
+     * o prazo geral das requisições assíncronas interromperia as exportações de tabelas grandes.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportEmployees(HttpServletResponse response) {
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+            try (SequenceWriter sequenceWriter = employeeWriter.writeValues(response.getOutputStream())) {
+                // A conexão vem do pool de varreduras, uma página por vez
+                TrafficClassContext.runAs(TrafficClass.BULK, () -> employeeService.forEachEmployee(employee -> {
+                    try {
+                        sequenceWriter.write(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            return null;
+        });
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployeeById(@PathVariable("id") Long id, @RequestBody Employee employee) {
-        return employeeService.getEmployeeById(id)
-                .map(employeeObj -> {
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<List<Employee>>> searchEmployeesByName(
+            @RequestParam("firstName") String firstName,
+            @RequestParam(value = "lastName", required = false) String lastName) {
+        return asyncEmployeeService.searchEmployeesByName(firstName, lastName).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Sugestões para o preenchimento automático: funcionários cujo primeiro nome, sobrenome ou e-mail começa com
+     * {@code prefix}.
+     */
+    @GetMapping("/suggest")
+    public CompletableFuture<ResponseEntity<List<Employee>>> suggestEmployees(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return asyncEmployeeService.suggestEmployees(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/by-email")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeByEmail(@RequestParam("email") String email) {
+        return asyncEmployeeService.getEmployeeByEmail(email).thenApply(EmployeeController::okOrNotFound);
+    }
+
+    @GetMapping("/changes-since")
+    public CompletableFuture<ResponseEntity<EmployeeChangesPage>> getEmployeeChangesSince(
+            @RequestParam(value = "watermark", required = false) String watermark,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        SyncWatermark since = SyncWatermark.parse(watermark);
+        int pageSize = Math.max(1, Math.min(limit, MAX_CHANGES_PAGE_SIZE));
 
-                    employee.setFirstName(employee.getFirstName());
-                    employee.setLastName(employee.getLastName());
-                    employee.setEmail(employee.getEmail());
+        return asyncEmployeeService.getEmployeeChangesSince(since, pageSize).thenApply(ResponseEntity::ok);
+    }
 
-                    Employee updatedEmployee = employeeService.updateEmployeeById(employee);
+    /**
+     * Contagens calculadas no banco, para que os clientes não precisem baixar a lista completa.
+     */
+    @GetMapping("/stats")
+    public CompletableFuture<ResponseEntity<EmployeeStats>> getEmployeeStats(
+            @RequestParam(value = "top", defaultValue = "10") int top) {
+        return asyncEmployeeService.getEmployeeStats(Math.max(1, Math.min(top, MAX_STATS_TOP)))
+                .thenApply(ResponseEntity::ok);
+    }
 
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
-                })
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable Long id) {
+        return asyncEmployeeService.getEmployeeById(id).thenApply(EmployeeController::okOrNotFound);
+    }
+
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> updateEmployeeById(@PathVariable("id") Long id,
+                                                                         @RequestBody Employee employee) {
+        employee.setId(id);
+
+        // O serviço verifica a existência do funcionário e responde 404 com ResourceNotFoundException
+        return asyncEmployeeService.updateEmployeeById(employee)
+                .thenApply(updatedEmployee -> new ResponseEntity<>(updatedEmployee, HttpStatus.OK));
     }
 
     // EmployeeController.java
     @DeleteMapping("/{id}")
-    public ResponseEntity<HttpStatus> deleteEmployeeById(@PathVariable("id") Long id) {
-        employeeService.deleteEmployee(id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public CompletableFuture<ResponseEntity<HttpStatus>> deleteEmployeeById(@PathVariable("id") Long id) {
+        return asyncEmployeeService.deleteEmployee(id)
+                .thenApply(deleted -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    private static ResponseEntity<Employee> okOrNotFound(Optional<Employee> employee) {
+        return employee.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
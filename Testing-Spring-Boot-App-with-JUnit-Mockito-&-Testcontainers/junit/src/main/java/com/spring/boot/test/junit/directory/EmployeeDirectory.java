@@ -0,0 +1,429 @@
+package com.spring.boot.test.junit.directory;
+
+import com.spring.boot.test.junit.model.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Cópia em memória de todos os funcionários, para leituras por id e por e-mail sem consulta ao banco.
+ * <p>
+ * Os registros ficam em um {@link ByteBuffer} direto, fora do heap, um após o outro: id, {@code updatedAt} em
+ * microssegundos, um byte de flags e o primeiro nome, o sobrenome e o e-mail em UTF-8, cada um precedido do seu
+ * tamanho. Dois {@link LongIntHashMap} levam do id e do hash do e-mail à posição do registro, de modo que o
+ * diretório inteiro ocupa poucos objetos no heap, independentemente do número de funcionários.
+ * <p>
+ * Uma alteração grava um registro novo no final do buffer e aponta os índices para ele; quando o espaço ocupado
+ * por registros antigos passa da metade do buffer, os registros vigentes são copiados para um buffer novo.
+ * Exclusões são gravadas como registros marcados, para que uma versão mais antiga do funcionário, vinda de uma
+ * sincronização atrasada, não o traga de volta.
+ * <p>
+ * Um {@link PrefixTrie} associa o primeiro nome, o sobrenome e o e-mail dos funcionários não excluídos aos seus
+ * ids, para as sugestões de {@link #findByPrefix(String, int)} e a verificação de {@link #containsEmail(String)}.
+ * Ele é mantido pelas mesmas alterações que os registros e, como não guarda posições no buffer, não é afetado
+ * pela compactação.
+ * <p>
+ * Há um único escritor por vez; as leituras por id e por e-mail não bloqueiam: são feitas de forma otimista e
+ * repetidas com o lock de leitura apenas se uma escrita acontecer no meio delas. As consultas à árvore de
+ * prefixos, que percorre ponteiros que uma escrita pode estar alterando, usam sempre o lock de leitura.
+ */
+public class EmployeeDirectory {
+
+    private static final int UPDATED_AT = 8;
+    private static final int FLAGS = 16;
+    private static final int FIRST_NAME = 17;
+
+    private static final byte DELETED = 1;
+
+    private static final int MIN_COMPACTION_BYTES = 1 << 20;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongIntHashMap byId;
+    private final LongIntHashMap byEmail;
+    private final PrefixTrie prefixes;
+    private final int initialCapacity;
+
+    private ByteBuffer records;
+    private int position;
+    private int liveBytes;
+    private int liveEmployees;
+    private volatile boolean ready;
+
+    public EmployeeDirectory(int expectedEmployees) {
+        this.byId = new LongIntHashMap(expectedEmployees);
+        this.byEmail = new LongIntHashMap(expectedEmployees);
+        this.prefixes = new PrefixTrie(expectedEmployees * 3);
+        this.initialCapacity = Math.max(4096, expectedEmployees * 64);
+        this.records = ByteBuffer.allocateDirect(initialCapacity);
+    }
+
+    /**
+     * Restaura um estado gravado por {@link #exportState()}, como o de um snapshot mapeado em memória. Os
+     * índices são copiados para o heap; os registros continuam no buffer recebido, que pode ser somente leitura:
+     * a primeira alteração copia os registros para um buffer direto novo. A árvore de prefixos não faz parte do
+     * estado gravado e é reconstruída a partir dos registros.
+     */
+    EmployeeDirectory(ByteBuffer state) {
+        ByteBuffer source = state.duplicate();
+
+        this.position = source.getInt();
+        this.liveBytes = source.getInt();
+        this.liveEmployees = source.getInt();
+        this.initialCapacity = source.getInt();
+        this.byId = LongIntHashMap.readFrom(source);
+        this.byEmail = LongIntHashMap.readFrom(source);
+        this.records = source.slice(source.position(), position);
+        this.prefixes = new PrefixTrie(liveEmployees * 3);
+
+        byId.forEach((id, offset) -> {
+            if (!isDeleted(records, offset))
+                index(decode(records, offset));
+        });
+    }
+
+    public Optional<Employee> findById(long id) {
+        return Optional.ofNullable(read(() -> {
+            int offset = byId.get(id);
+            return offset == LongIntHashMap.MISSING || isDeleted(records, offset) ? null : decode(records, offset);
+        }));
+    }
+
+    /**
+     * Os e-mails são comparados na forma de {@link Employee#normalizeEmail(String)}, a mesma do banco.
+     */
+    public Optional<Employee> findByEmail(String email) {
+        String normalizedEmail = Employee.normalizeEmail(email);
+        long hash = hash(normalizedEmail);
+
+        return Optional.ofNullable(read(() -> {
+            int offset = byEmail.get(hash);
+
+            if (offset == LongIntHashMap.MISSING || isDeleted(records, offset))
+                return null;
+
+            Employee employee = decode(records, offset);
+            return normalizedEmail.equals(Employee.normalizeEmail(employee.getEmail())) ? employee : null;
+        }));
+    }
+
+    /**
+     * Verifica se algum funcionário não excluído usa o e-mail, comparado como em {@link #findByEmail(String)}.
+     */
+    public boolean containsEmail(String email) {
+        String normalizedEmail = Employee.normalizeEmail(email);
+
+        return locked(() -> {
+            boolean[] found = {false};
+
+            prefixes.forEachExact(normalizedEmail, id -> {
+                // A mesma chave pode ser o nome de outro funcionário
+                int offset = byId.get(id);
+                found[0] = offset != LongIntHashMap.MISSING && normalizedEmail.equals(
+                        Employee.normalizeEmail(decode(records, offset).getEmail()));
+                return !found[0];
+            });
+            return found[0];
+        });
+    }
+
+    /**
+     * Os funcionários cujo primeiro nome, sobrenome ou e-mail começa com {@code prefix}, sem diferenciar maiúsculas
+     * de minúsculas, na ordem alfabética da chave encontrada. Cada funcionário aparece uma vez.
+     */
+    public List<Employee> findByPrefix(String prefix, int limit) {
+        return locked(() -> {
+            List<Employee> employees = new ArrayList<>(Math.min(limit, 64));
+            Set<Long> seen = new HashSet<>();
+
+            prefixes.forEachWithPrefix(prefix, id -> {
+                if (seen.add(id))
+                    employees.add(decode(records, byId.get(id)));
+
+                return employees.size() < limit;
+            });
+            return employees;
+        });
+    }
+
+    /**
+     * Grava a versão do funcionário, ou a sua exclusão se estiver marcado como excluído.
+     *
+     * @return {@code false} se o diretório já tiver uma versão mais recente do funcionário.
+     */
+    public boolean apply(Employee employee) {
+        if (employee.getId() == null || employee.getUpdatedAt() == null)
+            throw new IllegalArgumentException("employee must have id and updatedAt: " + employee.getId());
+
+        long updatedAt = ChronoUnit.MICROS.between(Instant.EPOCH, employee.getUpdatedAt());
+        byte[] firstName = utf8(employee.getFirstName());
+        byte[] lastName = utf8(employee.getLastName());
+        byte[] email = utf8(employee.getEmail());
+
+        long stamp = lock.writeLock();
+        try {
+            int previous = byId.get(employee.getId());
+
+            if (previous != LongIntHashMap.MISSING) {
+                if (records.getLong(previous + UPDATED_AT) > updatedAt)
+                    return false;
+
+                forget(previous);
+            }
+
+            int offset = position;
+            int length = FIRST_NAME + 6 + firstName.length + lastName.length + email.length;
+
+            ensureCapacity(length);
+            records.putLong(offset, employee.getId());
+            records.putLong(offset + UPDATED_AT, updatedAt);
+            records.put(offset + FLAGS, employee.isDeleted() ? DELETED : 0);
+
+            int next = putString(offset + FIRST_NAME, firstName);
+            next = putString(next, lastName);
+            putString(next, email);
+            position += length;
+
+            byId.put(employee.getId(), offset);
+            liveBytes += length;
+
+            if (!employee.isDeleted()) {
+                byEmail.put(hash(employee.getEmail()), offset);
+                index(employee);
+                liveEmployees++;
+            }
+
+            if (position > MIN_COMPACTION_BYTES && position > 2 * liveBytes)
+                compact();
+
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return O número de funcionários não excluídos no diretório.
+     */
+    public int size() {
+        return read(() -> liveEmployees);
+    }
+
+    /**
+     * @return O número de bytes ocupados no buffer fora do heap, incluindo versões antigas ainda não compactadas.
+     */
+    public int usedBytes() {
+        return read(() -> position);
+    }
+
+    /**
+     * @return O número de bytes ocupados no heap pela árvore de prefixos.
+     */
+    public long prefixIndexBytes() {
+        return locked(prefixes::sizeInBytes);
+    }
+
+    /**
+     * Indica se a carga inicial terminou; até lá, as leituras devem ir ao banco.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Marca a carga inicial como concluída e reorganiza a árvore de prefixos, montada na ordem em que os
+     * funcionários chegaram (veja {@link PrefixTrie#compact()}).
+     */
+    public void markReady() {
+        long stamp = lock.writeLock();
+        try {
+            prefixes.compact();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        ready = true;
+    }
+
+    /**
+     * Copia o estado completo (contadores, as tabelas dos dois índices e os registros, inclusive versões antigas
+     * ainda não compactadas) para um buffer novo. A cópia é feita sob o lock de leitura, para que a gravação de
+     * um snapshot não bloqueie as escritas enquanto o arquivo é gravado.
+     */
+    ByteBuffer exportState() {
+        long stamp = lock.readLock();
+        try {
+            ByteBuffer state = ByteBuffer.allocateDirect(
+                    4 * Integer.BYTES + byId.serializedSize() + byEmail.serializedSize() + position);
+
+            state.putInt(position).putInt(liveBytes).putInt(liveEmployees).putInt(initialCapacity);
+            byId.writeTo(state);
+            byEmail.writeTo(state);
+            state.put(state.position(), records, 0, position);
+            return state.position(0);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+
+                if (lock.validate(stamp))
+                    return result;
+            } catch (RuntimeException e) {
+                // Estado lido no meio de uma escrita; a leitura é refeita com o lock
+            }
+        }
+
+        return locked(reader);
+    }
+
+    private <T> T locked(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Descarta a versão anterior: o registro deixa de contar como vigente e o e-mail e os nomes antigos saem dos
+     * índices.
+     */
+    private void forget(int offset) {
+        liveBytes -= length(records, offset);
+
+        if (isDeleted(records, offset))
+            return;
+
+        liveEmployees--;
+
+        Employee previous = decode(records, offset);
+        long emailHash = hash(previous.getEmail());
+
+        if (byEmail.get(emailHash) == offset)
+            byEmail.remove(emailHash);
+
+        prefixes.remove(previous.getFirstName(), previous.getId());
+        prefixes.remove(previous.getLastName(), previous.getId());
+        prefixes.remove(previous.getEmail(), previous.getId());
+    }
+
+    private void index(Employee employee) {
+        prefixes.add(employee.getFirstName(), employee.getId());
+        prefixes.add(employee.getLastName(), employee.getId());
+        prefixes.add(employee.getEmail(), employee.getId());
+    }
+
+    private void ensureCapacity(int length) {
+        if (records.capacity() - position >= length)
+            return;
+
+        int capacity = Math.max(records.capacity() * 2, position + length);
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        grown.put(0, records, 0, position);
+        records = grown;
+    }
+
+    private void compact() {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(Math.max(initialCapacity, liveBytes * 2));
+        ByteBuffer source = records;
+        int[] target = {0};
+
+        byId.forEach((id, offset) -> {
+            int length = length(source, offset);
+
+            compacted.put(target[0], source, offset, length);
+            byId.put(id, target[0]);
+
+            if (!isDeleted(source, offset)) {
+                long emailHash = hash(decode(source, offset).getEmail());
+
+                if (byEmail.get(emailHash) == offset)
+                    byEmail.put(emailHash, target[0]);
+            }
+            target[0] += length;
+        });
+
+        records = compacted;
+        position = target[0];
+    }
+
+    private int putString(int offset, byte[] value) {
+        records.putShort(offset, (short) value.length);
+        records.put(offset + 2, value);
+        return offset + 2 + value.length;
+    }
+
+    private static boolean isDeleted(ByteBuffer records, int offset) {
+        return (records.get(offset + FLAGS) & DELETED) != 0;
+    }
+
+    private static int length(ByteBuffer records, int offset) {
+        int next = offset + FIRST_NAME;
+
+        for (int field = 0; field < 3; field++)
+            next += 2 + Short.toUnsignedInt(records.getShort(next));
+
+        return next - offset;
+    }
+
+    private static Employee decode(ByteBuffer records, int offset) {
+        int next = offset + FIRST_NAME;
+        String[] fields = new String[3];
+
+        for (int field = 0; field < fields.length; field++) {
+            int length = Short.toUnsignedInt(records.getShort(next));
+            byte[] bytes = new byte[length];
+
+            records.get(next + 2, bytes);
+            fields[field] = new String(bytes, StandardCharsets.UTF_8);
+            next += 2 + length;
+        }
+
+        return Employee.builder()
+                .id(records.getLong(offset))
+                .updatedAt(Instant.EPOCH.plus(records.getLong(offset + UPDATED_AT), ChronoUnit.MICROS))
+                .firstName(fields[0])
+                .lastName(fields[1])
+                .email(fields[2])
+                .build();
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > 0xFFFF)
+            throw new IllegalArgumentException("field longer than 65535 bytes");
+
+        return bytes;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres do e-mail normalizado; colisões são resolvidas comparando o e-mail
+     * gravado.
+     */
+    private static long hash(String email) {
+        email = Employee.normalizeEmail(email);
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -0,0 +1,103 @@
+package com.spring.boot.test.junit.directory;
+
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.bulkhead.TrafficClassContext;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Mantém o {@link EmployeeDirectory} em dia com o banco pela sincronização incremental de
+ * {@link EmployeeService#getEmployeeChangesSince(SyncWatermark, int)}.
+ * <p>
+ * A primeira execução, logo após a inicialização, percorre a tabela a partir do watermark inicial, que é
+ * {@link SyncWatermark#INITIAL} ou o de um snapshot restaurado, e marca o diretório como pronto. As seguintes
+ * trazem apenas as alterações feitas desde o último watermark, inclusive as de outras instâncias; as alterações
+ * desta instância já chegam ao diretório no commit, por {@code EmployeeServiceImpl}.
+ * <p>
+ * Com um arquivo de snapshot configurado, o diretório é gravado nele a cada {@code snapshotInterval} e no
+ * encerramento da aplicação.
+ */
+public class EmployeeDirectoryRefresher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectoryRefresher.class);
+
+    private final EmployeeDirectory directory;
+    private final EmployeeService employeeService;
+    private final int pageSize;
+    private final Path snapshotFile;
+    private final long snapshotIntervalNanos;
+
+    private SyncWatermark watermark;
+    private long lastSnapshot = System.nanoTime();
+
+    public EmployeeDirectoryRefresher(EmployeeDirectory directory, EmployeeService employeeService, int pageSize,
+                                      SyncWatermark watermark, Path snapshotFile, Duration snapshotInterval) {
+        this.directory = directory;
+        this.employeeService = employeeService;
+        this.pageSize = pageSize;
+        this.watermark = watermark;
+        this.snapshotFile = snapshotFile;
+        this.snapshotIntervalNanos = snapshotInterval.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${employee.directory.refresh-interval:PT5S}")
+    public synchronized void refresh() {
+        long started = System.nanoTime();
+        int applied = 0;
+        EmployeeChangesPage page;
+
+        do {
+            page = TrafficClassContext.callAs(TrafficClass.BULK,
+                    () -> employeeService.getEmployeeChangesSince(watermark, pageSize));
+
+            page.employees().forEach(directory::apply);
+            applied += page.employees().size();
+            watermark = SyncWatermark.parse(page.watermark());
+        } while (page.hasMore());
+
+        if (!directory.isReady()) {
+            directory.markReady();
+            log.info("Employee directory loaded {} employees ({} bytes off-heap, {} bytes of prefix index) in {} ms",
+                    directory.size(), directory.usedBytes(), directory.prefixIndexBytes(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } else if (applied > 0) {
+            log.debug("Employee directory applied {} changes up to {}", applied, watermark);
+        }
+
+        if (snapshotFile != null && System.nanoTime() - lastSnapshot >= snapshotIntervalNanos)
+            writeSnapshot();
+    }
+
+    public synchronized SyncWatermark watermark() {
+        return watermark;
+    }
+
+    /**
+     * O watermark gravado nunca passa do que o diretório já contém: a gravação acontece entre duas atualizações.
+     */
+    public synchronized void writeSnapshot() {
+        if (snapshotFile == null || !directory.isReady())
+            return;
+
+        try {
+            EmployeeDirectorySnapshot.write(snapshotFile, directory, watermark);
+            lastSnapshot = System.nanoTime();
+        } catch (IOException e) {
+            log.warn("Could not write employee directory snapshot to {}", snapshotFile, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        writeSnapshot();
+    }
+}
@@ -0,0 +1,133 @@
+package com.spring.boot.test.junit.directory;
+
+import com.spring.boot.test.junit.model.SyncWatermark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Arquivo binário com os registros de um {@link EmployeeDirectory} e o watermark da sincronização até onde eles
+ * vão, para que a aplicação volte a atender leituras logo após reiniciar, sem recarregar a tabela do banco.
+ * <p>
+ * O arquivo começa com um cabeçalho de {@value #HEADER_SIZE} bytes: um número mágico, a versão do formato, o
+ * instante da gravação, o watermark, o tamanho e o CRC32C do conteúdo. O conteúdo vem a seguir: as tabelas dos
+ * índices e os registros, no mesmo formato em que ficam na memória. Na leitura, o arquivo é mapeado em memória,
+ * as tabelas são copiadas para o heap sem reinserir as chaves e os registros são usados diretamente como o
+ * buffer do diretório. Arquivos de outra versão ou corrompidos são ignorados.
+ * <p>
+ * A gravação é feita em um arquivo temporário, movido sobre o anterior só depois de completo.
+ */
+public final class EmployeeDirectorySnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectorySnapshot.class);
+
+    static final int MAGIC = 0x454D5044;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 44;
+
+    private EmployeeDirectorySnapshot() {
+    }
+
+    /**
+     * Um diretório restaurado de um snapshot.
+     *
+     * @param directory O diretório, com os registros mapeados do arquivo.
+     * @param watermark A posição da sincronização a partir da qual o diretório deve ser atualizado.
+     * @param createdAt O instante em que o snapshot foi gravado.
+     */
+    public record Restored(EmployeeDirectory directory, SyncWatermark watermark, Instant createdAt) {
+    }
+
+    public static void write(Path file, EmployeeDirectory directory, SyncWatermark watermark) throws IOException {
+        ByteBuffer state = directory.exportState();
+
+        CRC32C crc = new CRC32C();
+        crc.update(state.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(System.currentTimeMillis())
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, watermark.updatedAt()))
+                .putLong(watermark.id())
+                .putInt(state.remaining())
+                .putLong(crc.getValue())
+                .flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining())
+                channel.write(header);
+            while (state.hasRemaining())
+                channel.write(state);
+            channel.force(true);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return O diretório restaurado, ou vazio se o arquivo não existir ou não puder ser usado.
+     */
+    public static Optional<Restored> read(Path file) throws IOException {
+        MappedByteBuffer mapped;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                log.warn("Ignoring employee directory snapshot {} with invalid size {}", file, channel.size());
+                return Optional.empty();
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+
+        int magic = mapped.getInt(0);
+        int version = mapped.getInt(4);
+
+        if (magic != MAGIC || version != VERSION) {
+            log.warn("Ignoring employee directory snapshot {} with format {}/{}", file, magic, version);
+            return Optional.empty();
+        }
+
+        Instant createdAt = Instant.ofEpochMilli(mapped.getLong(8));
+        SyncWatermark watermark = new SyncWatermark(
+                Instant.EPOCH.plus(mapped.getLong(16), ChronoUnit.MICROS), mapped.getLong(24));
+        int length = mapped.getInt(32);
+        long checksum = mapped.getLong(36);
+
+        if (length != mapped.capacity() - HEADER_SIZE) {
+            log.warn("Ignoring truncated employee directory snapshot {}", file);
+            return Optional.empty();
+        }
+
+        ByteBuffer state = mapped.slice(HEADER_SIZE, length);
+        CRC32C crc = new CRC32C();
+        crc.update(state.duplicate());
+
+        if (crc.getValue() != checksum) {
+            log.warn("Ignoring corrupted employee directory snapshot {}", file);
+            return Optional.empty();
+        }
+
+        return Optional.of(new Restored(new EmployeeDirectory(state), watermark, createdAt));
+    }
+}
@@ -0,0 +1,174 @@
+package com.spring.boot.test.junit.directory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mapa de {@code long} para {@code int} com endereçamento aberto e sondagem linear, sem objetos por entrada.
+ * <p>
+ * A chave zero marca as posições livres e não pode ser usada. A remoção desloca as entradas seguintes de volta
+ * para a posição liberada, de modo que a tabela não acumula marcadores de remoção. Não é thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    /**
+     * Lê uma tabela gravada por {@link #writeTo(ByteBuffer)}, a partir da posição atual do buffer.
+     */
+    static LongIntHashMap readFrom(ByteBuffer buffer) {
+        LongIntHashMap map = new LongIntHashMap(0);
+        int capacity = buffer.getInt();
+
+        map.allocate(capacity);
+        map.size = buffer.getInt();
+        buffer.asLongBuffer().get(map.keys);
+        buffer.position(buffer.position() + capacity * Long.BYTES);
+        buffer.asIntBuffer().get(map.values);
+        buffer.position(buffer.position() + capacity * Integer.BYTES);
+        return map;
+    }
+
+    /**
+     * Grava a tabela como está, sem reinserir as chaves, para que {@link #readFrom(ByteBuffer)} seja uma cópia.
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(keys.length).putInt(size);
+        buffer.asLongBuffer().put(keys);
+        buffer.position(buffer.position() + keys.length * Long.BYTES);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    int serializedSize() {
+        return 2 * Integer.BYTES + keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    int get(long key) {
+        long[] keys = this.keys;
+        int mask = keys.length - 1;
+
+        // Limitado ao tamanho da tabela: um leitor otimista pode estar vendo a tabela no meio de uma alteração
+        for (int slot = slot(key, mask), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            long current = keys[slot];
+
+            if (current == key)
+                return values[slot];
+
+            if (current == 0)
+                return MISSING;
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (key == 0)
+            throw new IllegalArgumentException("key 0 is reserved");
+
+        int slot = slot(key, mask);
+
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size > keys.length / 2)
+            resize(keys.length * 2);
+    }
+
+    void remove(long key) {
+        int gap = slot(key, mask);
+
+        while (keys[gap] != key) {
+            if (keys[gap] == 0)
+                return;
+            gap = (gap + 1) & mask;
+        }
+
+        // Traz de volta as entradas cuja posição ideal não fica entre a lacuna e a posição atual
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int ideal = slot(keys[next], mask);
+
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Entry action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0)
+                action.accept(keys[slot], values[slot]);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+
+        allocate(capacity);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] == 0)
+                continue;
+
+            int target = slot(oldKeys[slot], mask);
+
+            while (keys[target] != 0)
+                target = (target + 1) & mask;
+
+            keys[target] = oldKeys[slot];
+            values[target] = oldValues[slot];
+        }
+    }
+
+    private void allocate(int capacity) {
+        values = new int[capacity];
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int slot(long key, int mask) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    @FunctionalInterface
+    interface Entry {
+
+        void accept(long key, int value);
+    }
+}
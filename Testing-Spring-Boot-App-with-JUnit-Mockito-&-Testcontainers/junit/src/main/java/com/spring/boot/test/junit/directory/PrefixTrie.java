@@ -0,0 +1,494 @@
+package com.spring.boot.test.junit.directory;
+
+import com.spring.boot.test.junit.model.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Árvore de prefixos compactada (radix) de chaves de texto para ids, sem objetos por nó ou por chave.
+ * <p>
+ * As chaves são comparadas em minúsculas, com a regra de {@link Employee#normalizeEmail(String)}, e em UTF-8. Cada
+ * nó guarda o trecho da chave que leva até ele (o rótulo), o primeiro filho, o próximo irmão e a lista de ids das
+ * chaves que terminam nele, em arrays paralelos; os rótulos ficam todos em um único {@code byte[]} e os ids, em uma
+ * lista encadeada também feita de arrays. Os irmãos ficam em ordem do primeiro byte do rótulo, então o percurso
+ * visita as chaves em ordem alfabética; esse byte também é guardado no próprio nó, para que procurar um filho entre
+ * os irmãos leia um array só.
+ * <p>
+ * Um nó sem ids tem sempre dois ou mais filhos: a inclusão divide o rótulo onde a chave nova diverge, e a remoção
+ * funde de volta o nó que ficar com um único filho. Nós e ids removidos são reaproveitados pelas inclusões
+ * seguintes; os rótulos descartados são recuperados por {@link #compact()} quando passam da metade do espaço dos
+ * rótulos.
+ * <p>
+ * Não é thread-safe.
+ */
+final class PrefixTrie {
+
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+
+    private static final int MIN_LABEL_COMPACTION_BYTES = 1 << 16;
+
+    private int[] labelOffsets;
+    private int[] labelLengths;
+    private byte[] firstBytes;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] firstPostings;
+    private int nodes;
+    private int freeNodes = NONE;
+
+    private long[] postingIds;
+    private int[] nextPostings;
+    private int postings;
+    private int freePostings = NONE;
+    private int size;
+
+    private byte[] labels;
+    private int labelBytes;
+    private int garbageLabelBytes;
+
+    /**
+     * @param expectedKeys O número esperado de associações. Chaves repetidas, como nomes comuns, compartilham os
+     *                     nós, então a árvore começa com um nó para cada duas associações.
+     */
+    PrefixTrie(int expectedKeys) {
+        int capacity = Math.max(16, expectedKeys);
+
+        labelOffsets = new int[capacity / 2];
+        labelLengths = new int[capacity / 2];
+        firstBytes = new byte[capacity / 2];
+        firstChildren = new int[capacity / 2];
+        nextSiblings = new int[capacity / 2];
+        firstPostings = new int[capacity / 2];
+        postingIds = new long[capacity];
+        nextPostings = new int[capacity];
+        labels = new byte[capacity * 8];
+
+        // Raiz, com rótulo vazio
+        allocateNode(0, 0);
+    }
+
+    /**
+     * Associa o id à chave. Uma chave pode ter vários ids, e o mesmo id pode ser incluído mais de uma vez.
+     */
+    void add(String key, long id) {
+        byte[] bytes = bytes(key);
+        int node = ROOT;
+        int from = 0;
+
+        while (from < bytes.length) {
+            int first = bytes[from] & 0xFF;
+            int previous = NONE;
+            int child = firstChildren[node];
+
+            while (child != NONE && firstByte(child) < first) {
+                previous = child;
+                child = nextSiblings[child];
+            }
+
+            if (child == NONE || firstByte(child) != first) {
+                int leaf = allocateNode(appendLabel(bytes, from, bytes.length - from), bytes.length - from);
+                nextSiblings[leaf] = child;
+                link(node, previous, leaf);
+                node = leaf;
+                break;
+            }
+
+            int common = commonPrefix(child, bytes, from);
+
+            // A chave diverge no meio do rótulo: um nó novo fica com o trecho comum e o filho, com o restante
+            if (common < labelLengths[child]) {
+                int middle = allocateNode(labelOffsets[child], common);
+                firstChildren[middle] = child;
+                nextSiblings[middle] = nextSiblings[child];
+                nextSiblings[child] = NONE;
+                labelOffsets[child] += common;
+                labelLengths[child] -= common;
+                firstBytes[child] = labels[labelOffsets[child]];
+                link(node, previous, middle);
+                child = middle;
+            }
+
+            node = child;
+            from += common;
+        }
+
+        int posting = allocatePosting(id);
+        nextPostings[posting] = firstPostings[node];
+        firstPostings[node] = posting;
+        size++;
+    }
+
+    /**
+     * Remove uma associação entre a chave e o id.
+     *
+     * @return {@code false} se a chave não tiver o id.
+     */
+    boolean remove(String key, long id) {
+        boolean removed = remove(ROOT, bytes(key), 0, id);
+
+        if (labelBytes > MIN_LABEL_COMPACTION_BYTES && garbageLabelBytes > labelBytes / 2)
+            compact();
+
+        return removed;
+    }
+
+    /**
+     * Visita os ids da chave exata, até o visitante retornar {@code false}.
+     */
+    void forEachExact(String key, LongPredicate visitor) {
+        byte[] bytes = bytes(key);
+        int node = ROOT;
+        int from = 0;
+
+        while (from < bytes.length) {
+            node = child(node, bytes[from] & 0xFF);
+
+            if (node == NONE || commonPrefix(node, bytes, from) < labelLengths[node])
+                return;
+
+            from += labelLengths[node];
+        }
+
+        visitPostings(node, visitor);
+    }
+
+    /**
+     * Visita os ids das chaves que começam com {@code prefix}, em ordem alfabética das chaves, até o visitante
+     * retornar {@code false}.
+     */
+    void forEachWithPrefix(String prefix, LongPredicate visitor) {
+        byte[] bytes = bytes(prefix);
+        int node = ROOT;
+        int from = 0;
+
+        // O prefixo pode terminar no meio de um rótulo: todas as chaves abaixo daquele nó começam com ele
+        while (from < bytes.length) {
+            node = child(node, bytes[from] & 0xFF);
+
+            if (node == NONE)
+                return;
+
+            int common = commonPrefix(node, bytes, from);
+
+            if (common < labelLengths[node] && from + common < bytes.length)
+                return;
+
+            from += common;
+        }
+
+        visitSubtree(node, visitor);
+    }
+
+    /**
+     * @return O número de associações entre chaves e ids.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Os bytes ocupados pelos arrays da árvore, incluindo a capacidade ainda não usada.
+     */
+    long sizeInBytes() {
+        return (long) labelOffsets.length * (5 * Integer.BYTES + 1)
+                + (long) postingIds.length * (Long.BYTES + Integer.BYTES)
+                + labels.length;
+    }
+
+    private boolean remove(int node, byte[] key, int from, long id) {
+        if (from == key.length)
+            return removePosting(node, id);
+
+        int first = key[from] & 0xFF;
+        int previous = NONE;
+        int child = firstChildren[node];
+
+        while (child != NONE && firstByte(child) < first) {
+            previous = child;
+            child = nextSiblings[child];
+        }
+
+        if (child == NONE || commonPrefix(child, key, from) < labelLengths[child])
+            return false;
+
+        if (!remove(child, key, from + labelLengths[child], id))
+            return false;
+
+        // O filho ficou sem ids: sai da árvore se não tiver filhos, ou é fundido com o único filho que restou
+        if (firstPostings[child] == NONE) {
+            if (firstChildren[child] == NONE) {
+                link(node, previous, nextSiblings[child]);
+                freeNode(child);
+            } else if (nextSiblings[firstChildren[child]] == NONE) {
+                merge(child, firstChildren[child]);
+            }
+        }
+        return true;
+    }
+
+    private boolean removePosting(int node, long id) {
+        int previous = NONE;
+
+        for (int posting = firstPostings[node]; posting != NONE; posting = nextPostings[posting]) {
+            if (postingIds[posting] == id) {
+                if (previous == NONE)
+                    firstPostings[node] = nextPostings[posting];
+                else
+                    nextPostings[previous] = nextPostings[posting];
+
+                nextPostings[posting] = freePostings;
+                freePostings = posting;
+                size--;
+                return true;
+            }
+            previous = posting;
+        }
+        return false;
+    }
+
+    /**
+     * Junta o único filho ao nó: o nó fica com o rótulo dos dois, e com os filhos e os ids do filho.
+     */
+    private void merge(int node, int child) {
+        int offset = labelOffsets[node];
+        int length = labelLengths[node];
+
+        // Depois de uma divisão, os dois rótulos ainda são contíguos
+        if (offset + length != labelOffsets[child]) {
+            int merged = appendLabel(labels, offset, length, labels, labelOffsets[child], labelLengths[child]);
+            garbageLabelBytes += length + labelLengths[child];
+            labelOffsets[node] = merged;
+        }
+
+        labelLengths[node] = length + labelLengths[child];
+        firstChildren[node] = firstChildren[child];
+        firstPostings[node] = firstPostings[child];
+
+        labelLengths[child] = 0;
+        freeNode(child);
+    }
+
+    private void visitSubtree(int node, LongPredicate visitor) {
+        int[] stack = new int[16];
+        int depth = 0;
+        stack[depth++] = node;
+
+        // Em pré-ordem: os ids do nó antes das chaves mais longas, e os irmãos na ordem do primeiro byte
+        while (depth > 0) {
+            int current = stack[--depth];
+
+            if (!visitPostings(current, visitor))
+                return;
+
+            int children = 0;
+            for (int child = firstChildren[current]; child != NONE; child = nextSiblings[child])
+                children++;
+
+            if (depth + children > stack.length)
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, depth + children));
+
+            int index = depth + children;
+            for (int child = firstChildren[current]; child != NONE; child = nextSiblings[child])
+                stack[--index] = child;
+
+            depth += children;
+        }
+    }
+
+    private boolean visitPostings(int node, LongPredicate visitor) {
+        for (int posting = firstPostings[node]; posting != NONE; posting = nextPostings[posting]) {
+            if (!visitor.test(postingIds[posting]))
+                return false;
+        }
+        return true;
+    }
+
+    private int child(int node, int first) {
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            int current = firstByte(child);
+
+            if (current == first)
+                return child;
+
+            if (current > first)
+                return NONE;
+        }
+        return NONE;
+    }
+
+    private void link(int parent, int previous, int node) {
+        if (previous == NONE)
+            firstChildren[parent] = node;
+        else
+            nextSiblings[previous] = node;
+    }
+
+    private int firstByte(int node) {
+        return firstBytes[node] & 0xFF;
+    }
+
+    private int commonPrefix(int node, byte[] key, int from) {
+        int offset = labelOffsets[node];
+        int length = Math.min(labelLengths[node], key.length - from);
+        int common = 0;
+
+        while (common < length && labels[offset + common] == key[from + common])
+            common++;
+
+        return common;
+    }
+
+    private int allocateNode(int labelOffset, int labelLength) {
+        int node;
+
+        if (freeNodes != NONE) {
+            node = freeNodes;
+            freeNodes = nextSiblings[node];
+        } else {
+            if (nodes == labelOffsets.length)
+                growNodes();
+
+            node = nodes++;
+        }
+
+        labelOffsets[node] = labelOffset;
+        labelLengths[node] = labelLength;
+        firstBytes[node] = labelLength > 0 ? labels[labelOffset] : 0;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        firstPostings[node] = NONE;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        garbageLabelBytes += labelLengths[node];
+        nextSiblings[node] = freeNodes;
+        freeNodes = node;
+    }
+
+    private int allocatePosting(long id) {
+        int posting;
+
+        if (freePostings != NONE) {
+            posting = freePostings;
+            freePostings = nextPostings[posting];
+        } else {
+            if (postings == postingIds.length) {
+                postingIds = Arrays.copyOf(postingIds, postings * 2);
+                nextPostings = Arrays.copyOf(nextPostings, postings * 2);
+            }
+            posting = postings++;
+        }
+
+        postingIds[posting] = id;
+        return posting;
+    }
+
+    private void growNodes() {
+        int capacity = nodes * 2;
+
+        labelOffsets = Arrays.copyOf(labelOffsets, capacity);
+        labelLengths = Arrays.copyOf(labelLengths, capacity);
+        firstBytes = Arrays.copyOf(firstBytes, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        firstPostings = Arrays.copyOf(firstPostings, capacity);
+    }
+
+    private int appendLabel(byte[] source, int offset, int length) {
+        return appendLabel(source, offset, length, source, 0, 0);
+    }
+
+    private int appendLabel(byte[] first, int firstOffset, int firstLength,
+                            byte[] second, int secondOffset, int secondLength) {
+        int length = firstLength + secondLength;
+
+        if (labels.length - labelBytes < length)
+            labels = Arrays.copyOf(labels, Math.max(labels.length * 2, labelBytes + length));
+
+        // Se labels for realocado, as origens continuam válidas: o array antigo não é alterado
+        System.arraycopy(first, firstOffset, labels, labelBytes, firstLength);
+        System.arraycopy(second, secondOffset, labels, labelBytes + firstLength, secondLength);
+
+        int offset = labelBytes;
+        labelBytes += length;
+        return offset;
+    }
+
+    /**
+     * Reescreve a árvore em ordem de largura: os filhos de cada nó passam a ocupar posições consecutivas, os
+     * rótulos e os ids seguem a mesma ordem, e o espaço de nós, ids e rótulos removidos é liberado. Depois de uma
+     * carga, em que os nós foram alocados na ordem de chegada das chaves, a busca de um filho entre os irmãos
+     * passa a ler memória contígua em vez de saltar pelos arrays.
+     */
+    void compact() {
+        int[] order = new int[nodes];
+        int[] renumbered = new int[nodes];
+        int count = 0;
+
+        order[count++] = ROOT;
+        for (int head = 0; head < count; head++) {
+            renumbered[order[head]] = head;
+
+            for (int child = firstChildren[order[head]]; child != NONE; child = nextSiblings[child])
+                order[count++] = child;
+        }
+
+        int[] offsets = new int[labelOffsets.length];
+        int[] lengths = new int[labelOffsets.length];
+        byte[] bytes = new byte[labelOffsets.length];
+        int[] children = new int[labelOffsets.length];
+        int[] siblings = new int[labelOffsets.length];
+        int[] nodePostings = new int[labelOffsets.length];
+        long[] ids = new long[postingIds.length];
+        int[] next = new int[postingIds.length];
+        byte[] compactedLabels = new byte[Math.max(labels.length / 2, labelBytes - garbageLabelBytes)];
+        int position = 0;
+        int posting = 0;
+
+        for (int node = 0; node < count; node++) {
+            int old = order[node];
+
+            offsets[node] = position;
+            lengths[node] = labelLengths[old];
+            bytes[node] = firstBytes[old];
+            System.arraycopy(labels, labelOffsets[old], compactedLabels, position, labelLengths[old]);
+            position += labelLengths[old];
+
+            children[node] = firstChildren[old] == NONE ? NONE : renumbered[firstChildren[old]];
+            siblings[node] = nextSiblings[old] == NONE ? NONE : renumbered[nextSiblings[old]];
+            nodePostings[node] = firstPostings[old] == NONE ? NONE : posting;
+
+            for (int current = firstPostings[old]; current != NONE; current = nextPostings[current]) {
+                ids[posting] = postingIds[current];
+                next[posting] = nextPostings[current] == NONE ? NONE : posting + 1;
+                posting++;
+            }
+        }
+
+        labelOffsets = offsets;
+        labelLengths = lengths;
+        firstBytes = bytes;
+        firstChildren = children;
+        nextSiblings = siblings;
+        firstPostings = nodePostings;
+        nodes = count;
+        freeNodes = NONE;
+
+        postingIds = ids;
+        nextPostings = next;
+        postings = posting;
+        freePostings = NONE;
+
+        labels = compactedLabels;
+        labelBytes = position;
+        garbageLabelBytes = 0;
+    }
+
+    private static byte[] bytes(String key) {
+        return key == null ? new byte[0] : Employee.normalizeEmail(key).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,12 @@
+package com.spring.boot.test.junit.exception;
+
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadRejectedException extends RuntimeException {
+    public BulkheadRejectedException(TrafficClass trafficClass, String reason) {
+        super("Bulkhead " + trafficClass + " rejected the request: " + reason);
+    }
+}
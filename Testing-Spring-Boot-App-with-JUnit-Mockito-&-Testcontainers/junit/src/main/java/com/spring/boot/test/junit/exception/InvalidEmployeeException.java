@@ -0,0 +1,11 @@
+package com.spring.boot.test.junit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidEmployeeException extends RuntimeException {
+    public InvalidEmployeeException(String message) {
+        super("Invalid employee: " + message);
+    }
+}
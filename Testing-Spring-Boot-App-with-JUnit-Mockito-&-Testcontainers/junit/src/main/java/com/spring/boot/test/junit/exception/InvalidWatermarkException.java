@@ -0,0 +1,11 @@
+package com.spring.boot.test.junit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidWatermarkException extends RuntimeException {
+    public InvalidWatermarkException(String watermark) {
+        super("Invalid watermark: " + watermark);
+    }
+}
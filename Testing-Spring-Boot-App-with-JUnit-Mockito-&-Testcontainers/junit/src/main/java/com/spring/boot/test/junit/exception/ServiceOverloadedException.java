@@ -0,0 +1,11 @@
+package com.spring.boot.test.junit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String endpoint) {
+        super("Concurrency limit reached for endpoint: " + endpoint);
+    }
+}
@@ -0,0 +1,11 @@
+package com.spring.boot.test.junit.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class WriteBehindFullException extends RuntimeException {
+    public WriteBehindFullException(int buffered) {
+        super("Write-behind buffer is full with " + buffered + " pending updates");
+    }
+}
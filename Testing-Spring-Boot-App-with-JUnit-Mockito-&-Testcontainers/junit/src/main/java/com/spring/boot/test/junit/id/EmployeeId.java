@@ -0,0 +1,19 @@
+package com.spring.boot.test.junit.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marca o id gerado por {@link EmployeeIdentifierGenerator}.
+ */
+@IdGeneratorType(EmployeeIdentifierGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface EmployeeId {
+}
@@ -0,0 +1,34 @@
+package com.spring.boot.test.junit.id;
+
+import com.spring.boot.test.junit.shard.ShardContext;
+import com.spring.boot.test.junit.shard.ShardResolver;
+
+import java.util.Map;
+
+/**
+ * A estratégia em uso pelo {@link EmployeeIdentifierGenerator} de uma {@code SessionFactory}: o gerador de valores
+ * e a distribuição dos ids entre os shards. Registrada como bean por {@code IdGeneratorConfig}; sem o bean, como
+ * nos testes que não carregam a configuração, vale {@link #defaults()}.
+ */
+public record EmployeeIdStrategy(IdGenerator generator, ShardResolver resolver) {
+
+    private static final EmployeeIdStrategy DEFAULTS =
+            new EmployeeIdStrategy(new SnowflakeIdGenerator(0), new ShardResolver(1, Map.of()));
+
+    /**
+     * Um {@link SnowflakeIdGenerator} com {@code nodeId} zero e um único shard.
+     */
+    public static EmployeeIdStrategy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * O próximo id para o shard da requisição ({@link ShardContext}), ou para o shard zero sem um shard definido.
+     */
+    public long nextId() {
+        Integer shard = ShardContext.current();
+        int target = shard != null ? shard : 0;
+
+        return resolver.idFor(generator.nextValue(target), target);
+    }
+}
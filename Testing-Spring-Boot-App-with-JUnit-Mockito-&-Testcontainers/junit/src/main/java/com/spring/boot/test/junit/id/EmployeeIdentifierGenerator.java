@@ -0,0 +1,81 @@
+package com.spring.boot.test.junit.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.spi.BeanInstanceProducer;
+import org.hibernate.resource.beans.spi.ManagedBeanRegistry;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * Atribui o id no {@code persist}, sem ida ao banco na maior parte das inclusões, o que permite ao Hibernate
+ * agrupar os {@code INSERT}s em lotes JDBC.
+ * <p>
+ * O Hibernate instancia o gerador por reflexão, um por {@code SessionFactory}. A {@link EmployeeIdStrategy} é
+ * buscada uma vez, na criação, no {@link BeanContainer} da {@code SessionFactory}, que o Spring Boot liga ao
+ * contexto da aplicação: cada contexto, inclusive os contextos de teste mantidos em cache ao mesmo tempo, usa a
+ * sua própria estratégia. Sem o container ou sem o bean vale {@link EmployeeIdStrategy#defaults()}.
+ */
+public class EmployeeIdentifierGenerator implements BeforeExecutionGenerator {
+
+    /**
+     * Busca o bean já registrado no contexto, em vez de criar uma instância nova como o JPA pede para os listeners.
+     */
+    private static final BeanContainer.LifecycleOptions CONTEXT_BEAN = new BeanContainer.LifecycleOptions() {
+        @Override
+        public boolean canUseCachedReferences() {
+            return true;
+        }
+
+        @Override
+        public boolean useJpaCompliantCreation() {
+            return false;
+        }
+    };
+
+    private static final BeanInstanceProducer DEFAULTS = new BeanInstanceProducer() {
+        @Override
+        public <B> B produceBeanInstance(Class<B> beanType) {
+            return beanType.cast(EmployeeIdStrategy.defaults());
+        }
+
+        @Override
+        public <B> B produceBeanInstance(String name, Class<B> beanType) {
+            return produceBeanInstance(beanType);
+        }
+    };
+
+    private final EmployeeIdStrategy strategy;
+
+    public EmployeeIdentifierGenerator(EmployeeId annotation, Member member, CustomIdGeneratorCreationContext context) {
+        this(lookup(context.getServiceRegistry().requireService(ManagedBeanRegistry.class)));
+    }
+
+    EmployeeIdentifierGenerator(EmployeeIdStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return strategy.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+
+    static EmployeeIdStrategy lookup(ManagedBeanRegistry beanRegistry) {
+        BeanContainer beanContainer = beanRegistry.getBeanContainer();
+        if (beanContainer == null)
+            return EmployeeIdStrategy.defaults();
+
+        return beanContainer.getBean(EmployeeIdStrategy.class, CONTEXT_BEAN, DEFAULTS).getBeanInstance();
+    }
+}
@@ -0,0 +1,54 @@
+package com.spring.boot.test.junit.id;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega valores de blocos reservados em {@link IdBlockSource}: o bloco {@code hi} cobre os valores de
+ * {@code hi * blockSize} a {@code (hi + 1) * blockSize - 1}, de modo que o banco é consultado uma vez a cada
+ * {@code blockSize} inclusões. Os valores de um bloco que não chegarem a ser usados, por exemplo quando a
+ * aplicação é reiniciada, são descartados.
+ * <p>
+ * Cada shard tem a sua própria tabela de blocos e, por isso, o seu próprio bloco corrente.
+ */
+public class HiLoIdGenerator implements IdGenerator {
+
+    private final IdBlockSource blockSource;
+    private final int blockSize;
+    private final Map<Integer, Block> blocks = new HashMap<>();
+
+    public HiLoIdGenerator(IdBlockSource blockSource, int blockSize) {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public synchronized long nextValue(int shard) {
+        Block block = blocks.get(shard);
+
+        if (block == null || block.next == block.limit) {
+            long hi = blockSource.nextBlock(shard);
+
+            if (hi < 0 || hi >= MAX_VALUE / blockSize)
+                throw new IllegalStateException("block outside the id range: " + hi);
+
+            block = new Block(hi * blockSize, (hi + 1) * blockSize);
+            blocks.put(shard, block);
+        }
+        return block.next++;
+    }
+
+    private static final class Block {
+
+        private long next;
+        private final long limit;
+
+        private Block(long next, long limit) {
+            this.next = next;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.spring.boot.test.junit.id;
+
+/**
+ * Reserva blocos de valores para {@link HiLoIdGenerator}. Cada chamada devolve um número de bloco que nunca
+ * foi entregue a nenhuma instância para o mesmo shard.
+ */
+@FunctionalInterface
+public interface IdBlockSource {
+
+    long nextBlock(int shard);
+}
@@ -0,0 +1,15 @@
+package com.spring.boot.test.junit.id;
+
+/**
+ * Estratégia de geração dos ids de {@code Employee}, chamada pelo Hibernate antes do {@code INSERT}.
+ * <p>
+ * Os valores devem ser únicos dentro do shard indicado e menores que {@link #MAX_VALUE}: o id gravado é
+ * derivado do valor e do shard por {@code ShardResolver#idFor(long, int)}, que multiplica o valor pelo número
+ * de shards.
+ */
+public interface IdGenerator {
+
+    long MAX_VALUE = 1L << 57;
+
+    long nextValue(int shard);
+}
@@ -0,0 +1,91 @@
+package com.spring.boot.test.junit.id;
+
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.bulkhead.TrafficClassContext;
+import com.spring.boot.test.junit.shard.ShardContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reserva blocos na tabela {@code employee_id_block}, com uma linha por sequência.
+ * <p>
+ * A reserva usa uma conexão própria, fora da transação que está inserindo o funcionário: o lock na linha da
+ * sequência é liberado logo após o incremento e um rollback da inclusão não devolve o bloco. Com um pool por
+ * classe de tráfego, a conexão vem do pool de {@link TrafficClass#ID_BLOCK}, e não do pool de escritas, cujas
+ * conexões podem estar todas com as transações que esperam pelo bloco.
+ * <p>
+ * A linha da sequência é criada na primeira reserva; instâncias que a criam ao mesmo tempo não conflitam, e todas
+ * leem a linha de novo, bloqueada, antes de incrementá-la.
+ */
+public class JdbcIdBlockSource implements IdBlockSource {
+
+    private static final String SELECT = "SELECT next_block FROM employee_id_block WHERE name = ? FOR UPDATE";
+    private static final String UPDATE = "UPDATE employee_id_block SET next_block = ? WHERE name = ?";
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO employee_id_block (name, next_block) VALUES (?, 0) ON DUPLICATE KEY UPDATE name = name";
+
+    private final DataSource dataSource;
+    private final String name;
+
+    public JdbcIdBlockSource(DataSource dataSource, String name) {
+        this.dataSource = dataSource;
+        this.name = name;
+    }
+
+    @Override
+    public long nextBlock(int shard) {
+        // O DataSource de roteamento escolhe a tabela do shard e o pool pelo contexto da thread
+        return ShardContext.callOn(shard, () -> TrafficClassContext.callAs(TrafficClass.ID_BLOCK, () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    long block = reserve(connection);
+                    connection.commit();
+                    return block;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                throw new DataAccessResourceFailureException("Could not reserve an id block for " + name, e);
+            }
+        }));
+    }
+
+    private long reserve(Connection connection) throws SQLException {
+        Long block = selectForUpdate(connection);
+
+        if (block == null) {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_IF_ABSENT)) {
+                insert.setString(1, name);
+                insert.executeUpdate();
+            }
+            block = selectForUpdate(connection);
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            update.setLong(1, block + 1);
+            update.setString(2, name);
+            update.executeUpdate();
+        }
+        return block;
+    }
+
+    private Long selectForUpdate(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(SELECT)) {
+            select.setString(1, name);
+
+            try (ResultSet resultSet = select.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : null;
+            }
+        }
+    }
+}
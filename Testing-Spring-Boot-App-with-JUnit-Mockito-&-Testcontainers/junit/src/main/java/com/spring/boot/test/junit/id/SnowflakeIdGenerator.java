@@ -0,0 +1,70 @@
+package com.spring.boot.test.junit.id;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Gera valores de 57 bits ordenados no tempo, sem acesso ao banco: 41 bits de milissegundos desde
+ * 2024-01-01T00:00:00Z, 6 bits com o número da instância e 10 bits de sequência dentro do milissegundo.
+ * <p>
+ * Cada instância da aplicação precisa de um {@code nodeId} próprio. Se o relógio voltar no tempo, ou se mais
+ * de 1.024 valores forem pedidos no mesmo milissegundo, os valores continuam a partir do último milissegundo
+ * usado em vez de esperar pelo relógio, o que mantém a unicidade.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    static final int NODE_BITS = 6;
+    static final int SEQUENCE_BITS = 10;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID)
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    /**
+     * O shard é ignorado: os valores já são únicos entre todas as instâncias.
+     */
+    @Override
+    public synchronized long nextValue(int shard) {
+        long timestamp = Math.max(clock.getAsLong() - EPOCH_MILLIS, lastTimestamp);
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+
+            if (sequence == 0)
+                timestamp++;
+        } else {
+            sequence = 0;
+        }
+
+        if (timestamp < 0 || timestamp >= 1L << (57 - NODE_BITS - SEQUENCE_BITS))
+            throw new IllegalStateException("clock outside the id range: " + clock.getAsLong());
+
+        lastTimestamp = timestamp;
+        return timestamp << (NODE_BITS + SEQUENCE_BITS) | node | sequence;
+    }
+
+    /**
+     * @return O instante, em milissegundos desde 1970, em que o valor foi gerado.
+     */
+    public static long timestampOf(long value) {
+        return (value >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,164 @@
+package com.spring.boot.test.junit.idempotency;
+
+import com.spring.boot.test.junit.exception.BulkheadRejectedException;
+import com.spring.boot.test.junit.exception.IdempotencyKeyReusedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Respostas recentes das requisições com o cabeçalho {@value #IDEMPOTENCY_KEY_HEADER}, para que a repetição de
+ * uma requisição (por exemplo, pelo gateway, depois de um timeout) receba a resposta original sem ser executada
+ * de novo.
+ * <p>
+ * Uma repetição que chega enquanto a original ainda executa aguarda a mesma resposta. Uma requisição que falha
+ * sem ter sido executada (rejeitada pelo bulkhead antes de começar, ou sem conseguir abrir a transação) não é
+ * guardada, e a repetição é executada normalmente. Qualquer outra falha pode ter ocorrido depois da gravação, e
+ * é repetida como resposta: executar de novo poderia incluir o funcionário duas vezes. A mesma chave com outro
+ * corpo é rejeitada com {@link IdempotencyKeyReusedException}.
+ * <p>
+ * As chaves expiram após {@code employee.idempotency.ttl} e são no máximo {@code employee.idempotency.max-keys};
+ * como o prazo é o mesmo para todas, a ordem de inclusão é a ordem de expiração, e as mais antigas são removidas
+ * primeiro nos dois casos. Chaves de requisições ainda em execução nunca são removidas, e podem exceder o limite
+ * enquanto executam. As chaves são locais a cada instância.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Cabeçalho incluído nas respostas repetidas.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final long ttlNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public IdempotentRequests(@Value("${employee.idempotency.ttl:PT1H}") Duration ttl,
+                              @Value("${employee.idempotency.max-keys:100000}") int maxKeys) {
+        this(ttl, maxKeys, System::nanoTime);
+    }
+
+    IdempotentRequests(Duration ttl, int maxKeys, LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Executa a requisição, ou retorna a resposta da requisição anterior com a mesma chave.
+     *
+     * @param fingerprint O conteúdo da requisição que a identifica, comparado com {@code equals}; deve ser
+     *                    calculado antes da execução, que pode alterar o corpo recebido.
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> execute(String key, Object fingerprint,
+                                                            Supplier<CompletableFuture<ResponseEntity<T>>> request) {
+        CompletableFuture<ResponseEntity<T>> response = new CompletableFuture<>();
+        Entry entry = new Entry(fingerprint, response, nanoClock.getAsLong() + ttlNanos);
+        Entry previous;
+
+        synchronized (entries) {
+            evictExpired();
+            previous = entries.putIfAbsent(key, entry);
+
+            if (previous == null && entries.size() > maxKeys)
+                removeEldest();
+        }
+
+        if (previous != null)
+            return replay(key, fingerprint, previous);
+
+        try {
+            request.get().whenComplete((result, failure) -> {
+                if (failure == null) {
+                    response.complete(result);
+                } else {
+                    if (notExecuted(failure))
+                        remove(key, entry);
+                    response.completeExceptionally(failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            remove(key, entry);
+            throw e;
+        }
+        return response;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<ResponseEntity<T>> replay(String key, Object fingerprint, Entry previous) {
+        if (!previous.fingerprint().equals(fingerprint))
+            throw new IdempotencyKeyReusedException(key);
+
+        return ((CompletableFuture<ResponseEntity<T>>) previous.response()).thenApply(original ->
+                ResponseEntity.status(original.getStatusCode())
+                        .headers(original.getHeaders())
+                        .header(REPLAYED_HEADER, "true")
+                        .body(original.getBody()));
+    }
+
+    /**
+     * Se a falha garante que a requisição não chegou a gravar: o bulkhead só rejeita tarefas que ainda não
+     * começaram, e sem transação não há o que efetivar.
+     */
+    private static boolean notExecuted(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        return cause instanceof BulkheadRejectedException || cause instanceof CannotCreateTransactionException;
+    }
+
+    private void evictExpired() {
+        long now = nanoClock.getAsLong();
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+
+            if (entry.expiresAt() - now > 0)
+                return;
+            if (entry.response().isDone())
+                iterator.remove();
+        }
+    }
+
+    private void removeEldest() {
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().response().isDone()) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<?> response, long expiresAt) {
+    }
+}
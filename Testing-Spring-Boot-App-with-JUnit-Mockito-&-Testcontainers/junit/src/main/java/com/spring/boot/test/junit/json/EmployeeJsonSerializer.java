@@ -0,0 +1,62 @@
+package com.spring.boot.test.junit.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.spring.boot.test.junit.model.Employee;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Serializador escrito à mão para {@link Employee}.
+ * <p>
+ * Evita a introspecção de getters e os acessos reflexivos do {@code BeanSerializer} padrão: os campos
+ * são escritos diretamente, com os nomes já codificados em {@link SerializedString}. Apenas
+ * {@code updatedAt} passa pelo serializador configurado no {@code ObjectMapper}, para respeitar o formato de
+ * datas da aplicação. A saída é idêntica à da serialização padrão da entidade.
+ */
+@JsonComponent
+public class EmployeeJsonSerializer extends StdSerializer<Employee> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString DELETED = new SerializedString("deleted");
+
+    public EmployeeJsonSerializer() {
+        super(Employee.class);
+    }
+
+    @Override
+    public void serialize(Employee employee, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(employee);
+
+        gen.writeFieldName(ID);
+        if (employee.getId() == null)
+            gen.writeNull();
+        else
+            gen.writeNumber(employee.getId());
+
+        gen.writeFieldName(FIRST_NAME);
+        gen.writeString(employee.getFirstName());
+
+        gen.writeFieldName(LAST_NAME);
+        gen.writeString(employee.getLastName());
+
+        gen.writeFieldName(EMAIL);
+        gen.writeString(employee.getEmail());
+
+        gen.writeFieldName(UPDATED_AT);
+        provider.defaultSerializeValue(employee.getUpdatedAt(), gen);
+
+        gen.writeFieldName(DELETED);
+        gen.writeBoolean(employee.isDeleted());
+
+        gen.writeEndObject();
+    }
+}
@@ -1,9 +1,15 @@
 package com.spring.boot.test.junit.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.spring.boot.test.junit.id.EmployeeId;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
+import java.util.Locale;
 import java.util.Objects;
 
 @Builder
@@ -14,12 +20,26 @@ import java.util.Objects;
 @Entity(name = "Employee")
 @Table(
         name = "employee",
-        schema = "db_employee_junit"
+        indexes = {
+                @Index(name = "idx_employee_name", columnList = "first_name, last_name"),
+                @Index(name = "idx_employee_updated_at_id", columnList = "updated_at, id"),
+                @Index(name = "idx_employee_email", columnList = "email"),
+                @Index(name = "idx_employee_deleted_last_name", columnList = "deleted, last_name")
+        }
 )
+@NamedQuery(
+        name = "Employee.findByName",
+        query = "SELECT e FROM Employee e WHERE e.firstName = :firstName AND e.lastName = :lastName ORDER BY e.id"
+)
+@NamedQuery(
+        name = "Employee.findByFirstName",
+        query = "SELECT e FROM Employee e WHERE e.firstName = :firstName ORDER BY e.id"
+)
+@SQLRestriction("deleted = false")
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EmployeeId
     @Column(name = "id", nullable = false, columnDefinition = "BIGINT UNSIGNED")
     private Long id;
 
@@ -33,6 +53,30 @@ public class Employee {
     @Column(name = "email", nullable = false, columnDefinition = "VARCHAR(50)")
     private String email;
 
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "updated_at", nullable = false, columnDefinition = "DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)")
+    private Instant updatedAt;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "deleted", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean deleted;
+
+    /**
+     * A forma canônica de um e-mail: gravada no banco e usada em todas as comparações (a verificação de e-mail
+     * duplicado, as buscas por e-mail, o diretório e o shard do funcionário), para que elas não dependam da
+     * colação do banco.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        email = normalizeEmail(email);
+    }
+
     @Override
     public String toString() {
         return "{\n" +
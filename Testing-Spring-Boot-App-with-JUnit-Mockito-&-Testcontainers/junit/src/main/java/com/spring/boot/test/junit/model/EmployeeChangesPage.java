@@ -0,0 +1,14 @@
+package com.spring.boot.test.junit.model;
+
+import java.util.List;
+
+/**
+ * Página de uma sincronização incremental de funcionários.
+ *
+ * @param employees Os funcionários alterados, incluindo os excluídos ({@code deleted = true}), em ordem de
+ *                  ({@code updatedAt}, {@code id}).
+ * @param watermark O valor a enviar na próxima chamada para continuar a partir desta página.
+ * @param hasMore   Se há mais alterações disponíveis além desta página.
+ */
+public record EmployeeChangesPage(List<Employee> employees, String watermark, boolean hasMore) {
+}
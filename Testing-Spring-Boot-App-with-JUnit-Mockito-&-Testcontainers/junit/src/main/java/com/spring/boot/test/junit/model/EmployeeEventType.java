@@ -0,0 +1,7 @@
+package com.spring.boot.test.junit.model;
+
+public enum EmployeeEventType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,43 @@
+package com.spring.boot.test.junit.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity(name = "EmployeeOutboxEvent")
+@Table(
+        name = "employee_outbox",
+        indexes = @Index(name = "idx_employee_outbox_published_at", columnList = "published_at, id")
+)
+public class EmployeeOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false, columnDefinition = "BIGINT UNSIGNED")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(name = "event_type", nullable = false, columnDefinition = "VARCHAR(16)")
+    private EmployeeEventType eventType;
+
+    @Column(name = "employee_id", nullable = false, columnDefinition = "BIGINT UNSIGNED")
+    private Long employeeId;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+}
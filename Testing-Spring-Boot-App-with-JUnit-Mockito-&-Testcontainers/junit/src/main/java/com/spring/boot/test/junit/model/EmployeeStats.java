@@ -0,0 +1,20 @@
+package com.spring.boot.test.junit.model;
+
+import java.util.List;
+
+/**
+ * Contagens dos funcionários ativos, calculadas no banco.
+ *
+ * @param total         O número de funcionários ativos.
+ * @param byLastName    Os sobrenomes mais frequentes, do mais para o menos frequente.
+ * @param byEmailDomain Os domínios de e-mail mais frequentes, do mais para o menos frequente.
+ */
+public record EmployeeStats(long total, List<GroupCount> byLastName, List<GroupCount> byEmailDomain) {
+
+    /**
+     * @param value O valor agrupado.
+     * @param count O número de funcionários ativos com o valor.
+     */
+    public record GroupCount(String value, long count) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.spring.boot.test.junit.model;
+
+import com.spring.boot.test.junit.exception.InvalidWatermarkException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Posição de uma sincronização incremental: o par ({@code updatedAt}, {@code id}) do último funcionário
+ * entregue ao cliente.
+ * <p>
+ * É representada na API como {@code <microssegundos desde a época>.<id>}, um valor opaco que o cliente
+ * apenas devolve na próxima chamada.
+ */
+public record SyncWatermark(Instant updatedAt, long id) {
+
+    public static final SyncWatermark INITIAL = new SyncWatermark(Instant.EPOCH, 0L);
+
+    public static SyncWatermark of(Employee employee) {
+        return new SyncWatermark(employee.getUpdatedAt(), employee.getId());
+    }
+
+    public static SyncWatermark parse(String value) {
+        if (value == null || value.isBlank())
+            return INITIAL;
+
+        int separator = value.indexOf('.');
+
+        try {
+            long micros = Long.parseLong(value.substring(0, separator));
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new SyncWatermark(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), id);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new InvalidWatermarkException(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt) + "." + id;
+    }
+}
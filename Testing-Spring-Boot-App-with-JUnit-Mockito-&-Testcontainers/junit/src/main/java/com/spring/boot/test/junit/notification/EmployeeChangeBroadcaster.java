@@ -0,0 +1,319 @@
+package com.spring.boot.test.junit.notification;
+
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+import com.spring.boot.test.junit.outbox.EmployeeEvent;
+import com.spring.boot.test.junit.repository.EmployeeOutboxRepository;
+import com.spring.boot.test.junit.shard.ShardContext;
+import com.spring.boot.test.junit.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Distribui os eventos de alteração de funcionários gravados na outbox para os clientes conectados
+ * via Server-Sent Events.
+ * <p>
+ * Cada instância lê a outbox com o seu próprio cursor, sem bloquear linhas e independentemente do
+ * {@link com.spring.boot.test.junit.outbox.EmployeeOutboxRelay}, cujos lotes são divididos entre as instâncias:
+ * assim todos os assinantes, em qualquer instância, recebem todos os eventos. Os ids da outbox são atribuídos na
+ * inclusão, não na efetivação, e um id menor pode ficar visível depois de um maior; por isso a leitura só avança
+ * sobre eventos gravados há mais de {@code employee.changes.settle-delay} e para no primeiro evento mais recente.
+ * Uma transação que demore mais que esse prazo para ser efetivada tem o seu evento perdido pelo stream (os clientes
+ * se ressincronizam pela API de listagem); o prazo também absorve a diferença entre os relógios das instâncias.
+ * <p>
+ * As conexões não ocupam threads do Tomcat: cada assinante tem uma fila limitada, esvaziada por um pool
+ * pequeno de threads de envio. Um assinante cuja fila enche (consumidor lento) é desconectado e deve
+ * se reconectar com {@code Last-Event-ID}. Os eventos mais recentes ficam em um buffer circular para que a
+ * reconexão, em qualquer instância, retome o stream sem perder eventos: todos os eventos até o cursor já estão
+ * efetivados, e o buffer contém todos os posteriores ao cursor inicial. Com sharding, os ids se repetem entre os
+ * shards e a reconexão sempre pede a ressincronização.
+ */
+@Component
+public class EmployeeChangeBroadcaster implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeBroadcaster.class);
+
+    private static final long UNINITIALIZED = -1;
+
+    private final EmployeeOutboxRepository outboxRepository;
+    private final ShardRouter shardRouter;
+    private final EmployeeEventRingBuffer recentEvents;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final Supplier<SseEmitter> emitters;
+    private final int subscriberQueueCapacity;
+    private final Duration settleDelay;
+    private final int pollBatchSize;
+    private final Clock clock;
+
+    /**
+     * O último id lido de cada shard; alterado apenas pela thread de {@link #poll()}.
+     */
+    private final long[] cursors;
+
+    /**
+     * Se o buffer já contém todos os eventos posteriores ao cursor inicial; protegido por {@code recentEvents}.
+     */
+    private boolean resumable;
+
+    @Autowired
+    public EmployeeChangeBroadcaster(EmployeeOutboxRepository outboxRepository,
+                                     ObjectProvider<ShardRouter> shardRouter,
+                                     @Value("${employee.changes.buffer-size:4096}") int bufferSize,
+                                     @Value("${employee.changes.subscriber-queue-size:256}") int subscriberQueueCapacity,
+                                     @Value("${employee.changes.dispatcher-threads:2}") int dispatcherThreads,
+                                     @Value("${employee.changes.emitter-timeout:PT30M}") Duration emitterTimeout,
+                                     @Value("${employee.changes.settle-delay:PT2S}") Duration settleDelay,
+                                     @Value("${employee.changes.poll-batch-size:500}") int pollBatchSize) {
+        this(outboxRepository, shardRouter.getIfAvailable(), bufferSize, subscriberQueueCapacity, settleDelay,
+                pollBatchSize, Executors.newFixedThreadPool(dispatcherThreads, new DispatcherThreadFactory()),
+                () -> new SseEmitter(emitterTimeout.toMillis()), Clock.systemUTC());
+    }
+
+    EmployeeChangeBroadcaster(EmployeeOutboxRepository outboxRepository, @Nullable ShardRouter shardRouter,
+                              int bufferSize, int subscriberQueueCapacity, Duration settleDelay, int pollBatchSize,
+                              ExecutorService dispatcher, Supplier<SseEmitter> emitters, Clock clock) {
+        this.outboxRepository = outboxRepository;
+        this.shardRouter = shardRouter;
+        this.recentEvents = new EmployeeEventRingBuffer(bufferSize);
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.settleDelay = settleDelay;
+        this.pollBatchSize = pollBatchSize;
+        this.dispatcher = dispatcher;
+        this.emitters = emitters;
+        this.clock = clock;
+        this.cursors = new long[shardRouter == null ? 1 : shardRouter.resolver().shardCount()];
+        Arrays.fill(cursors, UNINITIALIZED);
+    }
+
+    /**
+     * Registra um novo assinante.
+     *
+     * @param lastEventId O id do último evento recebido pelo cliente, ou {@code null} para receber apenas
+     *                    eventos novos.
+     * @return O {@link SseEmitter} da conexão.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = emitters.get();
+        Subscriber subscriber = new Subscriber(emitter, subscriberQueueCapacity);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> disconnect(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (recentEvents) {
+            if (lastEventId != null) {
+                Optional<List<EmployeeEvent>> missed = resumable
+                        ? recentEvents.eventsAfter(lastEventId)
+                        : Optional.empty();
+
+                if (missed.isEmpty()) {
+                    subscriber.resyncRequired = true;
+                } else if (!missed.get().stream().allMatch(subscriber.queue::offer)) {
+                    subscriber.queue.clear();
+                    subscriber.resyncRequired = true;
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Lê os eventos da outbox posteriores ao cursor de cada shard e os distribui aos assinantes desta instância.
+     */
+    @Scheduled(fixedDelayString = "${employee.changes.poll-interval:PT0.5S}")
+    public void poll() {
+        if (shardRouter == null)
+            pollShard(0);
+        else
+            shardRouter.forEachShard(() -> pollShard(ShardContext.current()));
+    }
+
+    private void pollShard(int shard) {
+        try {
+            Instant settledUntil = clock.instant().minus(settleDelay);
+
+            if (cursors[shard] == UNINITIALIZED)
+                startAt(shard, outboxRepository.findLastIdCreatedUntil(settledUntil));
+
+            List<EmployeeOutboxEvent> batch;
+            do {
+                batch = outboxRepository.findAfter(cursors[shard], Limit.of(pollBatchSize));
+
+                // Um evento recente pode ter ids menores ainda não efetivados antes dele
+                List<EmployeeEvent> settled = batch.stream()
+                        .takeWhile(event -> !event.getCreatedAt().isAfter(settledUntil))
+                        .map(EmployeeEvent::from)
+                        .toList();
+
+                if (settled.isEmpty())
+                    return;
+
+                publish(settled);
+                cursors[shard] = settled.get(settled.size() - 1).id();
+
+                if (settled.size() < batch.size())
+                    return;
+            } while (batch.size() == pollBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not read employee changes from the outbox, retrying on the next poll", e);
+        }
+    }
+
+    private void startAt(int shard, Long lastSettledId) {
+        cursors[shard] = lastSettledId == null ? 0 : lastSettledId;
+
+        if (shardRouter == null) {
+            synchronized (recentEvents) {
+                recentEvents.skipTo(cursors[shard]);
+                resumable = true;
+            }
+        }
+    }
+
+    /**
+     * Entrega os eventos às filas dos assinantes. O assinante cuja fila enche sai de {@code subscribers} sob o lock,
+     * mas a sua conexão é encerrada pelas threads de envio: {@link SseEmitter#complete()} espera o envio em
+     * andamento para o mesmo cliente, que pode estar bloqueado na escrita para um consumidor lento.
+     */
+    private void publish(List<EmployeeEvent> events) {
+        List<Subscriber> dropped = new ArrayList<>();
+
+        synchronized (recentEvents) {
+            events.forEach(recentEvents::add);
+
+            for (Subscriber subscriber : subscribers) {
+                for (EmployeeEvent event : events) {
+                    if (!subscriber.queue.offer(event)) {
+                        subscribers.remove(subscriber);
+                        dropped.add(subscriber);
+                        break;
+                    }
+                }
+            }
+        }
+
+        for (Subscriber subscriber : dropped) {
+            log.debug("Dropping slow employee change subscriber");
+            dispatcher.execute(subscriber.emitter::complete);
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.changes.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.hasPendingWork() && subscriber.scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        disconnect(subscriber);
+                    } finally {
+                        subscriber.scheduled.set(false);
+                    }
+
+                    if (subscribers.contains(subscriber))
+                        schedule(subscriber);
+                });
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(this::disconnect);
+        dispatcher.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.hasPendingWork() && subscriber.scheduled.compareAndSet(false, true))
+            dispatcher.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resyncRequired) {
+                subscriber.resyncRequired = false;
+                subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+            }
+
+            EmployeeEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id()))
+                        .name(event.type().name().toLowerCase(Locale.ROOT))
+                        .data(event.payload()));
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+
+        if (subscribers.contains(subscriber))
+            schedule(subscriber);
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber))
+            subscriber.emitter.complete();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<EmployeeEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean resyncRequired;
+
+        private Subscriber(SseEmitter emitter, int queueCapacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private boolean hasPendingWork() {
+            return resyncRequired || !queue.isEmpty();
+        }
+    }
+
+    private static final class DispatcherThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "employee-changes-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
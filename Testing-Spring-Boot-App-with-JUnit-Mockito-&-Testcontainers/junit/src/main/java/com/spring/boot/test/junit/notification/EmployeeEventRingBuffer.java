@@ -0,0 +1,70 @@
+package com.spring.boot.test.junit.notification;
+
+import com.spring.boot.test.junit.outbox.EmployeeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Buffer circular com os eventos mais recentes, usado para retomar um stream a partir do último id recebido
+ * pelo cliente ({@code Last-Event-ID}).
+ * <p>
+ * Não é thread-safe; o acesso é sincronizado por {@link EmployeeChangeBroadcaster}.
+ */
+class EmployeeEventRingBuffer {
+
+    private final EmployeeEvent[] events;
+    private int head;
+    private int size;
+    private long lastEvictedId = -1;
+
+    EmployeeEventRingBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+
+        this.events = new EmployeeEvent[capacity];
+    }
+
+    /**
+     * Indica que os eventos até o id informado nunca estarão no buffer, como os anteriores ao início da leitura
+     * da outbox; um cliente que parou antes deles precisa se ressincronizar.
+     */
+    void skipTo(long id) {
+        lastEvictedId = Math.max(lastEvictedId, id);
+    }
+
+    void add(EmployeeEvent event) {
+        if (size < events.length) {
+            events[(head + size) % events.length] = event;
+            size++;
+        } else {
+            lastEvictedId = events[head].id();
+            events[head] = event;
+            head = (head + 1) % events.length;
+        }
+    }
+
+    /**
+     * Retorna os eventos posteriores ao id informado.
+     *
+     * @param lastEventId O id do último evento recebido pelo cliente.
+     * @return Os eventos com id maior que {@code lastEventId}, em ordem, ou vazio se eventos posteriores a ele
+     * já foram descartados do buffer e o cliente precisa se ressincronizar pela API de listagem.
+     */
+    Optional<List<EmployeeEvent>> eventsAfter(long lastEventId) {
+        if (lastEventId < lastEvictedId)
+            return Optional.empty();
+
+        List<EmployeeEvent> result = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            EmployeeEvent event = events[(head + i) % events.length];
+
+            if (event.id() > lastEventId)
+                result.add(event);
+        }
+
+        return Optional.of(result);
+    }
+}
@@ -0,0 +1,27 @@
+package com.spring.boot.test.junit.outbox;
+
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * Evento de alteração de um funcionário, como entregue aos {@link EmployeeEventSink}s.
+ *
+ * @param id         O id do evento na outbox; cresce monotonicamente e serve de cursor para os consumidores.
+ * @param type       O tipo da alteração.
+ * @param employeeId O id do funcionário alterado.
+ * @param payload    O funcionário serializado em JSON no momento da alteração.
+ * @param occurredAt O instante em que a alteração foi gravada.
+ */
+public record EmployeeEvent(long id, EmployeeEventType type, long employeeId, String payload, Instant occurredAt) {
+
+    public static EmployeeEvent from(EmployeeOutboxEvent outboxEvent) {
+        return new EmployeeEvent(
+                outboxEvent.getId(),
+                outboxEvent.getEventType(),
+                outboxEvent.getEmployeeId(),
+                outboxEvent.getPayload(),
+                outboxEvent.getCreatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.spring.boot.test.junit.outbox;
+
+import java.util.List;
+
+/**
+ * Destino para onde o {@link EmployeeOutboxRelay} publica os eventos de alteração de funcionários.
+ * <p>
+ * A entrega é "at least once": se {@link #publish(List)} lançar uma exceção, o lote inteiro volta a ser
+ * publicado na próxima execução do relay, inclusive para os destinos que já o tinham recebido.
+ */
+public interface EmployeeEventSink {
+
+    /**
+     * Publica um lote de eventos, em ordem de id.
+     *
+     * @param events Os eventos a publicar.
+     */
+    void publish(List<EmployeeEvent> events);
+}
@@ -0,0 +1,103 @@
+package com.spring.boot.test.junit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+import com.spring.boot.test.junit.repository.EmployeeOutboxRepository;
+import com.spring.boot.test.junit.repository.JdbcInstants;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Grava os eventos de alteração de funcionários na tabela de outbox.
+ * <p>
+ * Deve ser chamado dentro da mesma transação que altera a entidade, para que o evento só exista se a
+ * alteração for confirmada.
+ */
+@Component
+public class EmployeeOutbox {
+
+    private static final String INSERT =
+            "INSERT INTO employee_outbox (event_type, employee_id, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final EmployeeOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter employeeWriter;
+
+    public EmployeeOutbox(EmployeeOutboxRepository outboxRepository, DataSource dataSource, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.employeeWriter = objectMapper.writerFor(Employee.class);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(EmployeeEventType eventType, Employee employee) {
+        outboxRepository.save(EmployeeOutboxEvent.builder()
+                .eventType(eventType)
+                .employeeId(employee.getId())
+                .payload(toJson(employee))
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Grava um evento por funcionário em lotes JDBC de {@code batchSize} comandos. Os ids gerados pelo banco
+     * impedem o Hibernate de agrupar as inclusões, então elas não passam pelo repositório.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(EmployeeEventType eventType, List<Employee> employees, int batchSize) {
+        if (employees.isEmpty())
+            return;
+
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            insertBatches(connection, eventType, employees, batchSize, createdAt);
+            return null;
+        });
+    }
+
+    private void insertBatches(Connection connection, EmployeeEventType eventType, List<Employee> employees,
+                               int batchSize, Instant createdAt) throws SQLException {
+        Calendar calendar = JdbcInstants.calendarFor(connection);
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int i = 0; i < employees.size(); i++) {
+                Employee employee = employees.get(i);
+
+                statement.setString(1, eventType.name());
+                statement.setLong(2, employee.getId());
+                statement.setString(3, toJson(employee));
+                JdbcInstants.set(statement, 4, createdAt, calendar);
+                statement.addBatch();
+
+                if ((i + 1) % batchSize == 0)
+                    statement.executeBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private String toJson(Employee employee) {
+        try {
+            return employeeWriter.writeValueAsString(employee);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize employee " + employee.getId(), e);
+        }
+    }
+}
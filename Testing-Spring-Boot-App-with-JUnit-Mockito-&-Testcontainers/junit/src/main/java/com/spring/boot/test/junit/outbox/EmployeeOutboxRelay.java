@@ -0,0 +1,100 @@
+package com.spring.boot.test.junit.outbox;
+
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+import com.spring.boot.test.junit.repository.EmployeeOutboxRepository;
+import com.spring.boot.test.junit.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Publica periodicamente, em lotes, os eventos pendentes da outbox para todos os {@link EmployeeEventSink}s.
+ * <p>
+ * Cada lote é lido, publicado e marcado como publicado na mesma transação. Se algum destino falhar, a
+ * transação é desfeita e o lote é publicado novamente na próxima execução.
+ */
+@Component
+public class EmployeeOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeOutboxRelay.class);
+
+    private final EmployeeOutboxRepository outboxRepository;
+    private final List<EmployeeEventSink> sinks;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public EmployeeOutboxRelay(EmployeeOutboxRepository outboxRepository,
+                               ObjectProvider<EmployeeEventSink> sinks,
+                               ObjectProvider<ShardRouter> shardRouter,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${employee.outbox.batch-size:500}") int batchSize,
+                               @Value("${employee.outbox.retention:PT24H}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.shardRouter = shardRouter.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.relay-interval:PT0.5S}")
+    public void relay() {
+        forEachShard(this::relayPending);
+    }
+
+    @Scheduled(fixedDelayString = "${employee.outbox.purge-interval:PT1H}")
+    public void purge() {
+        forEachShard(() -> transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.deletePublishedBefore(Instant.now().minus(retention))));
+    }
+
+    /**
+     * Com sharding, cada shard tem a sua própria outbox.
+     */
+    private void forEachShard(Runnable task) {
+        if (shardRouter == null)
+            task.run();
+        else
+            shardRouter.forEachShard(task);
+    }
+
+    private void relayPending() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishNextBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Employee outbox relay failed, the pending batch will be retried", e);
+        }
+    }
+
+    private int publishNextBatch() {
+        List<EmployeeOutboxEvent> batch = outboxRepository.findUnpublished(PageRequest.ofSize(batchSize));
+
+        if (batch.isEmpty())
+            return 0;
+
+        List<EmployeeEvent> events = batch.stream()
+                .map(EmployeeEvent::from)
+                .toList();
+
+        for (EmployeeEventSink sink : sinks)
+            sink.publish(events);
+
+        outboxRepository.markPublished(events.stream().map(EmployeeEvent::id).toList(), Instant.now());
+        return batch.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.spring.boot.test.junit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Anexa os eventos, um por linha (NDJSON), a um arquivo local.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.outbox.sink.file.path")
+public class FileEmployeeEventSink implements EmployeeEventSink {
+
+    private final Path path;
+    private final ObjectWriter eventWriter;
+
+    public FileEmployeeEventSink(@Value("${employee.outbox.sink.file.path}") Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.eventWriter = objectMapper.writerFor(EmployeeEvent.class);
+    }
+
+    @Override
+    public synchronized void publish(List<EmployeeEvent> events) {
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (EmployeeEvent event : events) {
+                out.write(eventWriter.writeValueAsBytes(event));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append employee events to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.spring.boot.test.junit.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Substituto em memória de um broker de mensagens: mantém os eventos mais recentes em uma fila limitada,
+ * descartando os mais antigos quando ela enche.
+ */
+@Component
+@ConditionalOnProperty(name = "employee.outbox.sink.memory.enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryEmployeeEventSink implements EmployeeEventSink {
+
+    private final BlockingQueue<EmployeeEvent> queue;
+
+    public InMemoryEmployeeEventSink(@Value("${employee.outbox.sink.memory.capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void publish(List<EmployeeEvent> events) {
+        for (EmployeeEvent event : events) {
+            while (!queue.offer(event))
+                queue.poll();
+        }
+    }
+
+    /**
+     * Remove e retorna os eventos acumulados até o momento, em ordem de publicação.
+     *
+     * @return Os eventos consumidos.
+     */
+    public List<EmployeeEvent> drain() {
+        List<EmployeeEvent> events = new ArrayList<>(queue.size());
+        queue.drainTo(events);
+        return events;
+    }
+}
@@ -0,0 +1,49 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limita a taxa de requisições de cada cliente com um {@link TokenBucket} por cliente.
+ * <p>
+ * O número de buckets é limitado: os buckets ficam em ordem de último acesso e, ao passar de
+ * {@code maxClients}, o do cliente há mais tempo sem requisições é descartado. Esse bucket é o que mais teve
+ * tempo para se reabastecer, e um cliente sem bucket recebe um bucket cheio na próxima requisição.
+ */
+class ClientRateLimiter {
+
+    private final Map<String, TokenBucket> buckets;
+    private final long capacity;
+    private final double refillPerSecond;
+
+    ClientRateLimiter(long capacity, double refillPerSecond, int maxClients) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxClients;
+            }
+        };
+    }
+
+    /**
+     * @return {@code 0} se a requisição foi admitida; caso contrário, quantos nanossegundos o cliente
+     * deve esperar antes de tentar novamente.
+     */
+    long tryAcquire(String clientId, long now) {
+        return bucket(clientId, now).tryConsume(now);
+    }
+
+    int getClientCount() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    private TokenBucket bucket(String clientId, long now) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(clientId, id -> new TokenBucket(capacity, refillPerSecond, now));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite adaptativo de requisições simultâneas, ajustado pela variação da latência (algoritmo "gradient").
+ * <p>
+ * Pela lei de Little, enquanto a latência se mantém igual à latência de referência, o sistema não está
+ * enfileirando e o limite pode crescer; quando a latência observada passa da referência, a razão entre
+ * as duas (o gradiente) reduz o limite proporcionalmente. A referência é uma média móvel exponencial longa
+ * das latências, e uma folga de {@code sqrt(limite)} requisições permite detectar capacidade ociosa.
+ * Requisições acima do limite são rejeitadas imediatamente, em vez de esperarem por threads do Tomcat ou
+ * conexões do pool.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRtt;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > maxLimit)
+            throw new IllegalArgumentException("invalid limit range: [" + minLimit + ", " + maxLimit + "]");
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tenta admitir uma requisição.
+     *
+     * @param now O instante atual, em nanossegundos.
+     * @return A permissão, que deve ser devolvida com {@link #release(Permit, long, boolean)}, ou vazio se o
+     * limite de requisições simultâneas foi atingido.
+     */
+    public Optional<Permit> tryAcquire(long now) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit)
+                return Optional.empty();
+            if (inFlight.compareAndSet(current, current + 1))
+                return Optional.of(new Permit(now, current + 1));
+        }
+    }
+
+    /**
+     * Devolve a permissão e usa a latência da requisição para ajustar o limite.
+     *
+     * @param dropped Se a requisição falhou; falhas não são usadas como amostra de latência.
+     */
+    public void release(Permit permit, long now, boolean dropped) {
+        inFlight.decrementAndGet();
+
+        if (!dropped)
+            onSample(Math.max(1, now - permit.startedAt()), permit.inFlight());
+    }
+
+    private synchronized void onSample(long rtt, int inFlightAtStart) {
+        if (longRtt == 0)
+            longRtt = rtt;
+        else
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+
+        // A latência caiu muito abaixo da referência: a referência está desatualizada, aproxima mais rápido.
+        if (longRtt / rtt > 2)
+            longRtt *= 0.95;
+
+        // Sistema ocioso: não há evidência de que um limite maior seria suportado.
+        if (inFlightAtStart < limit / 2)
+            return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @param startedAt O instante da admissão, em nanossegundos.
+     * @param inFlight  Quantas requisições estavam em andamento na admissão, incluindo esta.
+     */
+    public record Permit(long startedAt, int inFlight) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import com.spring.boot.test.junit.exception.ServiceOverloadedException;
+import com.spring.boot.test.junit.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica, antes do controller, a limitação de taxa por cliente e o limite adaptativo de concorrência
+ * do endpoint.
+ * <p>
+ * Requisições acima da taxa do cliente recebem {@code 429} com {@code Retry-After}; requisições acima do
+ * limite de concorrência recebem {@code 503}. Nos dois casos a resposta é imediata. Em requisições
+ * assíncronas (como o export em NDJSON), a permissão só é devolvida ao fim do processamento assíncrono.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EndpointLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod method))
+            return true;
+
+        String endpoint = method.getMethod().getName();
+        EndpointLimiter limiter = limiters.computeIfAbsent(endpoint, this::createLimiter);
+        long now = System.nanoTime();
+
+        long waitNanos = limiter.rate().tryAcquire(clientId(request), now);
+        if (waitNanos > 0) {
+            limiter.rateRejections().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+            throw new TooManyRequestsException(endpoint);
+        }
+
+        GradientConcurrencyLimiter.Permit permit = limiter.concurrency().tryAcquire(now).orElse(null);
+        if (permit == null) {
+            limiter.concurrencyRejections().increment();
+            throw new ServiceOverloadedException(endpoint);
+        }
+
+        request.setAttribute(PERMIT_ATTRIBUTE, new Admission(limiter, permit));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Admission admission) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            admission.limiter().concurrency()
+                    .release(admission.permit(), System.nanoTime(), ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    /**
+     * O cliente autenticado ou, sem autenticação, o endereço remoto. O cabeçalho de identificação só é aceito
+     * de um proxy confiável; os prefixos separam os três espaços de nomes.
+     */
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null)
+            return "principal:" + principal.getName();
+
+        String remoteAddress = request.getRemoteAddr();
+        if (properties.getTrustedProxies().contains(remoteAddress)) {
+            String clientId = request.getHeader(properties.getClientIdHeader());
+            if (clientId != null && !clientId.isBlank())
+                return "client:" + clientId;
+        }
+        return "address:" + remoteAddress;
+    }
+
+    private EndpointLimiter createLimiter(String endpoint) {
+        RateLimitProperties.Policy policy = properties.policyFor(endpoint);
+
+        GradientConcurrencyLimiter concurrency = new GradientConcurrencyLimiter(
+                policy.getInitialConcurrency(), 1, policy.getMaxConcurrency());
+
+        Gauge.builder("employee.concurrency.limit", concurrency, GradientConcurrencyLimiter::getLimit)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("employee.concurrency.in_flight", concurrency, GradientConcurrencyLimiter::getInFlight)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+
+        return new EndpointLimiter(
+                new ClientRateLimiter(policy.getCapacity(), policy.getRefillPerSecond(), properties.getMaxClients()),
+                concurrency,
+                rejections(endpoint, "rate"),
+                rejections(endpoint, "concurrency"));
+    }
+
+    private Counter rejections(String endpoint, String reason) {
+        return Counter.builder("employee.rate_limit.rejections")
+                .tag("endpoint", endpoint)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record EndpointLimiter(ClientRateLimiter rate, GradientConcurrencyLimiter concurrency,
+                                   Counter rateRejections, Counter concurrencyRejections) {
+    }
+
+    private record Admission(EndpointLimiter limiter, GradientConcurrencyLimiter.Permit permit) {
+    }
+}
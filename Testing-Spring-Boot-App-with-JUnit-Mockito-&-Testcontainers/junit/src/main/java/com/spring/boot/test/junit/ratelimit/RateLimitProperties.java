@@ -0,0 +1,69 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuração da limitação de taxa e de concorrência da API de funcionários.
+ * <p>
+ * As políticas de {@code endpoints} são indexadas pelo nome do método do controller (por exemplo,
+ * {@code getAllEmployees}); endpoints sem política própria usam {@code defaults}. Campos omitidos em uma
+ * política usam os valores padrão de {@link Policy}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("employee.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Cabeçalho que identifica o cliente atrás de um proxy confiável. Fora de {@code trustedProxies} ele é
+     * ignorado: o cliente escolheria o próprio bucket a cada requisição.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    /**
+     * Endereços remotos dos proxies autorizados a informar o cliente em {@code clientIdHeader}.
+     */
+    private Set<String> trustedProxies = new HashSet<>();
+
+    /**
+     * Número máximo de clientes com bucket próprio mantidos em memória por endpoint; acima dele, o bucket do
+     * cliente que está há mais tempo sem requisições é descartado.
+     */
+    private int maxClients = 10_000;
+
+    private Policy defaults = new Policy();
+
+    private Map<String, Policy> endpoints = new HashMap<>();
+
+    public Policy policyFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /**
+         * Rajada máxima de requisições de um cliente.
+         */
+        private long capacity = 100;
+
+        /**
+         * Requisições por segundo sustentadas por cliente.
+         */
+        private double refillPerSecond = 50;
+
+        private int initialConcurrency = 20;
+
+        private int maxConcurrency = 200;
+    }
+}
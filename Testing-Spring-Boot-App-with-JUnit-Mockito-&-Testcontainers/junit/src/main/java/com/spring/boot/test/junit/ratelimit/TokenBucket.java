@@ -0,0 +1,55 @@
+package com.spring.boot.test.junit.ratelimit;
+
+/**
+ * Token bucket com reabastecimento calculado sob demanda: não há thread de recarga, os tokens acumulados
+ * desde a última consulta são somados a cada tentativa de consumo.
+ * <p>
+ * Os instantes são informados pelo chamador em nanossegundos ({@link System#nanoTime()}), o que permite
+ * testar o bucket com um relógio controlado.
+ */
+class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(long capacity, double refillPerSecond, long now) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        if (refillPerSecond <= 0)
+            throw new IllegalArgumentException("refillPerSecond must be positive: " + refillPerSecond);
+
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Tenta consumir um token.
+     *
+     * @param now O instante atual, em nanossegundos.
+     * @return {@code 0} se o token foi consumido; caso contrário, quantos nanossegundos faltam até o
+     * próximo token ficar disponível.
+     */
+    synchronized long tryConsume(long now) {
+        refill(now);
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.spring.boot.test.junit.repository;
+
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Interface de repositório para a tabela de outbox dos eventos de alteração de funcionários.
+ */
+@Repository
+public interface EmployeeOutboxRepository extends JpaRepository<EmployeeOutboxEvent, Long> {
+
+    /**
+     * Recupera o próximo lote de eventos ainda não publicados, em ordem de id.
+     * <p>
+     * As linhas são bloqueadas com {@code FOR UPDATE SKIP LOCKED}, de modo que várias instâncias do
+     * serviço podem executar o relay ao mesmo tempo sem publicar o mesmo evento duas vezes.
+     *
+     * @param pageable O tamanho do lote.
+     * @return Os eventos pendentes de publicação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmployeeOutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<EmployeeOutboxEvent> findUnpublished(Pageable pageable);
+
+    /**
+     * Recupera os eventos com id maior que o informado, publicados ou não, em ordem de id e sem bloqueio.
+     * <p>
+     * Cada instância lê a outbox com o seu próprio cursor (veja
+     * {@link com.spring.boot.test.junit.notification.EmployeeChangeBroadcaster}), independentemente do relay.
+     *
+     * @param afterId O último id já lido.
+     * @param limit   O tamanho do lote.
+     * @return Os eventos seguintes ao cursor.
+     */
+    @Query("SELECT e FROM EmployeeOutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<EmployeeOutboxEvent> findAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Recupera o maior id dos eventos gravados até o instante informado.
+     *
+     * @param createdUntil O instante limite de {@code createdAt}.
+     * @return O maior id, ou {@code null} se não há eventos até o instante.
+     */
+    @Query("SELECT MAX(e.id) FROM EmployeeOutboxEvent e WHERE e.createdAt <= :createdUntil")
+    Long findLastIdCreatedUntil(@Param("createdUntil") Instant createdUntil);
+
+    /**
+     * Marca os eventos informados como publicados.
+     *
+     * @param ids         Os ids dos eventos publicados.
+     * @param publishedAt O instante da publicação.
+     * @return A quantidade de eventos atualizados.
+     */
+    @Modifying
+    @Query("UPDATE EmployeeOutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    /**
+     * Remove os eventos publicados antes do instante informado.
+     *
+     * @param threshold O instante limite de retenção.
+     * @return A quantidade de eventos removidos.
+     */
+    @Modifying
+    @Query("DELETE FROM EmployeeOutboxEvent e WHERE e.publishedAt < :threshold")
+    int deletePublishedBefore(@Param("threshold") Instant threshold);
+}
@@ -1,13 +1,22 @@
 package com.spring.boot.test.junit.repository;
 
 import com.spring.boot.test.junit.model.Employee;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 /**
  * Interface de repositório para gerenciar entidades Employee.
  */
@@ -23,60 +32,128 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByEmail(String email);
 
     /**
-     * Método de consulta derivada para encontrar um funcionário pelo primeiro nome e sobrenome.
+     * Recupera um funcionário não excluído bloqueando a sua linha até o fim da transação.
+     * <p>
+     * Uma exclusão concorrente espera pela transação ou, se confirmada antes, faz o funcionário não ser
+     * encontrado; assim uma alteração nunca desfaz a exclusão.
      *
-     * @param firstName O primeiro nome do funcionário.
-     * @param lastName  O sobrenome do funcionário.
-     * @return O funcionário com o primeiro nome e sobrenome especificados.
+     * @param id O id do funcionário.
+     * @return Um {@link Optional} contendo o funcionário, ou vazio se não existir ou estiver excluído.
      */
-    Employee findByFirstNameAndLastName(String firstName, String lastName);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Employee e WHERE e.id = :id")
+    Optional<Employee> findByIdForUpdate(@Param("id") Long id);
 
     /**
-     * Método de consulta JPQL para encontrar um funcionário usando o primeiro nome e sobrenome.
+     * Busca os funcionários com o primeiro nome e o sobrenome informados.
+     * <p>
+     * Executa a consulta nomeada {@code Employee.findByName}, declarada na entidade e compilada na inicialização,
+     * que usa o índice ({@code first_name}, {@code last_name}). Nomes não são únicos, então todos os funcionários
+     * encontrados são retornados, em ordem de id.
      *
      * @param firstName O primeiro nome do funcionário.
      * @param lastName  O sobrenome do funcionário.
-     * @return O funcionário com o primeiro nome e sobrenome especificados.
+     * @return Os funcionários com o primeiro nome e sobrenome especificados, ou uma lista vazia.
      */
-    @Query("SELECT e FROM Employee e WHERE e.firstName = ?1 AND e.lastName = ?2")
-    Employee findByJPQL(String firstName, String lastName);
+    List<Employee> findByName(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
     /**
-     * Método de consulta JPQL com parâmetros nomeados para encontrar um funcionário.
+     * Busca os funcionários com o primeiro nome informado.
+     * <p>
+     * Executa a consulta nomeada {@code Employee.findByFirstName}, que usa o prefixo do índice
+     * ({@code first_name}, {@code last_name}).
      *
      * @param firstName O primeiro nome do funcionário.
-     * @param lastName  O sobrenome do funcionário.
-     * @return O funcionário com o primeiro nome e sobrenome especificados.
+     * @return Os funcionários com o primeiro nome especificado, em ordem de id, ou uma lista vazia.
      */
-    @Query("SELECT e FROM Employee e WHERE e.firstName = :firstName AND e.lastName = :lastName")
-    Employee findByJPQLWithNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    List<Employee> findByFirstName(@Param("firstName") String firstName);
 
     /**
-     * Realiza uma consulta nativa para encontrar um funcionário usando SQL nativo.
+     * Busca os funcionários cujo primeiro nome, sobrenome ou e-mail corresponde ao padrão {@code LIKE} informado,
+     * com {@code !} como caractere de escape.
      *
-     * @param firstName O primeiro nome do funcionário.
-     * @param lastName  O sobrenome do funcionário.
-     * @return O funcionário com o primeiro nome e sobrenome especificados.
+     * @param pattern O padrão, como {@code "mar%"}.
+     * @param limit   A quantidade máxima de funcionários retornados.
+     * @return Os funcionários encontrados, em ordem de id.
      */
-    @Query(value = "SELECT * FROM employee WHERE first_name = ?1 AND last_name = ?2", nativeQuery = true)
-    Employee findByNativeQuery(String firstName, String lastName);
+    @Query("SELECT e FROM Employee e " +
+            "WHERE e.firstName LIKE :pattern ESCAPE '!' " +
+            "OR e.lastName LIKE :pattern ESCAPE '!' " +
+            "OR e.email LIKE :pattern ESCAPE '!' " +
+            "ORDER BY e.id")
+    List<Employee> findByNameOrEmailLike(@Param("pattern") String pattern, Limit limit);
 
     /**
-     * Realiza uma consulta nativa com parâmetros nomeados para encontrar um funcionário usando SQL nativo.
+     * Recupera a página de funcionários seguinte ao id informado, percorrendo a chave primária.
+     * <p>
+     * Cada página é uma consulta curta; quem percorre a tabela inteira não mantém uma transação nem uma conexão
+     * abertas entre as páginas.
      *
-     * @param firstName O primeiro nome do funcionário.
-     * @param lastName  O sobrenome do funcionário.
-     * @return O funcionário com o primeiro nome e sobrenome especificados.
+     * @param afterId O id do último funcionário da página anterior, ou {@code 0} para a primeira página.
+     * @param limit   A quantidade máxima de funcionários retornados.
+     * @return Os funcionários da página, em ordem de id.
      */
-    @Query(value = "SELECT * FROM employee WHERE first_name = :firstName AND last_name = :lastName", nativeQuery = true)
-    Employee findByNativeQueryWithNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
+    @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+    @Query("SELECT e FROM Employee e WHERE e.id > :afterId ORDER BY e.id")
+    List<Employee> findPageAfter(@Param("afterId") long afterId, Limit limit);
 
     /**
-     * Realiza uma consulta nativa para encontrar um funcionário usando SQL nativo, considerando apenas o primeiro nome.
+     * Recupera os funcionários alterados depois da posição informada, incluindo os excluídos logicamente.
+     * <p>
+     * A consulta é nativa para não aplicar o filtro {@code deleted = false} da entidade, e percorre o índice
+     * ({@code updated_at}, {@code id}) a partir da posição informada.
      *
-     * @param name O primeiro nome do funcionário.
-     * @return O funcionário com o primeiro nome especificado.
+     * @param updatedAt  O {@code updatedAt} do último funcionário já sincronizado.
+     * @param id         O id do último funcionário já sincronizado.
+     * @param upperBound Limite superior de {@code updatedAt}; alterações mais recentes ficam para a próxima página.
+     * @param limit      A quantidade máxima de funcionários retornados.
+     * @return Os funcionários alterados, em ordem de ({@code updatedAt}, {@code id}).
      */
-    @Query(value = "SELECT * FROM employee WHERE first_name = :firstName", nativeQuery = true)
-    Optional<Employee> findByFirstName(@Param("firstName") String name);
-}
\ No newline at end of file
+    @Query(value = "SELECT * FROM employee " +
+            "WHERE (updated_at > :updatedAt OR (updated_at = :updatedAt AND id > :id)) " +
+            "AND updated_at <= :upperBound " +
+            "ORDER BY updated_at, id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Employee> findChangedSince(@Param("updatedAt") Instant updatedAt,
+                                    @Param("id") long id,
+                                    @Param("upperBound") Instant upperBound,
+                                    @Param("limit") int limit);
+
+    /**
+     * Conta os funcionários ativos por sobrenome, percorrendo apenas o índice ({@code deleted}, {@code last_name}).
+     *
+     * @param limit A quantidade de sobrenomes retornados.
+     * @return Os sobrenomes mais frequentes, do mais para o menos frequente e, no empate, em ordem alfabética.
+     */
+    @Query(value = "SELECT last_name AS name, COUNT(*) AS total FROM employee " +
+            "WHERE deleted = false " +
+            "GROUP BY last_name " +
+            "ORDER BY total DESC, name " +
+            "LIMIT :limit", nativeQuery = true)
+    List<GroupCount> countByLastName(@Param("limit") int limit);
+
+    /**
+     * Conta os funcionários ativos por domínio de e-mail, percorrendo apenas o índice ({@code deleted},
+     * {@code email_domain}). A coluna {@code email_domain} é gerada pelo banco a partir do e-mail e não é mapeada na
+     * entidade.
+     *
+     * @param limit A quantidade de domínios retornados.
+     * @return Os domínios mais frequentes, do mais para o menos frequente e, no empate, em ordem alfabética.
+     */
+    @Query(value = "SELECT email_domain AS name, COUNT(*) AS total FROM employee " +
+            "WHERE deleted = false " +
+            "GROUP BY email_domain " +
+            "ORDER BY total DESC, name " +
+            "LIMIT :limit", nativeQuery = true)
+    List<GroupCount> countByEmailDomain(@Param("limit") int limit);
+
+    /**
+     * Uma linha das contagens agrupadas.
+     */
+    interface GroupCount {
+
+        String getName();
+
+        long getTotal();
+    }
+}
@@ -0,0 +1,34 @@
+package com.spring.boot.test.junit.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Grava {@link Instant}s em comandos JDBC escritos à mão da mesma forma que o Hibernate os grava nas entidades:
+ * em UTC no MySQL ({@code TIMESTAMP_UTC}) e no fuso da JVM nos demais bancos, como o H2 dos testes, configurado
+ * com {@code preferred_instant_jdbc_type=TIMESTAMP}. Assim as colunas gravadas pelos dois caminhos são comparáveis.
+ */
+public final class JdbcInstants {
+
+    private JdbcInstants() {
+    }
+
+    /**
+     * O calendário a usar em {@link #set(PreparedStatement, int, Instant, Calendar)} nos comandos da conexão.
+     */
+    public static Calendar calendarFor(Connection connection) throws SQLException {
+        boolean mysql = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL");
+
+        return Calendar.getInstance(mysql ? TimeZone.getTimeZone("UTC") : TimeZone.getDefault());
+    }
+
+    public static void set(PreparedStatement statement, int index, Instant instant, Calendar calendar)
+            throws SQLException {
+        statement.setTimestamp(index, Timestamp.from(instant), calendar);
+    }
+}
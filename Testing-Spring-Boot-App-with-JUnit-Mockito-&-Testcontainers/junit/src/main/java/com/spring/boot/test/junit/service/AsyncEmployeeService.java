@@ -0,0 +1,42 @@
+package com.spring.boot.test.junit.service;
+
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variantes assíncronas das operações de {@link EmployeeService}, para os handlers que não devem bloquear a thread
+ * do servidor enquanto esperam o banco.
+ * <p>
+ * Os futuros falham com as mesmas exceções das operações síncronas, ou com
+ * {@link com.spring.boot.test.junit.exception.BulkheadRejectedException} quando não há capacidade para executá-las.
+ * A exportação completa, {@link EmployeeService#forEachEmployee}, não tem variante: o corpo da resposta é escrito
+ * pelo executor assíncrono do Spring MVC à medida que os funcionários são lidos.
+ */
+public interface AsyncEmployeeService {
+
+    CompletableFuture<Employee> saveEmployee(Employee employee);
+
+    CompletableFuture<List<Employee>> getAllEmployees();
+
+    CompletableFuture<Optional<Employee>> getEmployeeById(Long id);
+
+    CompletableFuture<Optional<Employee>> getEmployeeByEmail(String email);
+
+    CompletableFuture<List<Employee>> searchEmployeesByName(String firstName, String lastName);
+
+    CompletableFuture<List<Employee>> suggestEmployees(String prefix, int limit);
+
+    CompletableFuture<Employee> updateEmployeeById(Employee employee);
+
+    CompletableFuture<Void> deleteEmployee(Long id);
+
+    CompletableFuture<EmployeeChangesPage> getEmployeeChangesSince(SyncWatermark watermark, int limit);
+
+    CompletableFuture<EmployeeStats> getEmployeeStats(int top);
+}
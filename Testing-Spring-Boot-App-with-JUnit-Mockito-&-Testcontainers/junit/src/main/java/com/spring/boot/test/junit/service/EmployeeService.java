@@ -1,9 +1,13 @@
 package com.spring.boot.test.junit.service;
 
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
@@ -11,11 +15,21 @@ public interface EmployeeService {
 
     List<Employee> getAllEmployees();
 
+    void forEachEmployee(Consumer<Employee> action);
+
     Optional<Employee> getEmployeeById(Long id);
 
-    Optional<Employee> getEmployeeByFirstName(String name);
+    Optional<Employee> getEmployeeByEmail(String email);
+
+    List<Employee> searchEmployeesByName(String firstName, String lastName);
+
+    List<Employee> suggestEmployees(String prefix, int limit);
 
     Employee updateEmployeeById(Employee employee);
 
     void deleteEmployee(Long id);
+
+    EmployeeChangesPage getEmployeeChangesSince(SyncWatermark watermark, int limit);
+
+    EmployeeStats getEmployeeStats(int top);
 }
\ No newline at end of file
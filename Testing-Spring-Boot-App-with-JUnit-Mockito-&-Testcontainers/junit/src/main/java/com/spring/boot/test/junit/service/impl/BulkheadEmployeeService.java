@@ -0,0 +1,85 @@
+package com.spring.boot.test.junit.service.impl;
+
+import com.spring.boot.test.junit.bulkhead.EmployeeBulkheads;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.service.AsyncEmployeeService;
+import com.spring.boot.test.junit.service.EmployeeService;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executa cada operação do {@link EmployeeService} no bulkhead da sua classe de tráfego: listagens, sincronização e
+ * estatísticas no de varreduras, buscas no de leituras pontuais e alterações no de escritas. As threads de cada
+ * bulkhead são dimensionadas pelo pool de conexões da classe (veja {@link EmployeeBulkheads}), então o excesso
+ * espera na fila do bulkhead, com prazo, e não por uma conexão.
+ */
+@Service
+public class BulkheadEmployeeService implements AsyncEmployeeService {
+
+    private final EmployeeService employeeService;
+    private final EmployeeBulkheads bulkheads;
+
+    public BulkheadEmployeeService(EmployeeService employeeService, EmployeeBulkheads bulkheads) {
+        this.employeeService = employeeService;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public CompletableFuture<Employee> saveEmployee(Employee employee) {
+        return bulkheads.write().submit(() -> employeeService.saveEmployee(employee));
+    }
+
+    @Override
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return bulkheads.bulk().submit(employeeService::getAllEmployees);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Employee>> getEmployeeById(Long id) {
+        return bulkheads.point().submit(() -> employeeService.getEmployeeById(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Employee>> getEmployeeByEmail(String email) {
+        return bulkheads.point().submit(() -> employeeService.getEmployeeByEmail(email));
+    }
+
+    @Override
+    public CompletableFuture<List<Employee>> searchEmployeesByName(String firstName, String lastName) {
+        return bulkheads.point().submit(() -> employeeService.searchEmployeesByName(firstName, lastName));
+    }
+
+    @Override
+    public CompletableFuture<List<Employee>> suggestEmployees(String prefix, int limit) {
+        return bulkheads.point().submit(() -> employeeService.suggestEmployees(prefix, limit));
+    }
+
+    @Override
+    public CompletableFuture<Employee> updateEmployeeById(Employee employee) {
+        return bulkheads.write().submit(() -> employeeService.updateEmployeeById(employee));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteEmployee(Long id) {
+        return bulkheads.write().submit(() -> {
+            employeeService.deleteEmployee(id);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<EmployeeChangesPage> getEmployeeChangesSince(SyncWatermark watermark, int limit) {
+        return bulkheads.bulk().submit(() -> employeeService.getEmployeeChangesSince(watermark, limit));
+    }
+
+    @Override
+    public CompletableFuture<EmployeeStats> getEmployeeStats(int top) {
+        return bulkheads.bulk().submit(() -> employeeService.getEmployeeStats(top));
+    }
+}
@@ -1,34 +1,76 @@
 package com.spring.boot.test.junit.service.impl;
 
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
 import com.spring.boot.test.junit.exception.EmailAlreadyExistsException;
 import com.spring.boot.test.junit.exception.ResourceNotFoundException;
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.outbox.EmployeeOutbox;
 import com.spring.boot.test.junit.repository.EmployeeRepository;
 import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.writebehind.EmployeeWriteBehind;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeOutbox employeeOutbox;
+    private final Duration syncSettleTime;
+    private final EmployeeDirectory employeeDirectory;
+    private final EmployeeWriteBehind employeeWriteBehind;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository,
+                               EmployeeOutbox employeeOutbox,
+                               @Value("${employee.sync.settle-time:PT2S}") Duration syncSettleTime,
+                               @Nullable EmployeeDirectory employeeDirectory,
+                               @Nullable EmployeeWriteBehind employeeWriteBehind) {
         this.employeeRepository = employeeRepository;
+        this.employeeOutbox = employeeOutbox;
+        this.syncSettleTime = syncSettleTime;
+        this.employeeDirectory = employeeDirectory;
+        this.employeeWriteBehind = employeeWriteBehind;
     }
 
+    /**
+     * Um e-mail já presente no diretório é recusado sem consulta ao banco. A ausência no diretório não basta para
+     * aceitá-lo, porque outra instância pode tê-lo incluído desde a última sincronização, então o banco ainda é
+     * consultado.
+     */
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
+        employee.setEmail(Employee.normalizeEmail(employee.getEmail()));
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
+        boolean emailInDirectory = employeeDirectory != null && employeeDirectory.isReady()
+                && employeeDirectory.containsEmail(employee.getEmail());
 
-        if (savedEmployee.isPresent())
+        if (emailInDirectory || employeeRepository.findByEmail(employee.getEmail()).isPresent())
             throw new EmailAlreadyExistsException(employee.getEmail());
 
-        return employeeRepository.save(employee);
+        Employee createdEmployee = employeeRepository.save(employee);
+        employeeOutbox.record(EmployeeEventType.CREATED, createdEmployee);
+        refreshDirectoryAfterCommit(createdEmployee);
+        return createdEmployee;
     }
 
     @Override
@@ -36,9 +78,28 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeRepository.findAll();
     }
 
+    /**
+     * Percorre a tabela em páginas pela chave primária, cada uma lida em sua própria consulta: a conexão volta ao
+     * pool enquanto a página anterior é entregue a {@code action}, e funcionários incluídos durante a varredura com
+     * ids maiores que o da última página lida também são visitados.
+     */
+    @Override
+    public void forEachEmployee(Consumer<Employee> action) {
+        long afterId = 0;
+        List<Employee> page;
+
+        do {
+            page = employeeRepository.findPageAfter(afterId, Limit.of(EXPORT_PAGE_SIZE));
+            page.forEach(action);
+
+            if (!page.isEmpty())
+                afterId = page.get(page.size() - 1).getId();
+        } while (page.size() == EXPORT_PAGE_SIZE);
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(Long id) {
-        Optional<Employee> employee = employeeRepository.findById(id);
+        Optional<Employee> employee = findCurrent(id);
 
         if (employee.isEmpty())
             throw new ResourceNotFoundException("Employee not found with id: " + id);
@@ -47,22 +108,178 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
-    public Optional<Employee> getEmployeeByFirstName(String name) {
-        return employeeRepository.findByFirstName(name);
+    public Optional<Employee> getEmployeeByEmail(String email) {
+        String normalizedEmail = Employee.normalizeEmail(email);
+
+        return fromDirectory(directory -> directory.findByEmail(normalizedEmail))
+                .or(() -> employeeRepository.findByEmail(normalizedEmail));
+    }
+
+    @Override
+    public List<Employee> searchEmployeesByName(String firstName, String lastName) {
+        if (lastName == null)
+            return employeeRepository.findByFirstName(firstName);
+
+        return employeeRepository.findByName(firstName, lastName);
+    }
+
+    /**
+     * Com o diretório carregado, as sugestões vêm da sua árvore de prefixos, sem consulta ao banco, em ordem
+     * alfabética e sem diferenciar maiúsculas de minúsculas. Sem ele, vêm de uma busca por prefixo no banco, em
+     * ordem de id.
+     */
+    @Override
+    public List<Employee> suggestEmployees(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank())
+            return List.of();
+
+        if (employeeDirectory != null && employeeDirectory.isReady())
+            return employeeDirectory.findByPrefix(prefix, limit);
+
+        String pattern = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        return employeeRepository.findByNameOrEmailLike(pattern, Limit.of(limit));
     }
 
+    /**
+     * Copia apenas os campos editáveis (nomes e e-mail) para o funcionário lido, com bloqueio, na mesma transação:
+     * o corpo da requisição não vira um {@code INSERT} nem desfaz uma exclusão concorrente.
+     * <p>
+     * Com a escrita tardia habilitada, a alteração é aceita e gravada no banco, com o seu evento, na próxima
+     * descarga de {@link EmployeeWriteBehind}.
+     *
+     * @throws ResourceNotFoundException se o funcionário não existir ou estiver excluído.
+     */
     @Override
+    @Transactional
     public Employee updateEmployeeById(Employee employee) {
-        return employeeRepository.save(employee);
+        if (employeeWriteBehind != null) {
+            if (findCurrent(employee.getId()).isEmpty())
+                throw new ResourceNotFoundException("Employee not found with id: " + employee.getId());
+
+            return employeeWriteBehind.enqueue(employee);
+        }
+
+        Employee current = employeeRepository.findByIdForUpdate(employee.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employee.getId()));
+
+        current.setFirstName(employee.getFirstName());
+        current.setLastName(employee.getLastName());
+        current.setEmail(Employee.normalizeEmail(employee.getEmail()));
+
+        Employee updatedEmployee = employeeRepository.save(current);
+        employeeOutbox.record(EmployeeEventType.UPDATED, updatedEmployee);
+        refreshDirectoryAfterCommit(updatedEmployee);
+        return updatedEmployee;
     }
 
     @Override
+    @Transactional
     public void deleteEmployee(Long id) {
         Optional<Employee> employee = employeeRepository.findById(id);
 
         if (employee.isEmpty())
             throw new ResourceNotFoundException("Employee not found with id: " + id);
 
-        employeeRepository.delete(employee.get());
+        employee.get().setDeleted(true);
+
+        Employee deletedEmployee = employeeRepository.save(employee.get());
+        employeeOutbox.record(EmployeeEventType.DELETED, deletedEmployee);
+        refreshDirectoryAfterCommit(deletedEmployee);
+
+        if (employeeWriteBehind != null)
+            afterCommit(() -> employeeWriteBehind.discard(id));
+    }
+
+    /**
+     * Só retorna alterações mais antigas que {@code syncSettleTime}: uma transação confirmada com atraso, mas
+     * com {@code updatedAt} anterior a um watermark já entregue, nunca seria sincronizada.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeChangesPage getEmployeeChangesSince(SyncWatermark watermark, int limit) {
+        List<Employee> employees = employeeRepository.findChangedSince(
+                watermark.updatedAt(),
+                watermark.id(),
+                Instant.now().minus(syncSettleTime),
+                limit + 1);
+
+        boolean hasMore = employees.size() > limit;
+
+        if (hasMore)
+            employees = employees.subList(0, limit);
+
+        SyncWatermark next = employees.isEmpty() ? watermark : SyncWatermark.of(employees.get(employees.size() - 1));
+        return new EmployeeChangesPage(employees, next.toString(), hasMore);
+    }
+
+    /**
+     * As três consultas usam apenas índices e, na mesma transação, veem o mesmo estado da tabela.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeStats getEmployeeStats(int top) {
+        return new EmployeeStats(
+                employeeRepository.count(),
+                toGroupCounts(employeeRepository.countByLastName(top)),
+                toGroupCounts(employeeRepository.countByEmailDomain(top)));
+    }
+
+    private static List<EmployeeStats.GroupCount> toGroupCounts(List<EmployeeRepository.GroupCount> rows) {
+        return rows.stream()
+                .map(row -> new EmployeeStats.GroupCount(row.getName(), row.getTotal()))
+                .toList();
+    }
+
+    /**
+     * A alteração ainda não gravada pela escrita tardia, mais nova que o diretório e o banco.
+     */
+    private Optional<Employee> pendingUpdate(Long id) {
+        if (employeeWriteBehind == null)
+            return Optional.empty();
+
+        return employeeWriteBehind.pending(id);
+    }
+
+    /**
+     * Consulta o diretório em memória, quando habilitado e carregado. Um funcionário ausente do diretório ainda
+     * pode existir no banco (incluído por outra instância desde a última sincronização), então a ausência não é
+     * definitiva.
+     */
+    /**
+     * A versão mais recente do funcionário: a alteração pendente da escrita tardia, o diretório ou o banco.
+     */
+    private Optional<Employee> findCurrent(Long id) {
+        return pendingUpdate(id)
+                .or(() -> fromDirectory(directory -> directory.findById(id)))
+                .or(() -> employeeRepository.findById(id));
+    }
+
+    private Optional<Employee> fromDirectory(Function<EmployeeDirectory, Optional<Employee>> lookup) {
+        if (employeeDirectory == null || !employeeDirectory.isReady())
+            return Optional.empty();
+
+        return lookup.apply(employeeDirectory);
+    }
+
+    /**
+     * Aplica a alteração ao diretório só depois do commit, para que ele nunca mostre uma alteração desfeita.
+     */
+    private void refreshDirectoryAfterCommit(Employee employee) {
+        if (employeeDirectory != null)
+            afterCommit(() -> employeeDirectory.apply(employee));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
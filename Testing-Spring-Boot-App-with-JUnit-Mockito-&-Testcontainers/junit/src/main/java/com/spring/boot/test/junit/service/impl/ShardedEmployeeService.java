@@ -0,0 +1,223 @@
+package com.spring.boot.test.junit.service.impl;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.shard.ShardContext;
+import com.spring.boot.test.junit.shard.ShardResolver;
+import com.spring.boot.test.junit.shard.ShardRouter;
+import org.springframework.lang.Nullable;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Encaminha cada operação de {@link EmployeeService} para o shard dos dados, antes de a transação começar.
+ * <p>
+ * Com um tenant na requisição, todas as operações vão para o shard do tenant. Sem tenant, inclusões vão para
+ * o shard do hash do e-mail, operações por id vão para o shard que gerou o id, e listagens, buscas e
+ * sincronização consultam todos os shards e combinam os resultados na ordem que cada shard já devolve.
+ * <p>
+ * A unicidade do e-mail é verificada apenas no shard da inclusão. Sem tenant, o mesmo e-mail sempre leva ao mesmo
+ * shard e a verificação vale para todas as inclusões sem tenant; mas o e-mail de um tenant pode repetir o de outro
+ * tenant, ou o de uma inclusão sem tenant, em outro shard, assim como uma alteração de e-mail, que continua no
+ * shard do id. Verificar em todos os shards custaria uma consulta a cada shard por inclusão e ainda teria corridas
+ * entre os shards, sem uma transação comum; quem precisa do e-mail único entre tenants deve fixá-los no mesmo
+ * shard.
+ */
+public class ShardedEmployeeService implements EmployeeService {
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparing(Employee::getId);
+    private static final Comparator<Employee> BY_WATERMARK = Comparator.comparing(Employee::getUpdatedAt)
+            .thenComparing(Employee::getId);
+
+    private final EmployeeService delegate;
+    private final ShardRouter router;
+    private final ShardResolver resolver;
+    private final EmployeeDirectory employeeDirectory;
+
+    public ShardedEmployeeService(EmployeeService delegate, ShardRouter router,
+                                  @Nullable EmployeeDirectory employeeDirectory) {
+        this.delegate = delegate;
+        this.router = router;
+        this.resolver = router.resolver();
+        this.employeeDirectory = employeeDirectory;
+    }
+
+    /**
+     * O e-mail é único apenas no shard escolhido (veja a descrição da classe).
+     */
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        return router.onShard(shard(() -> resolver.shardForKey(Employee.normalizeEmail(employee.getEmail()))),
+                () -> delegate.saveEmployee(employee));
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        if (ShardContext.current() != null)
+            return delegate.getAllEmployees();
+
+        return router.scatterGather(delegate::getAllEmployees, BY_ID);
+    }
+
+    /**
+     * Percorre um shard de cada vez; a ordem por id vale dentro de cada shard.
+     */
+    @Override
+    public void forEachEmployee(Consumer<Employee> action) {
+        if (ShardContext.current() != null)
+            delegate.forEachEmployee(action);
+        else
+            router.forEachShard(() -> delegate.forEachEmployee(action));
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(Long id) {
+        return router.onShard(shard(() -> resolver.shardForId(id)), () -> delegate.getEmployeeById(id));
+    }
+
+    /**
+     * Sem tenant, o funcionário pode estar no shard do hash do e-mail ou no shard de um tenant: todos os shards
+     * são consultados.
+     */
+    @Override
+    public Optional<Employee> getEmployeeByEmail(String email) {
+        if (ShardContext.current() != null)
+            return delegate.getEmployeeByEmail(email);
+
+        return router.scatter(() -> delegate.getEmployeeByEmail(email)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    @Override
+    public List<Employee> searchEmployeesByName(String firstName, String lastName) {
+        if (ShardContext.current() != null)
+            return delegate.searchEmployeesByName(firstName, lastName);
+
+        return router.scatterGather(() -> delegate.searchEmployeesByName(firstName, lastName), BY_ID);
+    }
+
+    /**
+     * O diretório é um só para todos os shards: carregado, ele é consultado uma única vez, sem passar pelos shards.
+     * Sem ele, cada shard devolve até {@code limit} sugestões do banco, que são combinadas na ordem alfabética da
+     * chave encontrada, sem diferenciar maiúsculas de minúsculas, como as do diretório, e cortadas em
+     * {@code limit}.
+     */
+    @Override
+    public List<Employee> suggestEmployees(String prefix, int limit) {
+        if (ShardContext.current() != null || prefix == null || prefix.isBlank()
+                || (employeeDirectory != null && employeeDirectory.isReady()))
+            return delegate.suggestEmployees(prefix, limit);
+
+        Comparator<Employee> byKey = Comparator.comparing((Employee employee) -> matchedKey(employee, prefix))
+                .thenComparing(BY_ID);
+        List<List<Employee>> sorted = router.scatter(() -> delegate.suggestEmployees(prefix, limit)).stream()
+                .map(suggestions -> suggestions.stream().sorted(byKey).toList())
+                .toList();
+
+        Set<Long> seen = new HashSet<>();
+        return ShardRouter.mergeSorted(sorted, byKey, Integer.MAX_VALUE).stream()
+                .filter(employee -> seen.add(employee.getId()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * A menor chave do funcionário, entre o primeiro nome, o sobrenome e o e-mail em minúsculas, que começa com
+     * {@code prefix}: a mesma sob a qual o diretório o encontraria primeiro.
+     */
+    private static String matchedKey(Employee employee, String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        return Stream.of(employee.getFirstName(), employee.getLastName(), employee.getEmail())
+                .filter(Objects::nonNull)
+                .map(value -> value.toLowerCase(Locale.ROOT))
+                .filter(value -> value.startsWith(lowerPrefix))
+                .min(Comparator.naturalOrder())
+                .orElse("");
+    }
+
+    @Override
+    public Employee updateEmployeeById(Employee employee) {
+        return router.onShard(shard(() -> resolver.shardForId(employee.getId())),
+                () -> delegate.updateEmployeeById(employee));
+    }
+
+    @Override
+    public void deleteEmployee(Long id) {
+        router.onShard(shard(() -> resolver.shardForId(id)), () -> delegate.deleteEmployee(id));
+    }
+
+    /**
+     * O watermark ({@code updatedAt}, {@code id}) é uma ordem total entre todos os shards: a página global é
+     * formada pelos primeiros {@code limit} registros do merge das páginas de cada shard.
+     */
+    @Override
+    public EmployeeChangesPage getEmployeeChangesSince(SyncWatermark watermark, int limit) {
+        if (ShardContext.current() != null)
+            return delegate.getEmployeeChangesSince(watermark, limit);
+
+        List<EmployeeChangesPage> pages = router.scatter(() -> delegate.getEmployeeChangesSince(watermark, limit));
+
+        List<Employee> employees = ShardRouter.mergeSorted(
+                pages.stream().map(EmployeeChangesPage::employees).toList(), BY_WATERMARK, limit);
+
+        int fetched = pages.stream().mapToInt(page -> page.employees().size()).sum();
+        boolean hasMore = fetched > employees.size() || pages.stream().anyMatch(EmployeeChangesPage::hasMore);
+
+        SyncWatermark next = employees.isEmpty() ? watermark : SyncWatermark.of(employees.get(employees.size() - 1));
+        return new EmployeeChangesPage(employees, next.toString(), hasMore);
+    }
+
+    /**
+     * Sem tenant, as contagens dos shards são somadas. Cada shard informa apenas os seus {@code top} valores mais
+     * frequentes, então o resultado é aproximado: um valor fora do top de algum shard não soma a contagem daquele
+     * shard. O total é exato.
+     */
+    @Override
+    public EmployeeStats getEmployeeStats(int top) {
+        if (ShardContext.current() != null)
+            return delegate.getEmployeeStats(top);
+
+        List<EmployeeStats> shards = router.scatter(() -> delegate.getEmployeeStats(top));
+
+        return new EmployeeStats(
+                shards.stream().mapToLong(EmployeeStats::total).sum(),
+                mergeGroupCounts(shards, EmployeeStats::byLastName, top),
+                mergeGroupCounts(shards, EmployeeStats::byEmailDomain, top));
+    }
+
+    private static List<EmployeeStats.GroupCount> mergeGroupCounts(
+            List<EmployeeStats> shards, Function<EmployeeStats, List<EmployeeStats.GroupCount>> groups, int top) {
+        Map<String, Long> counts = new HashMap<>();
+        shards.forEach(stats -> groups.apply(stats)
+                .forEach(group -> counts.merge(group.value(), group.count(), Long::sum)));
+
+        return counts.entrySet().stream()
+                .map(entry -> new EmployeeStats.GroupCount(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(EmployeeStats.GroupCount::count).reversed()
+                        .thenComparing(EmployeeStats.GroupCount::value))
+                .limit(top)
+                .toList();
+    }
+
+    private static int shard(IntSupplier fallback) {
+        Integer current = ShardContext.current();
+        return current != null ? current : fallback.getAsInt();
+    }
+}
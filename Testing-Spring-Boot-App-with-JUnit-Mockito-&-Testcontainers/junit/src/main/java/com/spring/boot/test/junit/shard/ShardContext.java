@@ -0,0 +1,61 @@
+package com.spring.boot.test.junit.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * Guarda o shard da tarefa executada pela thread atual, usado por {@link ShardRoutingDataSource} para escolher
+ * o banco de dados.
+ * <p>
+ * O contexto é propagado para as threads dos bulkheads e do executor assíncrono do Spring MVC por
+ * {@link #decorate(Runnable)}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return O shard da thread atual, ou {@code null} se nenhum shard foi escolhido.
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null)
+            CURRENT.remove();
+        else
+            CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callOn(Integer shard, Supplier<T> task) {
+        Integer previous = CURRENT.get();
+        set(shard);
+        try {
+            return task.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void runOn(Integer shard, Runnable task) {
+        callOn(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Captura o shard da thread que agenda a tarefa e o aplica na thread que a executa.
+     */
+    public static Runnable decorate(Runnable task) {
+        Integer shard = CURRENT.get();
+        return () -> runOn(shard, task);
+    }
+}
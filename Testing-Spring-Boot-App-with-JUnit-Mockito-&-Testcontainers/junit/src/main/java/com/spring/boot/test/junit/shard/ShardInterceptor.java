@@ -0,0 +1,40 @@
+package com.spring.boot.test.junit.shard;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Escolhe o shard da requisição a partir do cabeçalho do tenant. Requisições sem tenant seguem sem shard no
+ * contexto e são encaminhadas por {@code ShardedEmployeeService}.
+ */
+public class ShardInterceptor implements AsyncHandlerInterceptor {
+
+    private final ShardResolver resolver;
+    private final String tenantHeader;
+
+    public ShardInterceptor(ShardResolver resolver, String tenantHeader) {
+        this.resolver = resolver;
+        this.tenantHeader = tenantHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String tenantId = request.getHeader(tenantHeader);
+
+        ShardContext.set(tenantId == null || tenantId.isBlank() ? null : resolver.shardForTenant(tenantId));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ShardContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.spring.boot.test.junit.shard;
+
+import java.util.Map;
+
+/**
+ * Decide em qual shard ficam os dados de um tenant, de uma chave ou de um id.
+ * <p>
+ * Tenants fixados na configuração (os maiores clientes, que ocupam um shard inteiro) vão para o shard
+ * indicado; os demais tenants e as chaves são distribuídos por hash. Os ids de um shard deixam resto igual ao
+ * índice do shard quando subtraídos de um e divididos pelo número de shards, de modo que são únicos entre os
+ * shards e o shard pode ser derivado do próprio id: os funcionários recebem ids de {@link #idFor(long, int)} e
+ * as demais tabelas usam {@code auto_increment_increment} igual ao número de shards e
+ * {@code auto_increment_offset} igual a {@link #autoIncrementOffset(int)}.
+ */
+public class ShardResolver {
+
+    private final int shardCount;
+    private final Map<String, Integer> pinnedTenants;
+
+    public ShardResolver(int shardCount, Map<String, Integer> pinnedTenants) {
+        if (shardCount <= 0)
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+
+        pinnedTenants.forEach((tenant, shard) -> {
+            if (shard < 0 || shard >= shardCount)
+                throw new IllegalArgumentException("tenant " + tenant + " pinned to unknown shard " + shard);
+        });
+
+        this.shardCount = shardCount;
+        this.pinnedTenants = Map.copyOf(pinnedTenants);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForTenant(String tenantId) {
+        Integer pinned = pinnedTenants.get(tenantId);
+        return pinned != null ? pinned : shardForKey(tenantId);
+    }
+
+    public int shardForKey(String key) {
+        // Espalha os bits do hashCode antes do módulo: chaves parecidas não devem cair no mesmo shard
+        int hash = key.hashCode() * 0x9E3779B9;
+        return Math.floorMod(hash ^ (hash >>> 16), shardCount);
+    }
+
+    public int shardForId(long id) {
+        return (int) Long.remainderUnsigned(id - 1, shardCount);
+    }
+
+    /**
+     * Converte um valor do gerador de ids, único dentro do shard, no id gravado no shard.
+     */
+    public long idFor(long value, int shard) {
+        return Math.addExact(Math.multiplyExact(value, (long) shardCount), shard + 1);
+    }
+
+    /**
+     * O {@code auto_increment_offset} do shard, para que {@link #shardForId(long)} encontre o shard de origem.
+     */
+    public int autoIncrementOffset(int shard) {
+        return shard + 1;
+    }
+}
@@ -0,0 +1,118 @@
+package com.spring.boot.test.junit.shard;
+
+import com.spring.boot.test.junit.bulkhead.Bulkhead;
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.bulkhead.TrafficClassContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Executa operações em um shard específico ou em todos os shards.
+ * <p>
+ * Consultas que abrangem todos os shards (scatter-gather) rodam em paralelo no bulkhead da classe de tráfego da
+ * requisição, com a sua fila limitada (veja {@link Bulkhead#invokeAll(List)}): uma varredura em todos os shards
+ * ocupa threads e conexões de varreduras, e não das leituras pontuais. Fora de um bulkhead, os shards são
+ * consultados em sequência. Os resultados parciais, já ordenados por cada shard, são combinados com um merge de
+ * k listas.
+ */
+public class ShardRouter {
+
+    private final ShardResolver resolver;
+    private final Function<TrafficClass, Bulkhead> bulkheads;
+
+    /**
+     * @param bulkheads O bulkhead de cada classe de tráfego, ou {@code null} para as classes sem bulkhead.
+     */
+    public ShardRouter(ShardResolver resolver, Function<TrafficClass, Bulkhead> bulkheads) {
+        this.resolver = resolver;
+        this.bulkheads = bulkheads;
+    }
+
+    public ShardResolver resolver() {
+        return resolver;
+    }
+
+    public <T> T onShard(int shard, Supplier<T> task) {
+        return ShardContext.callOn(shard, task);
+    }
+
+    public void onShard(int shard, Runnable task) {
+        ShardContext.runOn(shard, task);
+    }
+
+    /**
+     * Executa a tarefa em cada shard, um de cada vez.
+     */
+    public void forEachShard(Runnable task) {
+        for (int shard = 0; shard < resolver.shardCount(); shard++)
+            ShardContext.runOn(shard, task);
+    }
+
+    /**
+     * Executa a consulta em todos os shards, em paralelo no bulkhead da classe de tráfego da thread atual.
+     *
+     * @return Os resultados de cada shard, na ordem dos shards.
+     */
+    public <T> List<T> scatter(Supplier<T> query) {
+        List<Supplier<T>> queries = new ArrayList<>(resolver.shardCount());
+
+        for (int shard = 0; shard < resolver.shardCount(); shard++) {
+            int target = shard;
+            queries.add(() -> ShardContext.callOn(target, query));
+        }
+
+        TrafficClass trafficClass = TrafficClassContext.current();
+        Bulkhead bulkhead = trafficClass == null ? null : bulkheads.apply(trafficClass);
+
+        if (bulkhead != null)
+            return bulkhead.invokeAll(queries);
+
+        List<T> results = new ArrayList<>(queries.size());
+        for (Supplier<T> shardQuery : queries)
+            results.add(shardQuery.get());
+        return results;
+    }
+
+    /**
+     * Executa a consulta em todos os shards e combina os resultados, que cada shard devolve ordenados.
+     */
+    public <T> List<T> scatterGather(Supplier<List<T>> query, Comparator<? super T> order) {
+        return mergeSorted(scatter(query), order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Combina listas já ordenadas em uma única lista ordenada, com no máximo {@code limit} elementos.
+     * Para montar a página {@code n} de tamanho {@code s}, basta que cada shard devolva seus primeiros
+     * {@code (n + 1) * s} elementos.
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> sortedLists, Comparator<? super T> order, int limit) {
+        record Cursor<E>(List<E> list, int index) {
+            E head() {
+                return list.get(index);
+            }
+        }
+
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.head(), b.head()));
+        int total = 0;
+        for (List<T> list : sortedLists) {
+            if (!list.isEmpty())
+                heads.add(new Cursor<>(list, 0));
+            total += list.size();
+        }
+
+        List<T> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            merged.add(cursor.head());
+
+            if (cursor.index() + 1 < cursor.list().size())
+                heads.add(new Cursor<>(cursor.list(), cursor.index() + 1));
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,47 @@
+package com.spring.boot.test.junit.shard;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuração do sharding da tabela de funcionários entre bancos de dados.
+ * <p>
+ * A ordem de {@code shards} define o índice de cada shard e não pode mudar depois que houver dados, pois o
+ * shard de um registro é derivado do seu id.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("employee.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    /**
+     * Cabeçalho que identifica o tenant da requisição.
+     */
+    private String tenantHeader = "X-Tenant-Id";
+
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Tenants fixados em um shard, pelo índice do shard.
+     */
+    private Map<String, Integer> tenants = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
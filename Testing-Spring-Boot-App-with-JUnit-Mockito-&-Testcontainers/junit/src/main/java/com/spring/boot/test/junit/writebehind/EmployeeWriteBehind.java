@@ -0,0 +1,307 @@
+package com.spring.boot.test.junit.writebehind;
+
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.bulkhead.TrafficClassContext;
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.exception.InvalidEmployeeException;
+import com.spring.boot.test.junit.exception.WriteBehindFullException;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.outbox.EmployeeOutbox;
+import com.spring.boot.test.junit.repository.JdbcInstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Buffer de escrita tardia das alterações de funcionários, usado por {@code EmployeeServiceImpl} quando
+ * {@code employee.write-behind.enabled=true}.
+ * <p>
+ * Cada alteração é gravada no {@link WriteBehindLog} e guardada em memória, substituindo a alteração pendente do
+ * mesmo id: rajadas de alterações no mesmo funcionário, como as de um job de sincronização, resultam em um único
+ * {@code UPDATE}. A cada {@code employee.write-behind.flush-interval}, ou antes disso quando o buffer chega a
+ * {@code employee.write-behind.max-pending} funcionários, as alterações pendentes são gravadas em lotes JDBC, com
+ * os eventos da outbox, em uma única transação. Se a transação falhar, elas voltam ao buffer, sem sobrescrever
+ * alterações mais novas, e são gravadas na descarga seguinte.
+ * <p>
+ * Enquanto o banco não aceita as descargas, o buffer cresce; ao chegar a {@value #OVERLOAD_FACTOR} vezes
+ * {@code max-pending}, alterações de funcionários que ainda não estão no buffer são recusadas com
+ * {@link WriteBehindFullException}, antes de irem para o log. Alterações de funcionários já pendentes continuam
+ * aceitas, pois substituem a anterior sem aumentar o buffer.
+ * <p>
+ * O {@code UPDATE} ignora funcionários excluídos depois da alteração, que também não geram eventos. Enquanto não
+ * são gravadas, as alterações aparecem apenas nas leituras por id, por {@link #pending(Long)}; buscas, listagens e
+ * a sincronização incremental só as veem depois da descarga.
+ */
+public class EmployeeWriteBehind implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehind.class);
+
+    private static final String UPDATE = "UPDATE employee SET first_name = ?, last_name = ?, email = ?, " +
+            "updated_at = ? WHERE id = ? AND deleted = false";
+
+    /**
+     * O tamanho das colunas de texto da tabela {@code employee}.
+     */
+    private static final int MAX_COLUMN_LENGTH = 50;
+
+    private static final int OVERLOAD_FACTOR = 4;
+
+    private final WriteBehindLog writeLog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeOutbox employeeOutbox;
+    private final EmployeeDirectory employeeDirectory;
+    private final Executor earlyFlushExecutor;
+    private final int maxPending;
+    private final int maxBuffered;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private Map<Long, Employee> pending = new HashMap<>();
+    private Map<Long, Employee> flushing = Map.of();
+    private boolean earlyFlushRequested;
+
+    public EmployeeWriteBehind(WriteBehindLog writeLog,
+                               DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               EmployeeOutbox employeeOutbox,
+                               @Nullable EmployeeDirectory employeeDirectory,
+                               Executor earlyFlushExecutor,
+                               int maxPending,
+                               int batchSize) {
+        this.writeLog = writeLog;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.employeeOutbox = employeeOutbox;
+        this.employeeDirectory = employeeDirectory;
+        this.earlyFlushExecutor = earlyFlushExecutor;
+        this.maxPending = maxPending;
+        this.maxBuffered = OVERLOAD_FACTOR * maxPending;
+        this.batchSize = batchSize;
+        this.pending.putAll(writeLog.recovered());
+    }
+
+    /**
+     * Aceita a alteração depois de gravá-la no log.
+     *
+     * @return Uma cópia do funcionário alterado, com o {@code updatedAt} do momento em que foi aceito; o do banco
+     * será o da descarga.
+     * @throws WriteBehindFullException se o buffer estiver cheio e o funcionário ainda não tiver alteração pendente.
+     */
+    public Employee enqueue(Employee employee) {
+        validate(employee);
+
+        Employee accepted = copy(employee, Instant.now().truncatedTo(ChronoUnit.MICROS));
+        boolean flushEarly;
+
+        synchronized (lock) {
+            // A alteração que falhar em uma descarga volta para pending: o limite conta também a que está em descarga
+            int buffered = pending.size() + flushing.size();
+            if (buffered >= maxBuffered && !pending.containsKey(accepted.getId())
+                    && !flushing.containsKey(accepted.getId()))
+                throw new WriteBehindFullException(buffered);
+
+            try {
+                writeLog.append(accepted);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the write-behind log", e);
+            }
+            pending.put(accepted.getId(), accepted);
+
+            flushEarly = pending.size() >= maxPending && !earlyFlushRequested;
+            earlyFlushRequested |= flushEarly;
+        }
+
+        if (flushEarly)
+            earlyFlushExecutor.execute(this::flush);
+
+        return accepted;
+    }
+
+    /**
+     * A alteração do funcionário ainda não gravada no banco, se houver.
+     */
+    public Optional<Employee> pending(Long id) {
+        synchronized (lock) {
+            Employee employee = pending.get(id);
+            return Optional.ofNullable(employee != null ? employee : flushing.get(id));
+        }
+    }
+
+    /**
+     * Descarta a alteração pendente de um funcionário excluído. Uma alteração já em descarga é ignorada pelo
+     * {@code UPDATE}.
+     */
+    public void discard(Long id) {
+        synchronized (lock) {
+            pending.remove(id);
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return pending.size() + flushing.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${employee.write-behind.flush-interval:PT1S}")
+    public synchronized void flush() {
+        Map<Long, Employee> batch;
+        long segment;
+
+        synchronized (lock) {
+            earlyFlushRequested = false;
+
+            if (pending.isEmpty())
+                return;
+
+            try {
+                segment = writeLog.roll();
+            } catch (IOException e) {
+                log.warn("Could not roll the write-behind log, the pending updates will be retried", e);
+                return;
+            }
+
+            batch = pending;
+            pending = new HashMap<>();
+            flushing = batch;
+        }
+
+        long started = System.nanoTime();
+
+        try {
+            List<Employee> updated = TrafficClassContext.callAs(TrafficClass.WRITE,
+                    () -> transactionTemplate.execute(status -> write(batch.values())));
+
+            if (employeeDirectory != null)
+                updated.forEach(employeeDirectory::apply);
+
+            log.debug("Write-behind flushed {} updates ({} rows) in {} ms", batch.size(), updated.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                batch.forEach(pending::putIfAbsent);
+            }
+            log.warn("Write-behind flush of {} updates failed, they will be retried", batch.size(), e);
+            return;
+        } finally {
+            synchronized (lock) {
+                flushing = Map.of();
+            }
+        }
+
+        try {
+            writeLog.deleteBefore(segment);
+        } catch (IOException e) {
+            log.warn("Could not delete flushed write-behind log segments", e);
+        }
+    }
+
+    /**
+     * Grava o que estiver pendente no encerramento da aplicação; o que não puder ser gravado continua no log.
+     */
+    @Override
+    public void destroy() throws IOException {
+        flush();
+        writeLog.close();
+    }
+
+    private List<Employee> write(Iterable<Employee> employees) {
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        // Sempre na mesma ordem, para que duas instâncias descarregando ao mesmo tempo não entrem em deadlock
+        List<Employee> sorted = new ArrayList<>();
+        employees.forEach(employee -> sorted.add(copy(employee, updatedAt)));
+        sorted.sort(Comparator.comparing(Employee::getId));
+
+        List<Employee> updated = jdbcTemplate.execute((ConnectionCallback<List<Employee>>) connection ->
+                updateBatches(connection, sorted, updatedAt));
+
+        employeeOutbox.recordAll(EmployeeEventType.UPDATED, updated, batchSize);
+        return updated;
+    }
+
+    private List<Employee> updateBatches(Connection connection, List<Employee> employees, Instant updatedAt)
+            throws SQLException {
+        Calendar calendar = JdbcInstants.calendarFor(connection);
+        List<Employee> updated = new ArrayList<>(employees.size());
+
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE)) {
+            for (int from = 0; from < employees.size(); from += batchSize) {
+                List<Employee> chunk = employees.subList(from, Math.min(from + batchSize, employees.size()));
+
+                for (Employee employee : chunk) {
+                    statement.setString(1, employee.getFirstName());
+                    statement.setString(2, employee.getLastName());
+                    statement.setString(3, employee.getEmail());
+                    JdbcInstants.set(statement, 4, updatedAt, calendar);
+                    statement.setLong(5, employee.getId());
+                    statement.addBatch();
+                }
+
+                int[] counts = statement.executeBatch();
+
+                // Zero linhas: o funcionário foi excluído depois da alteração
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (counts[i] != 0)
+                        updated.add(chunk.get(i));
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Uma alteração inválida falharia na descarga e voltaria ao buffer indefinidamente, então é recusada aqui.
+     */
+    private static void validate(Employee employee) {
+        if (employee.getId() == null)
+            throw new InvalidEmployeeException("id is required");
+
+        validate("firstName", employee.getFirstName());
+        validate("lastName", employee.getLastName());
+        validate("email", employee.getEmail());
+    }
+
+    private static void validate(String field, String value) {
+        if (value == null || value.isBlank() || value.length() > MAX_COLUMN_LENGTH)
+            throw new InvalidEmployeeException(field + " must have between 1 and " + MAX_COLUMN_LENGTH + " characters");
+    }
+
+    /**
+     * O {@code UPDATE} em JDBC não passa pelos callbacks da entidade, então o e-mail é normalizado aqui.
+     */
+    private static Employee copy(Employee employee, Instant updatedAt) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(Employee.normalizeEmail(employee.getEmail()))
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,212 @@
+package com.spring.boot.test.junit.writebehind;
+
+import com.spring.boot.test.junit.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log local, somente de inclusão, das alterações aceitas por {@link EmployeeWriteBehind} e ainda não gravadas no
+ * banco, para que um encerramento abrupto da aplicação não as perca.
+ * <p>
+ * O log é dividido em segmentos {@code segment-<n>.log}, numerados em ordem crescente, e apenas o último recebe
+ * registros. A cada descarga, {@link #roll()} fecha o segmento atual e abre o seguinte; depois do commit, os
+ * segmentos anteriores ao novo são apagados por {@link #deleteBefore(long)}. Cada registro tem o tamanho e o
+ * CRC32C do conteúdo, seguidos do id, do nome, do sobrenome e do e-mail.
+ * <p>
+ * Na abertura, os segmentos existentes são lidos em ordem e a última alteração de cada id prevalece. Um registro
+ * incompleto ou corrompido encerra a leitura do seu segmento: é a cauda de uma gravação interrompida.
+ * <p>
+ * Com {@code sync}, cada registro é forçado para o disco antes de a alteração ser aceita, o que sobrevive também
+ * a uma queda do sistema operacional, ao custo de um {@code fsync} por alteração. Sem ele, o registro fica no cache
+ * de páginas do sistema e sobrevive apenas à queda do processo.
+ */
+public class WriteBehindLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindLog.class);
+
+    private static final Pattern SEGMENT = Pattern.compile("segment-(\\d+)\\.log");
+
+    private static final int HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final boolean sync;
+    private final Map<Long, Employee> recovered;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream output = new DataOutputStream(buffer);
+    private final CRC32C crc = new CRC32C();
+
+    private long segment;
+    private FileChannel channel;
+
+    public WriteBehindLog(Path directory, boolean sync) throws IOException {
+        this.directory = directory;
+        this.sync = sync;
+
+        Files.createDirectories(directory);
+
+        List<Long> segments = segments();
+        this.recovered = new LinkedHashMap<>();
+        for (long existing : segments)
+            read(existing, recovered);
+
+        this.segment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1;
+        this.channel = open(segment);
+    }
+
+    /**
+     * As alterações lidas dos segmentos existentes na abertura, que ainda precisam ser gravadas no banco.
+     */
+    public Map<Long, Employee> recovered() {
+        return recovered;
+    }
+
+    public synchronized void append(Employee employee) throws IOException {
+        buffer.reset();
+        output.writeLong(employee.getId());
+        output.writeUTF(employee.getFirstName());
+        output.writeUTF(employee.getLastName());
+        output.writeUTF(employee.getEmail());
+
+        crc.reset();
+        crc.update(buffer.toByteArray());
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + buffer.size())
+                .putInt(buffer.size())
+                .putInt((int) crc.getValue())
+                .put(buffer.toByteArray())
+                .flip();
+
+        while (record.hasRemaining())
+            channel.write(record);
+
+        if (sync)
+            channel.force(false);
+    }
+
+    /**
+     * Fecha o segmento atual e passa a gravar no seguinte.
+     *
+     * @return O número do novo segmento; os anteriores contêm apenas as alterações já retiradas do buffer.
+     */
+    public synchronized long roll() throws IOException {
+        FileChannel next = open(segment + 1);
+        channel.close();
+        channel = next;
+        return ++segment;
+    }
+
+    /**
+     * Apaga os segmentos anteriores a {@code segment}, cujas alterações já foram confirmadas no banco.
+     */
+    public void deleteBefore(long segment) throws IOException {
+        for (long existing : segments()) {
+            if (existing < segment)
+                Files.deleteIfExists(path(existing));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(file -> SEGMENT.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void read(long segment, Map<Long, Employee> employees) throws IOException {
+        Path file = path(segment);
+        int records = 0;
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                Employee employee = readRecord(input);
+                if (employee == null)
+                    break;
+
+                employees.remove(employee.getId());
+                employees.put(employee.getId(), employee);
+                records++;
+            }
+        }
+
+        log.info("Write-behind log {} recovered {} pending updates", file, records);
+    }
+
+    private Employee readRecord(DataInputStream input) throws IOException {
+        try {
+            int length = input.readInt();
+            int checksum = input.readInt();
+
+            if (length <= 0 || length > 1 << 20)
+                return torn();
+
+            byte[] content = input.readNBytes(length);
+            if (content.length < length)
+                return torn();
+
+            crc.reset();
+            crc.update(content);
+            if ((int) crc.getValue() != checksum)
+                return torn();
+
+            return decode(new ByteArrayInputStream(content));
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static Employee decode(InputStream content) throws IOException {
+        DataInputStream data = new DataInputStream(content);
+
+        return Employee.builder()
+                .id(data.readLong())
+                .firstName(data.readUTF())
+                .lastName(data.readUTF())
+                .email(data.readUTF())
+                .build();
+    }
+
+    private static Employee torn() {
+        log.warn("Write-behind log ends with an incomplete record, which was ignored");
+        return null;
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(path(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path path(long segment) {
+        return directory.resolve("segment-" + segment + ".log");
+    }
+}
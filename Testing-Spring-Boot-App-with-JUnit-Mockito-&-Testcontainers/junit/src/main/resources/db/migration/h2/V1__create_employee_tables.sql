@@ -0,0 +1,35 @@
+-- Mesmo esquema de db/migration/mysql, para os testes com H2.
+
+CREATE TABLE IF NOT EXISTS employee
+(
+	id         BIGINT       NOT NULL,
+	first_name VARCHAR(255) NOT NULL,
+	last_name  VARCHAR(255) NOT NULL,
+	email      VARCHAR(255) NOT NULL,
+	updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+	deleted    BOOLEAN      NOT NULL DEFAULT FALSE,
+	CONSTRAINT pk_employee PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_employee_name ON employee (first_name, last_name);
+CREATE INDEX IF NOT EXISTS idx_employee_updated_at_id ON employee (updated_at, id);
+
+CREATE TABLE IF NOT EXISTS employee_id_block
+(
+	name       VARCHAR(64) NOT NULL,
+	next_block BIGINT      NOT NULL,
+	CONSTRAINT pk_employee_id_block PRIMARY KEY (name)
+);
+
+CREATE TABLE IF NOT EXISTS employee_outbox
+(
+	id           BIGINT AUTO_INCREMENT NOT NULL,
+	event_type   VARCHAR(16)           NOT NULL,
+	employee_id  BIGINT                NOT NULL,
+	payload      VARCHAR(65535)        NOT NULL,
+	created_at   TIMESTAMP(6)          NOT NULL,
+	published_at TIMESTAMP(6)          NULL,
+	CONSTRAINT pk_employee_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_employee_outbox_published_at ON employee_outbox (published_at, id);
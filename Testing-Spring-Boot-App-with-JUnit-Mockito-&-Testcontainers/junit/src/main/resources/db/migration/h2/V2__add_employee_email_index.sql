@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_employee_email ON employee (email);
@@ -0,0 +1,5 @@
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS email_domain VARCHAR(255)
+	GENERATED ALWAYS AS (LOWER(SUBSTRING(email, LOCATE('@', email) + 1)));
+
+CREATE INDEX IF NOT EXISTS idx_employee_deleted_last_name ON employee (deleted, last_name);
+CREATE INDEX IF NOT EXISTS idx_employee_deleted_email_domain ON employee (deleted, email_domain);
@@ -0,0 +1,4 @@
+UPDATE employee
+SET email      = LOWER(email),
+	updated_at = CURRENT_TIMESTAMP(6)
+WHERE email <> LOWER(email);
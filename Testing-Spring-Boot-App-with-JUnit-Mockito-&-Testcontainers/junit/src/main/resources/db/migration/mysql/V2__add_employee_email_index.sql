@@ -0,0 +1,8 @@
+-- Índice das buscas por e-mail (findByEmail e a verificação de e-mail duplicado).
+-- Alterações em tabelas grandes declaram ALGORITHM=INPLACE, LOCK=NONE: leituras e escritas continuam durante a
+-- criação do índice e, se o MySQL não conseguir executar a alteração sem bloquear a tabela, a migração falha em
+-- vez de bloqueá-la.
+
+ALTER TABLE employee
+	ADD INDEX idx_employee_email (email),
+	ALGORITHM = INPLACE, LOCK = NONE;
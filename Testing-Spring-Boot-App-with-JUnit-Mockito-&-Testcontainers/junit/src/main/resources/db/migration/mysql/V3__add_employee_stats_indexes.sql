@@ -0,0 +1,12 @@
+-- Índices das contagens de GET /api/v1/employee/stats, agrupadas por sobrenome e por domínio de e-mail sem ler as
+-- linhas da tabela. O domínio é uma coluna gerada virtual: o valor fica apenas no índice, e a coluna é adicionada
+-- sem reconstruir a tabela. As duas alterações são online, como as de V2.
+
+ALTER TABLE employee
+	ADD COLUMN email_domain VARCHAR(255) AS (LOWER(SUBSTRING_INDEX(email, '@', -1))) VIRTUAL,
+	ALGORITHM = INPLACE, LOCK = NONE;
+
+ALTER TABLE employee
+	ADD INDEX idx_employee_deleted_last_name (deleted, last_name),
+	ADD INDEX idx_employee_deleted_email_domain (deleted, email_domain),
+	ALGORITHM = INPLACE, LOCK = NONE;
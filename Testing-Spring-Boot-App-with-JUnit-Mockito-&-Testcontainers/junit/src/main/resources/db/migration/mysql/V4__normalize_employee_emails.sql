@@ -0,0 +1,8 @@
+-- E-mails gravados antes da normalização (Employee.normalizeEmail) passam para minúsculas. A comparação é binária
+-- porque a colação padrão da coluna não diferencia maiúsculas de minúsculas; o updated_at avança para que os
+-- clientes da sincronização recebam o e-mail novo.
+
+UPDATE employee
+SET email      = LOWER(email),
+	updated_at = CURRENT_TIMESTAMP(6)
+WHERE CAST(email AS BINARY) <> CAST(LOWER(email) AS BINARY);
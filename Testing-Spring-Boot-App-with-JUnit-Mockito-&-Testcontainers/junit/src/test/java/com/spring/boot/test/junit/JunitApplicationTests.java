@@ -1,9 +1,11 @@
 package com.spring.boot.test.junit;
 
+import com.spring.boot.test.junit.support.MySQLIntegrationTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 @SpringBootTest
+@MySQLIntegrationTest
 class JunitApplicationTests {
 
 	@Test
@@ -0,0 +1,139 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.spring.boot.test.junit.JunitApplication;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.support.EmployeeBulkLoader;
+import com.spring.boot.test.junit.support.EmployeeDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compara os handlers assíncronos do {@code EmployeeController}, que executam o serviço pelo
+ * {@code AsyncEmployeeService}, com handlers síncronos equivalentes, que chamam o {@link EmployeeService} na
+ * própria thread do Tomcat.
+ * <p>
+ * A aplicação sobe com o H2 do perfil {@code h2}, {@link #EMPLOYEES} funcionários e apenas
+ * {@link #TOMCAT_THREADS} threads no Tomcat. Dezesseis threads pedem a listagem completa e quatro fazem leituras
+ * por id. No modo {@code sync}, as listagens ocupam as threads do Tomcat e as leituras esperam na fila de conexões
+ * do servidor. No modo {@code async}, as threads do Tomcat só despacham as requisições: as listagens ficam no
+ * bulkhead de varreduras, e as excedentes recebem 503. Em {@code Mode.SampleTime}, o JMH reporta o p99 de
+ * {@code pointRead} nos dois modos.
+ * <p>
+ * Os handlers síncronos são registrados como funções de rota, e não como um {@code @RestController}, para que a
+ * varredura de componentes dos testes não os encontre.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AsyncHandlerBenchmark {
+
+    private static final long EMPLOYEES = Long.getLong("perf.employees", 20_000);
+    private static final long FIRST_ID = 1;
+    private static final int TOMCAT_THREADS = 8;
+    private static final long REJECTED_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private ConfigurableApplicationContext context;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        SpringApplication application = new SpringApplication(JunitApplication.class);
+        application.addInitializers(context -> ((GenericApplicationContext) context)
+                .registerBean("syncEmployeeRoutes", RouterFunction.class, () -> syncRoutes(context.getBean(EmployeeService.class))));
+
+        context = application.run(
+                "--spring.profiles.active=h2",
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--employee.rate-limit.enabled=false");
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + ("sync".equals(mode) ? "/sync/api/v1/employee" : "/api/v1/employee");
+
+        new EmployeeBulkLoader(context.getBean(DataSource.class))
+                .load(new EmployeeDataGenerator(42).withFirstId(FIRST_ID), EMPLOYEES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(16)
+    public int scan() throws IOException, InterruptedException {
+        int status = get(baseUrl);
+
+        // Listagem rejeitada pelo bulkhead: o cliente tenta de novo depois
+        if (status == 503)
+            LockSupport.parkNanos(REJECTED_BACKOFF_NANOS);
+
+        return status;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public int pointRead() throws IOException, InterruptedException {
+        int status = get(baseUrl + "/" + (FIRST_ID + ThreadLocalRandom.current().nextLong(EMPLOYEES)));
+
+        if (status != 200)
+            throw new IllegalStateException("unexpected status " + status);
+
+        return status;
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    private static RouterFunction<ServerResponse> syncRoutes(EmployeeService employeeService) {
+        return RouterFunctions.route()
+                .GET("/sync/api/v1/employee", request -> ServerResponse.ok().body(employeeService.getAllEmployees()))
+                .GET("/sync/api/v1/employee/{id}", request -> employeeService
+                        .getEmployeeById(Long.valueOf(request.pathVariable("id")))
+                        .map(employee -> ServerResponse.ok().body(employee))
+                        .orElseGet(() -> ServerResponse.notFound().build()))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AsyncHandlerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.spring.boot.test.junit.bulkhead.Bulkhead;
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga das leituras pontuais enquanto varreduras saturam o serviço.
+ * <p>
+ * Dezesseis threads disparam varreduras de 50 ms e quatro threads disparam leituras pontuais de 1 ms; cada
+ * operação ocupa uma "conexão" de um pool simulado por um {@link Semaphore}. Com {@code shared}, as duas
+ * classes dividem o mesmo executor e o mesmo pool, como hoje com o Tomcat e o Hikari; com {@code isolated},
+ * cada classe tem o seu {@link Bulkhead} e o seu pool. Em {@code Mode.SampleTime} o JMH reporta os
+ * percentis: no modo isolado o p99 de {@code pointRead} fica próximo de 1 ms, enquanto as varreduras
+ * excedentes são rejeitadas pelo próprio bulkhead.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BulkheadBenchmark {
+
+    private static final long SCAN_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long POINT_READ_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Param({"shared", "isolated"})
+    private String mode;
+
+    private Bulkhead bulkExecutor;
+    private Bulkhead pointExecutor;
+    private Semaphore bulkConnections;
+    private Semaphore pointConnections;
+
+    @Setup
+    public void setUp() {
+        if ("shared".equals(mode)) {
+            bulkExecutor = pointExecutor = new Bulkhead(TrafficClass.POINT, 8, 1000, Duration.ofMinutes(1));
+            bulkConnections = pointConnections = new Semaphore(8);
+        } else {
+            bulkExecutor = new Bulkhead(TrafficClass.BULK, 2, 4, Duration.ofMinutes(1));
+            pointExecutor = new Bulkhead(TrafficClass.POINT, 6, 1000, Duration.ofMinutes(1));
+            bulkConnections = new Semaphore(2);
+            pointConnections = new Semaphore(6);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        bulkExecutor.shutdown();
+        pointExecutor.shutdown();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(16)
+    public boolean scan() {
+        try {
+            return bulkExecutor.submit(() -> query(bulkConnections, SCAN_NANOS)).join();
+        } catch (CompletionException e) {
+            // Varredura rejeitada pelo bulkhead: a resposta seria um 503 imediato, e o cliente tenta de novo depois
+            LockSupport.parkNanos(SCAN_NANOS);
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public boolean pointRead() {
+        return pointExecutor.submit(() -> query(pointConnections, POINT_READ_NANOS)).join();
+    }
+
+    private static boolean query(Semaphore connections, long nanos) {
+        connections.acquireUninterruptibly();
+        try {
+            LockSupport.parkNanos(nanos);
+            return true;
+        } finally {
+            connections.release();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BulkheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
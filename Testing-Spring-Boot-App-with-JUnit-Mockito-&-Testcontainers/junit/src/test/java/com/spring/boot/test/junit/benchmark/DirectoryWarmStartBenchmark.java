@@ -0,0 +1,83 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.directory.EmployeeDirectorySnapshot;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o tempo até o {@link EmployeeDirectory} estar pronto na inicialização: restaurando o snapshot mapeado
+ * em memória ou reconstruindo o diretório a partir das entidades.
+ * <p>
+ * A reconstrução recebe as entidades já materializadas, então o resultado não inclui a consulta ao MySQL, a
+ * transferência pela rede nem a criação das entidades pelo Hibernate, que dominam a carga real pelo
+ * {@code findAll()}; ela é o limite inferior da carga a partir do banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DirectoryWarmStartBenchmark {
+
+    @Param({"1000000"})
+    private int employees;
+
+    private List<Employee> entities;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        entities = new ArrayList<>(employees);
+        Instant now = Instant.now();
+
+        for (long id = 1; id <= employees; id++) {
+            entities.add(Employee.builder()
+                    .id(id)
+                    .firstName("first" + id % 5000)
+                    .lastName("last" + id % 7000)
+                    .email("employee" + id + "@example.com")
+                    .updatedAt(now)
+                    .build());
+        }
+
+        snapshot = Files.createTempFile("employee-directory", ".snapshot");
+        EmployeeDirectorySnapshot.write(snapshot, rebuildFromEntities(), SyncWatermark.INITIAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public EmployeeDirectory restoreSnapshot() throws IOException {
+        return EmployeeDirectorySnapshot.read(snapshot).orElseThrow().directory();
+    }
+
+    @Benchmark
+    public EmployeeDirectory rebuildFromEntities() {
+        EmployeeDirectory directory = new EmployeeDirectory(employees);
+        entities.forEach(directory::apply);
+        return directory;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DirectoryWarmStartBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.boot.test.junit.JunitApplication;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.support.EmployeeBulkLoader;
+import com.spring.boot.test.junit.support.EmployeeDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suíte de desempenho verificada pelo {@link PerformanceGate} no perfil Maven {@code perf}: as operações do
+ * {@code EmployeeServiceImpl} e as rotas do {@code EmployeeController} mais usadas, com a aplicação completa
+ * sobre o H2 do perfil {@code h2} e sem limitação de requisições.
+ * <p>
+ * Cada benchmark é medido em vazão e em {@code Mode.SampleTime}, de onde vem o p99. As escritas passam pela
+ * outbox e pelas consultas de verificação do serviço, de modo que um {@code SELECT} a mais em uma alteração ou
+ * exclusão aparece como queda de vazão.
+ * <p>
+ * A tabela é populada pelo {@link EmployeeDataGenerator}; o número de funcionários pode ser alterado com
+ * {@code -Dperf.employees}, e a baseline só é comparável com o mesmo número.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class EmployeePerformanceBenchmark {
+
+    static final long DEFAULT_EMPLOYEES = 1_000;
+
+    private static final long EMPLOYEES = Long.getLong("perf.employees", DEFAULT_EMPLOYEES);
+    private static final long FIRST_ID = 1;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private ObjectMapper objectMapper;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        context = SpringApplication.run(JunitApplication.class,
+                "--spring.profiles.active=h2",
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--employee.rate-limit.enabled=false");
+
+        employeeService = context.getBean(EmployeeService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                + "/api/v1/employee/";
+
+        new EmployeeBulkLoader(context.getBean(DataSource.class))
+                .load(new EmployeeDataGenerator(42).withFirstId(FIRST_ID), EMPLOYEES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee serviceGetById() {
+        return employeeService.getEmployeeById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public Employee serviceUpdate() {
+        Employee employee = employeeService.getEmployeeById(randomId()).orElseThrow();
+        employee.setLastName("Updated" + sequence.incrementAndGet());
+        return employeeService.updateEmployeeById(employee);
+    }
+
+    @Benchmark
+    public void serviceSaveAndDelete() {
+        employeeService.deleteEmployee(employeeService.saveEmployee(newEmployee()).getId());
+    }
+
+    @Benchmark
+    public int httpGetById() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + randomId())).GET());
+    }
+
+    @Benchmark
+    public int httpUpdate() throws IOException, InterruptedException {
+        long id = randomId();
+        Employee employee = Employee.builder()
+                .firstName("Performance")
+                .lastName("Updated" + sequence.incrementAndGet())
+                .email("updated" + id + "@example.com")
+                .build();
+
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(employee))));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+
+        if (response.statusCode() != 200)
+            throw new IllegalStateException("unexpected status " + response.statusCode());
+
+        return response.statusCode();
+    }
+
+    private long randomId() {
+        return FIRST_ID + ThreadLocalRandom.current().nextLong(EMPLOYEES);
+    }
+
+    private Employee newEmployee() {
+        long n = sequence.incrementAndGet();
+
+        return Employee.builder()
+                .firstName("Performance")
+                .lastName("Employee" + n)
+                .email("perf" + n + "@example.com")
+                .build();
+    }
+}
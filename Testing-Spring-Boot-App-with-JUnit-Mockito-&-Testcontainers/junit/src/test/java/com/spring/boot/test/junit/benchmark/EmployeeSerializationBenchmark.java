@@ -0,0 +1,78 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.spring.boot.test.junit.json.EmployeeJsonSerializer;
+import com.spring.boot.test.junit.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o custo de CPU de serializar uma lista de 1.000 funcionários com o {@code BeanSerializer}
+ * reflexivo do Jackson e com o {@link EmployeeJsonSerializer}, ambos usando um {@link ObjectWriter}
+ * reutilizado entre as chamadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeSerializationBenchmark {
+
+    @Param({"1000"})
+    private int employees;
+
+    private List<Employee> list;
+    private ObjectWriter reflectiveWriter;
+    private ObjectWriter handWrittenWriter;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>(employees);
+
+        for (long i = 1; i <= employees; i++) {
+            list.add(Employee.builder()
+                    .id(i)
+                    .firstName("Vinícius" + (i % 97))
+                    .lastName("Andrade" + (i % 89))
+                    .email("employee" + i + "@example.com")
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+
+        ObjectMapper reflectiveMapper = new ObjectMapper().findAndRegisterModules();
+        reflectiveWriter = reflectiveMapper
+                .writerFor(reflectiveMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+
+        ObjectMapper handWrittenMapper = new ObjectMapper().findAndRegisterModules()
+                .registerModule(new SimpleModule().addSerializer(new EmployeeJsonSerializer()));
+        handWrittenWriter = handWrittenMapper
+                .writerFor(handWrittenMapper.getTypeFactory().constructCollectionType(List.class, Employee.class));
+    }
+
+    @Benchmark
+    public byte[] beanSerializer() throws IOException {
+        return reflectiveWriter.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] handWrittenSerializer() throws IOException {
+        return handWrittenWriter.writeValueAsBytes(list);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmployeeSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,148 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.spring.boot.test.junit.id.HiLoIdGenerator;
+import com.spring.boot.test.junit.id.IdGenerator;
+import com.spring.boot.test.junit.id.JdbcIdBlockSource;
+import com.spring.boot.test.junit.id.SnowflakeIdGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a vazão de inclusões de funcionários em transações de {@value #BATCH} linhas, contra um MySQL em
+ * Testcontainer, com o driver configurado como no perfil {@code production}.
+ * <p>
+ * {@code identity} reproduz o que o Hibernate faz com {@code GenerationType.IDENTITY}: um {@code INSERT} por
+ * linha, seguido da leitura da chave gerada, sem lotes JDBC. {@code snowflake} e {@code hilo} atribuem os ids
+ * antes do {@code INSERT} e enviam as linhas num único lote, como o Hibernate faz com
+ * {@code hibernate.jdbc.batch_size}. Cada operação corresponde a {@value #BATCH} inclusões.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int BATCH = 50;
+
+    private static final String INSERT_IDENTITY = "INSERT INTO employee (first_name, last_name, email) VALUES (?, ?, ?)";
+    private static final String INSERT_ASSIGNED = "INSERT INTO employee (id, first_name, last_name, email) VALUES (?, ?, ?, ?)";
+
+    @Param({"identity", "snowflake", "hilo"})
+    private String strategy;
+
+    private MySQLContainer<?> mysql;
+    private HikariDataSource dataSource;
+    private IdGenerator generator;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mysql = new MySQLContainer<>("mysql:8.0").withDatabaseName("db_employee_junit");
+        mysql.start();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(mysql.getJdbcUrl());
+        config.setUsername(mysql.getUsername());
+        config.setPassword(mysql.getPassword());
+        config.setMaximumPoolSize(4);
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE employee (" +
+                    "id BIGINT UNSIGNED " + ("identity".equals(strategy) ? "AUTO_INCREMENT " : "") + "PRIMARY KEY, " +
+                    "first_name VARCHAR(50) NOT NULL, " +
+                    "last_name VARCHAR(50) NOT NULL, " +
+                    "email VARCHAR(50) NOT NULL, " +
+                    "updated_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6), " +
+                    "deleted BOOLEAN NOT NULL DEFAULT FALSE)");
+            statement.execute("CREATE TABLE employee_id_block (" +
+                    "name VARCHAR(64) PRIMARY KEY, " +
+                    "next_block BIGINT UNSIGNED NOT NULL)");
+        }
+
+        generator = switch (strategy) {
+            case "snowflake" -> new SnowflakeIdGenerator(0);
+            case "hilo" -> new HiLoIdGenerator(new JdbcIdBlockSource(dataSource, "employee"), 1000);
+            default -> null;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public void insertBatch(Blackhole blackhole) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+
+            if (generator == null)
+                insertOneByOne(connection, blackhole);
+            else
+                insertAssigned(connection, blackhole);
+
+            connection.commit();
+        }
+    }
+
+    private void insertOneByOne(Connection connection, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_IDENTITY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < BATCH; i++) {
+                bind(insert, 1, ++sequence);
+                insert.executeUpdate();
+
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    blackhole.consume(keys.getLong(1));
+                }
+            }
+        }
+    }
+
+    private void insertAssigned(Connection connection, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_ASSIGNED)) {
+            for (int i = 0; i < BATCH; i++) {
+                // Um único shard: o id é o valor do gerador mais um, como em ShardResolver#idFor
+                long id = generator.nextValue(0) + 1;
+                insert.setLong(1, id);
+                bind(insert, 2, ++sequence);
+                insert.addBatch();
+                blackhole.consume(id);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement insert, int firstIndex, long sequence) throws SQLException {
+        insert.setString(firstIndex, "first" + sequence);
+        insert.setString(firstIndex + 1, "last" + sequence);
+        insert.setString(firstIndex + 2, "employee" + sequence + "@example.com");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IdGenerationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executa a suíte de desempenho e a compara com a baseline versionada, falhando quando a vazão cai ou o p99
+ * sobe além da tolerância. Chamado pelo perfil Maven {@code perf}; as opções são propriedades de sistema:
+ * <ul>
+ *     <li>{@code perf.include}: expressão regular dos benchmarks executados;</li>
+ *     <li>{@code perf.baseline}: o arquivo da baseline;</li>
+ *     <li>{@code perf.report}: o relatório em JSON, gravado mesmo quando há regressão;</li>
+ *     <li>{@code perf.throughput-tolerance} e {@code perf.p99-tolerance}: a piora relativa aceita;</li>
+ *     <li>{@code perf.update-baseline}: grava os resultados como a nova baseline em vez de compará-los.</li>
+ * </ul>
+ * Benchmarks sem baseline aparecem no relatório, mas não falham a verificação. A baseline só é comparável com
+ * resultados da mesma máquina e do mesmo {@code perf.employees}: ela registra o {@link Environment} em que foi
+ * gerada, e a verificação se recusa a comparar resultados de outro ambiente, em vez de acusar ou esconder uma
+ * regressão que vem só da diferença entre as máquinas.
+ */
+public class PerformanceGate {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * O resultado de um benchmark.
+     *
+     * @param throughput Operações por milissegundo.
+     * @param p99        O percentil 99 da duração de uma operação, em milissegundos.
+     */
+    public record Measurement(double throughput, double p99) {
+    }
+
+    /**
+     * A comparação de um benchmark com a baseline; {@code baseline} é nulo para benchmarks novos.
+     */
+    public record Comparison(String benchmark, Measurement baseline, Measurement current,
+                             double throughputChange, double p99Change, boolean regressed) {
+    }
+
+    /**
+     * O ambiente de uma execução: a máquina, a JVM e o número de funcionários da tabela.
+     */
+    public record Environment(String os, String arch, int processors, long maxMemoryMb, String jvm, long employees) {
+
+        static Environment current() {
+            return new Environment(
+                    System.getProperty("os.name"),
+                    System.getProperty("os.arch"),
+                    Runtime.getRuntime().availableProcessors(),
+                    Runtime.getRuntime().maxMemory() / (1024 * 1024),
+                    System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"),
+                    Long.getLong("perf.employees", EmployeePerformanceBenchmark.DEFAULT_EMPLOYEES));
+        }
+    }
+
+    /**
+     * O conteúdo do arquivo da baseline: o ambiente em que ela foi gerada e o resultado de cada benchmark.
+     */
+    public record Baseline(Environment environment, Map<String, Measurement> benchmarks) {
+    }
+
+    public record Report(double throughputTolerance, double p99Tolerance, boolean regressed,
+                         List<Comparison> benchmarks) {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path baselineFile = Path.of(System.getProperty("perf.baseline", "src/test/resources/perf/baseline.json"));
+        Path reportFile = Path.of(System.getProperty("perf.report", "target/perf/report.json"));
+        Path jmhResultFile = reportFile.resolveSibling("jmh-result.json");
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(System.getProperty("perf.include", EmployeePerformanceBenchmark.class.getSimpleName()))
+                .resultFormat(ResultFormatType.JSON)
+                .result(jmhResultFile.toString())
+                .build()).run();
+
+        Map<String, Measurement> current = measurements(results);
+        Environment environment = Environment.current();
+
+        if (Boolean.getBoolean("perf.update-baseline")) {
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            MAPPER.writeValue(baselineFile.toFile(), new Baseline(environment, new TreeMap<>(current)));
+            System.out.println("Performance baseline written to " + baselineFile);
+            return;
+        }
+
+        Map<String, Measurement> baseline = Map.of();
+        if (Files.exists(baselineFile)) {
+            Baseline stored = MAPPER.readValue(baselineFile.toFile(), Baseline.class);
+            checkComparable(stored.environment(), environment);
+            baseline = stored.benchmarks();
+        }
+
+        Report report = compare(baseline, current,
+                Double.parseDouble(System.getProperty("perf.throughput-tolerance", "0.10")),
+                Double.parseDouble(System.getProperty("perf.p99-tolerance", "0.25")));
+
+        MAPPER.writeValue(reportFile.toFile(), report);
+
+        for (Comparison comparison : report.benchmarks())
+            System.out.printf("%-60s throughput %+7.1f%%  p99 %+7.1f%%  %s%n", comparison.benchmark(),
+                    comparison.throughputChange() * 100, comparison.p99Change() * 100,
+                    comparison.baseline() == null ? "NEW" : comparison.regressed() ? "REGRESSED" : "OK");
+
+        if (report.regressed()) {
+            System.err.println("Performance regression detected; see " + reportFile);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException se a baseline foi gerada em outro ambiente.
+     */
+    static void checkComparable(Environment baseline, Environment current) {
+        if (!current.equals(baseline))
+            throw new IllegalStateException("Performance baseline was recorded on " + baseline + " but this run is on "
+                    + current + "; regenerate it here with -Dperf.update-baseline=true");
+    }
+
+    static Report compare(Map<String, Measurement> baseline, Map<String, Measurement> current,
+                          double throughputTolerance, double p99Tolerance) {
+        List<Comparison> comparisons = new ArrayList<>();
+        boolean regressed = false;
+
+        for (Map.Entry<String, Measurement> entry : new TreeMap<>(current).entrySet()) {
+            Measurement before = baseline.get(entry.getKey());
+            Measurement after = entry.getValue();
+
+            if (before == null) {
+                comparisons.add(new Comparison(entry.getKey(), null, after, 0, 0, false));
+                continue;
+            }
+
+            double throughputChange = after.throughput() / before.throughput() - 1;
+            double p99Change = after.p99() / before.p99() - 1;
+            boolean benchmarkRegressed = throughputChange < -throughputTolerance || p99Change > p99Tolerance;
+
+            comparisons.add(new Comparison(entry.getKey(), before, after, throughputChange, p99Change, benchmarkRegressed));
+            regressed |= benchmarkRegressed;
+        }
+        return new Report(throughputTolerance, p99Tolerance, regressed, comparisons);
+    }
+
+    /**
+     * Junta os resultados de vazão e de {@code SampleTime} de cada benchmark, identificado pelo nome da classe e
+     * do método e pelos parâmetros, se houver.
+     */
+    private static Map<String, Measurement> measurements(Collection<RunResult> results) {
+        Map<String, Double> throughput = new TreeMap<>();
+        Map<String, Double> p99 = new TreeMap<>();
+
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+
+            for (String param : result.getParams().getParamsKeys())
+                name += ":" + param + "=" + result.getParams().getParam(param);
+
+            if (result.getParams().getMode() == Mode.Throughput)
+                throughput.put(name, result.getPrimaryResult().getScore());
+            else if (result.getParams().getMode() == Mode.SampleTime)
+                p99.put(name, result.getPrimaryResult().getStatistics().getPercentile(99));
+        }
+
+        Map<String, Measurement> measurements = new TreeMap<>();
+        throughput.forEach((name, value) -> {
+            if (p99.containsKey(name))
+                measurements.put(name, new Measurement(value, p99.get(name)));
+        });
+        return measurements;
+    }
+}
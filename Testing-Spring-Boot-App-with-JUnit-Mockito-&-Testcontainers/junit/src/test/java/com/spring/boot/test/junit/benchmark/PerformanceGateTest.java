@@ -0,0 +1,70 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.spring.boot.test.junit.benchmark.PerformanceGate.Environment;
+import com.spring.boot.test.junit.benchmark.PerformanceGate.Measurement;
+import com.spring.boot.test.junit.benchmark.PerformanceGate.Report;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PerformanceGateTest {
+
+    private static final Map<String, Measurement> BASELINE = Map.of(
+            "EmployeePerformanceBenchmark.serviceUpdate", new Measurement(1.0, 10.0),
+            "EmployeePerformanceBenchmark.httpGetById", new Measurement(0.2, 15.0));
+
+    @Test
+    @DisplayName("Given results within tolerance when compare then do not report regression")
+    void givenResultsWithinTolerance_whenCompare_thenNoRegression() {
+        Report report = PerformanceGate.compare(BASELINE, Map.of(
+                "EmployeePerformanceBenchmark.serviceUpdate", new Measurement(0.95, 11.0),
+                "EmployeePerformanceBenchmark.httpGetById", new Measurement(0.25, 9.0)), 0.10, 0.25);
+
+        assertThat(report.regressed()).isFalse();
+        assertThat(report.benchmarks()).extracting(PerformanceGate.Comparison::regressed).containsOnly(false);
+    }
+
+    @Test
+    @DisplayName("Given throughput drop or p99 increase past tolerance when compare then report regression")
+    void givenDegradedResults_whenCompare_thenReportRegression() {
+        // Vazão 20% menor em uma alteração, p99 50% maior na leitura HTTP
+        Report report = PerformanceGate.compare(BASELINE, Map.of(
+                "EmployeePerformanceBenchmark.serviceUpdate", new Measurement(0.8, 10.0),
+                "EmployeePerformanceBenchmark.httpGetById", new Measurement(0.2, 22.5)), 0.10, 0.25);
+
+        assertThat(report.regressed()).isTrue();
+        assertThat(report.benchmarks()).extracting(PerformanceGate.Comparison::regressed).containsOnly(true);
+    }
+
+    @Test
+    @DisplayName("Given benchmark without baseline when compare then report it without failing")
+    void givenNewBenchmark_whenCompare_thenReportWithoutRegression() {
+        Report report = PerformanceGate.compare(BASELINE, Map.of(
+                "EmployeePerformanceBenchmark.serviceSaveAndDelete", new Measurement(0.01, 500.0)), 0.10, 0.25);
+
+        assertThat(report.regressed()).isFalse();
+        assertThat(report.benchmarks()).singleElement().satisfies(comparison -> assertThat(comparison.baseline()).isNull());
+    }
+
+    @Test
+    @DisplayName("Given baseline from another machine or data set when check comparable then refuse to compare")
+    void givenBaselineFromOtherEnvironment_whenCheckComparable_thenRefuse() {
+        Environment recorded = new Environment("Linux", "amd64", 8, 4096, "OpenJDK 64-Bit Server VM 17.0.9", 1000);
+
+        assertThatNoException().isThrownBy(() -> PerformanceGate.checkComparable(recorded, recorded));
+        // Outra máquina, com menos processadores
+        assertThatThrownBy(() -> PerformanceGate.checkComparable(recorded,
+                new Environment("Linux", "amd64", 4, 4096, "OpenJDK 64-Bit Server VM 17.0.9", 1000)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("-Dperf.update-baseline=true");
+        // A mesma máquina, com outro perf.employees
+        assertThatThrownBy(() -> PerformanceGate.checkComparable(recorded,
+                new Environment("Linux", "amd64", 8, 4096, "OpenJDK 64-Bit Server VM 17.0.9", 100_000)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
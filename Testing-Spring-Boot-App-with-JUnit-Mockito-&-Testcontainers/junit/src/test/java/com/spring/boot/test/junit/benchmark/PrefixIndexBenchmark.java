@@ -0,0 +1,100 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.support.EmployeeDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede as consultas à árvore de prefixos do {@link EmployeeDirectory}: as sugestões de
+ * {@link EmployeeDirectory#findByPrefix(String, int)} e a verificação de {@link EmployeeDirectory#containsEmail(String)},
+ * com e sem o e-mail, ao lado da busca exata pelo índice de hash, {@link EmployeeDirectory#findByEmail(String)}.
+ * <p>
+ * Os funcionários vêm do {@link EmployeeDataGenerator} e o diretório é marcado como pronto, como na inicialização,
+ * o que reorganiza a árvore. A carga imprime a memória ocupada pela árvore, total e por milhão de funcionários;
+ * cada funcionário tem três chaves (primeiro nome, sobrenome e e-mail).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class PrefixIndexBenchmark {
+
+    private static final int SUGGESTIONS = 10;
+    private static final int SAMPLES = 4096;
+
+    @Param({"1000000"})
+    private int employees;
+
+    private EmployeeDirectory directory;
+    private String[] prefixes;
+    private String[] emails;
+    private String[] missingEmails;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmployeeDataGenerator generator = new EmployeeDataGenerator(42);
+        directory = new EmployeeDirectory(employees);
+
+        long started = System.nanoTime();
+        generator.employees(employees).forEach(directory::apply);
+        directory.markReady();
+        long elapsed = System.nanoTime() - started;
+
+        System.out.printf("%nPrefix index: %,d bytes for %,d employees (%,d bytes per million, %.1f per employee), built in %d ms%n",
+                directory.prefixIndexBytes(), employees, directory.prefixIndexBytes() * 1_000_000 / employees,
+                (double) directory.prefixIndexBytes() / employees, elapsed / 1_000_000);
+
+        // Prefixos de 1 a 6 letras de nomes e e-mails existentes, como os digitados em um campo de busca
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        prefixes = new String[SAMPLES];
+        emails = new String[SAMPLES];
+        missingEmails = new String[SAMPLES];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            Employee employee = generator.employee(random.nextLong(employees));
+            List<String> keys = List.of(employee.getFirstName(), employee.getLastName(), employee.getEmail());
+            String key = keys.get(random.nextInt(keys.size()));
+
+            prefixes[i] = key.substring(0, Math.min(key.length(), 1 + random.nextInt(6)));
+            emails[i] = employee.getEmail();
+            missingEmails[i] = "missing." + employee.getEmail();
+        }
+    }
+
+    @Benchmark
+    public List<Employee> suggest() {
+        return directory.findByPrefix(prefixes[ThreadLocalRandom.current().nextInt(SAMPLES)], SUGGESTIONS);
+    }
+
+    @Benchmark
+    public boolean containsEmail() {
+        return directory.containsEmail(emails[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+
+    @Benchmark
+    public boolean containsMissingEmail() {
+        return directory.containsEmail(missingEmails[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+
+    @Benchmark
+    public Optional<Employee> findByEmailHash() {
+        return directory.findByEmail(emails[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PrefixIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
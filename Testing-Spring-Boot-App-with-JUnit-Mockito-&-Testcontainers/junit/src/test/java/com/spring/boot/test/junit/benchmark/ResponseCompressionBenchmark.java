@@ -0,0 +1,99 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.boot.test.junit.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mede o custo de CPU e os bytes transmitidos ao comprimir a resposta de {@code GET /api/v1/employee}
+ * com gzip em diferentes níveis de compressão.
+ * <p>
+ * O Tomcat usa o nível padrão do {@link java.util.zip.Deflater} (6); os níveis 1 e 9 servem de referência
+ * para avaliar se vale a pena comprimir em um proxy à frente do serviço com outra configuração.
+ * Os contadores {@code rawBytes} e {@code wireBytes} acumulam os bytes antes e depois da compressão;
+ * a razão entre eles é a economia de banda na saída do serviço.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int employees;
+
+    @Param({"1", "6", "9"})
+    private int level;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<Employee> list = new ArrayList<>(employees);
+
+        for (long i = 1; i <= employees; i++) {
+            list.add(Employee.builder()
+                    .id(i)
+                    .firstName("Vinícius" + (i % 97))
+                    .lastName("Andrade" + (i % 89))
+                    .email("employee" + i + "@example.com")
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+
+        json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(list);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireBytes {
+        public long rawBytes;
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rawBytes = 0;
+            wireBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] gzip(WireBytes counters) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+
+        try (GZIPOutputStream gzip = new LeveledGZIPOutputStream(buffer, level)) {
+            gzip.write(json);
+        }
+
+        byte[] compressed = buffer.toByteArray();
+        counters.rawBytes += json.length;
+        counters.wireBytes += compressed.length;
+        return compressed;
+    }
+
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseCompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,159 @@
+package com.spring.boot.test.junit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo entre iniciar o processo da aplicação e a primeira resposta 200 de
+ * {@code GET /api/v1/employee/{id}}: pelo jar executável, com a configuração padrão, ou pela saída do perfil
+ * Maven {@code startup} (AOT, arquivo AppCDS e inicialização tardia dos beans).
+ * <p>
+ * Requer os dois artefatos gerados antes com {@code mvn -Pstartup -DskipTests package}. Os dois processos usam um
+ * H2 em memória criado por um script com o funcionário consultado, para que o resultado não dependa do MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Path TARGET = Path.of("target");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"jvm", "startup"})
+    private String mode;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private Path schema;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        schema = Files.createTempFile("startup-benchmark", ".sql");
+        Files.writeString(schema, """
+                CREATE TABLE IF NOT EXISTS employee (
+                    id BIGINT PRIMARY KEY,
+                    first_name VARCHAR(50) NOT NULL,
+                    last_name VARCHAR(50) NOT NULL,
+                    email VARCHAR(50) NOT NULL,
+                    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+                    deleted BOOLEAN NOT NULL DEFAULT FALSE
+                );
+                MERGE INTO employee (id, first_name, last_name, email) KEY (id)
+                    VALUES (1, 'Startup', 'Benchmark', 'startup@example.com');
+                """);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(schema);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopApplication() throws InterruptedException {
+        if (process == null)
+            return;
+
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS))
+            process.destroyForcibly().waitFor();
+        process = null;
+    }
+
+    @Benchmark
+    public int firstEmployeeRequest() throws IOException, InterruptedException {
+        int port = freePort();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+
+        process = start(port);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/employee/1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive())
+                throw new IllegalStateException("application exited with code " + process.exitValue());
+
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+                if (response.statusCode() == 200)
+                    return response.statusCode();
+            } catch (IOException e) {
+                // Servidor ainda não está aceitando conexões
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("no successful response within " + TIMEOUT);
+    }
+
+    private Process start(int port) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        Path directory;
+
+        command.add(java);
+
+        if (mode.equals("startup")) {
+            directory = TARGET.resolve("startup");
+            command.add("-XX:SharedArchiveFile=application.jsa");
+            command.add("-Dspring.aot.enabled=true");
+            command.add("@startup.args");
+            command.add("com.spring.boot.test.junit.JunitApplication");
+            command.add("--spring.profiles.active=startup");
+        } else {
+            directory = TARGET;
+            command.add("-jar");
+            command.add("junit-0.0.1-SNAPSHOT.jar");
+            command.add("--spring.jpa.hibernate.ddl-auto=update");
+            command.add("--spring.jpa.show-sql=false");
+        }
+
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:mem:employee;MODE=MySQL;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM '"
+                + schema.toAbsolutePath().toString().replace('\\', '/') + "'");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+
+        return new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StartupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
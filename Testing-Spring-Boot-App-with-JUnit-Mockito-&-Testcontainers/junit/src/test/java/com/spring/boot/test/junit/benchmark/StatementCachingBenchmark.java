@@ -0,0 +1,143 @@
+package com.spring.boot.test.junit.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o ganho das opções de cache de statements do {@code mysql-connector-j} configuradas no perfil
+ * {@code production} nas consultas pontuais do {@code EmployeeRepository}, contra um MySQL em Testcontainer.
+ * <p>
+ * O SQL executado é o mesmo que o Hibernate registra no log ({@code spring.jpa.show-sql}) para {@code findById},
+ * {@code findByEmail} e a consulta nomeada {@code Employee.findByFirstName}, e o esquema é criado pelas migrações
+ * do Flyway da aplicação, com os mesmos índices. Com {@code driverCaching=false} o driver usa as opções padrão: o
+ * SQL é reanalisado pelo cliente e enviado como texto a cada execução.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCachingBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    private static final String SELECT_EMPLOYEE =
+            "select e1_0.id,e1_0.deleted,e1_0.email,e1_0.first_name,e1_0.last_name,e1_0.updated_at from employee e1_0 ";
+    private static final String FIND_BY_ID = SELECT_EMPLOYEE + "where e1_0.id=? and (e1_0.deleted = false)";
+    private static final String FIND_BY_EMAIL = SELECT_EMPLOYEE + "where (e1_0.deleted = false) and e1_0.email=?";
+    private static final String FIND_BY_FIRST_NAME = SELECT_EMPLOYEE +
+            "where (e1_0.deleted = false) and e1_0.first_name=? order by e1_0.id";
+
+    @Param({"false", "true"})
+    private boolean driverCaching;
+
+    private MySQLContainer<?> mysql;
+    private HikariDataSource dataSource;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mysql = new MySQLContainer<>("mysql:8.0").withDatabaseName("db_employee_junit");
+        mysql.start();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(mysql.getJdbcUrl());
+        config.setUsername(mysql.getUsername());
+        config.setPassword(mysql.getPassword());
+        config.setMaximumPoolSize(4);
+
+        if (driverCaching) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("useLocalSessionState", "true");
+            config.addDataSourceProperty("cacheResultSetMetadata", "true");
+            config.addDataSourceProperty("cacheServerConfiguration", "true");
+            config.addDataSourceProperty("elideSetAutoCommits", "true");
+            config.addDataSourceProperty("maintainTimeStats", "false");
+        }
+
+        dataSource = new HikariDataSource(config);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public void findById(Blackhole blackhole) throws SQLException {
+        query(FIND_BY_ID, nextId(), blackhole);
+    }
+
+    @Benchmark
+    public void findByEmail(Blackhole blackhole) throws SQLException {
+        query(FIND_BY_EMAIL, "employee" + nextId() + "@example.com", blackhole);
+    }
+
+    @Benchmark
+    public void findByFirstName(Blackhole blackhole) throws SQLException {
+        query(FIND_BY_FIRST_NAME, "first" + nextId(), blackhole);
+    }
+
+    private long nextId() {
+        nextId = nextId % EMPLOYEES + 1;
+        return nextId;
+    }
+
+    private void query(String sql, Object parameter, Blackhole blackhole) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, parameter);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next())
+                    blackhole.consume(resultSet.getString("email"));
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/mysql")
+                .load()
+                .migrate();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO employee (id, first_name, last_name, email) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= EMPLOYEES; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "first" + i);
+                insert.setString(3, "last" + i);
+                insert.setString(4, "employee" + i + "@example.com");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StatementCachingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
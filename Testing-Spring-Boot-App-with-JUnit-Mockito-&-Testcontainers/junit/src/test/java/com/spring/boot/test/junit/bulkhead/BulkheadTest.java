@@ -0,0 +1,142 @@
+package com.spring.boot.test.junit.bulkhead;
+
+import com.spring.boot.test.junit.exception.BulkheadRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkheadTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        bulkhead.shutdown();
+    }
+
+    @Test
+    @DisplayName("Given task when submit then run it with the bulkhead traffic class")
+    void givenTask_whenSubmit_thenRunWithTrafficClass() {
+        bulkhead = new Bulkhead(TrafficClass.BULK, 1, 1, Duration.ofSeconds(5));
+
+        assertThat(bulkhead.submit(TrafficClassContext::current).join()).isEqualTo(TrafficClass.BULK);
+        assertThat(TrafficClassContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given busy threads and full queue when submit then reject immediately")
+    void givenFullQueue_whenSubmit_thenRejectImmediately() {
+        bulkhead = new Bulkhead(TrafficClass.BULK, 1, 1, Duration.ofSeconds(5));
+
+        bulkhead.submit(this::block);
+        bulkhead.submit(this::block);
+
+        CompletableFuture<Object> rejected = bulkhead.submit(() -> "never runs");
+
+        assertThat(rejected).failsWithin(Duration.ZERO)
+                .withThrowableOfType(Exception.class)
+                .withCauseInstanceOf(BulkheadRejectedException.class);
+        assertThat(bulkhead.getQueueFullRejections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given tasks that start in time when they finish then their deadlines are cancelled")
+    void givenTasksStartingInTime_whenFinish_thenCancelTheirDeadlines() {
+        ScheduledThreadPoolExecutor timeouts = new ScheduledThreadPoolExecutor(1);
+        timeouts.setRemoveOnCancelPolicy(true);
+        bulkhead = new Bulkhead(TrafficClass.POINT, 2, 100, Duration.ofHours(1), task -> task, timeouts);
+
+        try {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int value = i;
+                results.add(bulkhead.submit(() -> value));
+            }
+            results.forEach(CompletableFuture::join);
+
+            // Nenhum prazo fica agendado por uma hora segurando a tarefa e o seu resultado
+            assertThat(timeouts.getQueue()).isEmpty();
+            assertThat(bulkhead.getTimeoutRejections()).isZero();
+        } finally {
+            timeouts.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given queued task past its deadline when time out then fail it and never run it")
+    void givenQueuedTaskPastDeadline_whenTimeOut_thenFailAndSkip() throws Exception {
+        bulkhead = new Bulkhead(TrafficClass.POINT, 1, 1, Duration.ofMillis(50));
+        CountDownLatch ran = new CountDownLatch(1);
+
+        bulkhead.submit(this::block);
+        CompletableFuture<Object> queued = bulkhead.submit(() -> {
+            ran.countDown();
+            return null;
+        });
+
+        assertThat(queued).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(Exception.class)
+                .withCauseInstanceOf(BulkheadRejectedException.class);
+
+        release.countDown();
+        assertThat(ran.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(bulkhead.getTimeoutRejections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given running task past its deadline when it finishes then complete with its own result")
+    void givenRunningTaskPastDeadline_whenFinish_thenCompleteWithItsResult() throws Exception {
+        bulkhead = new Bulkhead(TrafficClass.WRITE, 1, 1, Duration.ofMillis(50));
+
+        CompletableFuture<Object> running = bulkhead.submit(() -> {
+            block();
+            return "committed";
+        });
+
+        // O prazo expira com a tarefa em execução, que pode estar efetivando uma escrita
+        Thread.sleep(200);
+        assertThat(running).isNotDone();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("committed");
+        assertThat(bulkhead.getTimeoutRejections()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given task splitting its work on its own bulkhead when invoke all then run parts without deadlock")
+    void givenTaskSplittingOnOwnBulkhead_whenInvokeAll_thenRunPartsWithoutDeadlock() throws Exception {
+        bulkhead = new Bulkhead(TrafficClass.BULK, 1, 1, Duration.ofMillis(50));
+
+        // A única thread do bulkhead divide o trabalho e espera pelas partes, que a fila não comporta
+        CompletableFuture<List<String>> result = bulkhead.submit(() -> bulkhead.invokeAll(List.<Supplier<String>>of(
+                () -> "a" + TrafficClassContext.current(),
+                () -> "b" + TrafficClassContext.current(),
+                () -> "c" + TrafficClassContext.current())));
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).containsExactly("aBULK", "bBULK", "cBULK");
+        assertThat(bulkhead.getQueueFullRejections()).isZero();
+        assertThat(bulkhead.getTimeoutRejections()).isZero();
+    }
+
+    private Object block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.spring.boot.test.junit.config;
+
+import com.spring.boot.test.junit.id.EmployeeId;
+import com.spring.boot.test.junit.id.EmployeeIdentifierGenerator;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.repository.EmployeeRepository;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.lang.reflect.Member;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeImageConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeImageConfig.EmployeeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Given registered hints when check employee accessors then Lombok getters and setters are invocable")
+    void givenRegisteredHints_whenCheckEmployeeAccessors_thenLombokAccessorsAreInvocable() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Employee.class.getMethod("getEmail"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(Employee.class.getMethod("setEmail", String.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onField(Employee.class, "updatedAt")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructor(Employee.class.getConstructor())).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Given registered hints when check Hibernate and repository types then they are reachable by reflection")
+    void givenRegisteredHints_whenCheckHibernateAndRepositoryTypes_thenReflectionIsRegistered() throws Exception {
+        // Instanciado pelo Hibernate a partir de @EmployeeId
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onConstructor(EmployeeIdentifierGenerator.class.getConstructor(
+                        EmployeeId.class, Member.class, CustomIdGeneratorCreationContext.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(EmployeeRepository.class.getMethod("findByEmail", String.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(SyncWatermark.class)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Given registered hints when check stats types then records and projection proxy are registered")
+    void givenRegisteredHints_whenCheckStatsTypes_thenRecordsAndProjectionProxyAreRegistered() throws Exception {
+        // Serializados pelo Jackson na resposta de /stats
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(EmployeeStats.class.getMethod("byLastName"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(EmployeeStats.GroupCount.class.getMethod("count"))).accepts(hints);
+
+        // Projeção das consultas nativas, implementada pelo Spring Data com um proxy do JDK
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(EmployeeRepository.GroupCount.class,
+                TargetAware.class, SpringProxy.class, DecoratingProxy.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(EmployeeRepository.GroupCount.class.getMethod("getTotal"))).accepts(hints);
+    }
+}
@@ -1,20 +1,30 @@
 package com.spring.boot.test.junit.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.boot.test.junit.bulkhead.EmployeeBulkheads;
+import com.spring.boot.test.junit.exception.ResourceNotFoundException;
+import com.spring.boot.test.junit.idempotency.IdempotentRequests;
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeStats;
 import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.service.impl.BulkheadEmployeeService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.context.aot.DisabledInAotMode;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
@@ -22,10 +32,14 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.mockito.BDDMockito.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+@DisabledInAotMode
 @WebMvcTest(EmployeeController.class)
+@Import({EmployeeBulkheads.class, BulkheadEmployeeService.class, IdempotentRequests.class})
 public class EmployeeControllerTest {
 
     @Autowired
@@ -53,7 +67,7 @@ public class EmployeeControllerTest {
                 .willAnswer((invocation) -> invocation.getArgument(0));
 
         // Chamada HTTP simulada para criar um novo Employee
-        ResultActions response = mockMvc.perform(post("/api/v1/employee")
+        ResultActions response = performAsync(post("/api/v1/employee")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employee)));
 
@@ -70,6 +84,54 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @Test
+    @DisplayName("Given retried create with same idempotency key when create employee then replay the original response")
+    void givenRetriedCreateWithSameIdempotencyKey_whenCreateEmployee_thenReplayOriginalResponse() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("vinicius_andrade2010@hotmail.com")
+                .build();
+
+        // O serviço atribui o id ao funcionário recebido, como o repositório
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer(invocation -> {
+                    Employee saved = invocation.getArgument(0);
+                    saved.setId(42L);
+                    return saved;
+                });
+
+        String body = objectMapper.writeValueAsString(employee);
+
+        // Requisição original e a repetição do gateway, com a mesma chave
+        ResultActions original = performAsync(post("/api/v1/employee")
+                .header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, "create-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+        ResultActions retry = performAsync(post("/api/v1/employee")
+                .header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, "create-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+
+        // A repetição recebe a resposta original, sem nova inclusão
+        original.andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER))
+                .andExpect(jsonPath("$.id", is(42)));
+        retry.andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id", is(42)))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        verify(employeeService, times(1)).saveEmployee(any(Employee.class));
+
+        // A mesma chave com outro corpo é rejeitada
+        employee.setEmail("outro@gmail.com");
+        mockMvc.perform(post("/api/v1/employee")
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY_HEADER, "create-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     @DisplayName("Given employee object when get all employees then return status ok")
     void givenEmployeeObject_whenGetAllEmployees_thenReturnStatusOk() throws Exception {
@@ -97,7 +159,7 @@ public class EmployeeControllerTest {
         // Act
 
         // Chamada HTTP simulada para obter todos os Employees
-        ResultActions response = mockMvc.perform(get("/api/v1/employee"));
+        ResultActions response = performAsync(get("/api/v1/employee"));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isOk())
@@ -113,6 +175,69 @@ public class EmployeeControllerTest {
     }
 
 
+    @Test
+    @DisplayName("Given employees when export employees then stream them as NDJSON")
+    void givenEmployees_whenExportEmployees_thenStreamNdjson() throws Exception {
+        // Arrange
+        Employee employee1 = Employee.builder()
+                .id(1L)
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("vinicius_andrade2010@hotmail.com")
+                .build();
+
+        Employee employee2 = Employee.builder()
+                .id(2L)
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
+
+        // Configuração do serviço mock para entregar os funcionários ao consumidor, um por vez
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            action.accept(employee1);
+            action.accept(employee2);
+            return null;
+        }).given(employeeService).forEachEmployee(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/v1/employee/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Asserts para verificar se cada funcionário foi escrito em uma linha
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8)
+                .split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Employee.class)).isEqualTo(employee1);
+        assertThat(objectMapper.readValue(lines[1], Employee.class)).isEqualTo(employee2);
+    }
+
+    @Test
+    @DisplayName("Given stats request with large top when get employee stats then return capped counts")
+    void givenLargeTop_whenGetEmployeeStats_thenReturnCappedCounts() throws Exception {
+
+        // Configuração do serviço mock: o top é limitado a 100
+        given(employeeService.getEmployeeStats(100)).willReturn(new EmployeeStats(3,
+                List.of(new EmployeeStats.GroupCount("Andrade", 2)),
+                List.of(new EmployeeStats.GroupCount("gmail.com", 3))));
+
+        ResultActions response = performAsync(get("/api/v1/employee/stats").param("top", "1000"));
+
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.byLastName[0].value", is("Andrade")))
+                .andExpect(jsonPath("$.byLastName[0].count", is(2)))
+                .andExpect(jsonPath("$.byEmailDomain[0].value", is("gmail.com")));
+    }
+
     @Test
     @DisplayName("Given employee object when get employee by id then return status ok")
     void givenEmployeeObject_whenGetEmployeeById_thenReturnStatusOk() throws Exception {
@@ -131,7 +256,7 @@ public class EmployeeControllerTest {
                 .willReturn(Optional.of(employee));
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/v1/employee/{id}", employee.getId()));
+        ResultActions response = performAsync(get("/api/v1/employee/{id}", employee.getId()));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isOk())
@@ -143,6 +268,31 @@ public class EmployeeControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    @DisplayName("Given employee email when get employee by email then return status ok")
+    void givenEmployeeEmail_whenGetEmployeeByEmail_thenReturnStatusOk() throws Exception {
+        // Arrange
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("vinicius_andrade2010@hotmail.com")
+                .build();
+
+        // Configuração do serviço mock para retornar o Employee pelo e-mail
+        given(employeeService.getEmployeeByEmail(employee.getEmail()))
+                .willReturn(Optional.of(employee));
+
+        // Act
+        ResultActions response = performAsync(get("/api/v1/employee/by-email").param("email", employee.getEmail()));
+
+        // Asserts para verificar se a resposta é conforme o esperado
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(employee.getId().intValue())))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())))
+                .andDo(print());
+    }
+
     @Test
     @DisplayName("Given employee object when get employee by id then return status 404 not found")
     void givenEmployeeObject_whenGetEmployeeById_thenReturnStatusNotFound() throws Exception {
@@ -160,7 +310,7 @@ public class EmployeeControllerTest {
                 .willReturn(Optional.empty());
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/v1/employee/{id}", employeeId));
+        ResultActions response = performAsync(get("/api/v1/employee/{id}", employeeId));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNotFound())
@@ -188,18 +338,13 @@ public class EmployeeControllerTest {
                 .email("viniciusdsandrrade0662@gmail.com")
                 .build();
 
-        // Configuração do serviço mock para retornar um Employee ao chamar getEmployeeById
-        given(employeeService.getEmployeeById(employeeId))
-                .willReturn(Optional.of(saveEmployee));
-
-        // Configuração do serviço mock para retornar um Employee ao chamar updateEmployeeById
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(updateEmployee));
+        // Configuração do serviço mock para retornar o Employee recebido ao chamar updateEmployeeById
         given(employeeService.updateEmployeeById(any(Employee.class)))
                 .willAnswer((invocation) -> invocation.getArgument(0));
 
 
         // Act
-        ResultActions response = mockMvc.perform(put("/api/v1/employee/{id}", employeeId)
+        ResultActions response = performAsync(put("/api/v1/employee/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updateEmployee)));
 
@@ -210,6 +355,9 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.lastName", is(updateEmployee.getLastName())))
                 .andExpect(jsonPath("$.email", is(updateEmployee.getEmail())))
                 .andDo(print());
+
+        // A existência é verificada pelo próprio serviço, sem uma leitura antes da alteração
+        then(employeeService).should(never()).getEmployeeById(employeeId);
     }
 
     @Test
@@ -232,15 +380,12 @@ public class EmployeeControllerTest {
                 .email("viniciusdsandrrade0662@gmail.com")
                 .build();
 
-        // Configuração do serviço mock para retornar um Optional vazio ao chamar getEmployeeById
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-
-        // Configuração do serviço mock para retornar um Optional vazio ao chamar updateEmployeeById
+        // Configuração do serviço mock para lançar ResourceNotFoundException ao chamar updateEmployeeById
         given(employeeService.updateEmployeeById(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+                .willThrow(new ResourceNotFoundException("Employee not found with id: " + employeeId));
 
         // Act
-        ResultActions response = mockMvc.perform(put("/api/v1/employee/{id}", employeeId)
+        ResultActions response = performAsync(put("/api/v1/employee/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(updateEmployee)));
 
@@ -268,7 +413,7 @@ public class EmployeeControllerTest {
                 .willReturn(Optional.of(employee));
         
         // Act
-        ResultActions response = mockMvc.perform(delete("/api/v1/employee/{id}", employeeId));
+        ResultActions response = performAsync(delete("/api/v1/employee/{id}", employeeId));
         
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNoContent())
@@ -288,4 +433,16 @@ public class EmployeeControllerTest {
                 // Then expect status 404 (not found)
                 .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
-}
\ No newline at end of file
+
+    /**
+     * Os endpoints executam nos bulkheads e respondem de forma assíncrona: executa a requisição e
+     * despacha o resultado.
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,99 @@
+package com.spring.boot.test.junit.directory;
+
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeDirectorySnapshotTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-15T10:00:00.123456Z");
+
+    @TempDir
+    Path directoryPath;
+
+    @Test
+    @DisplayName("Given written snapshot when read then restore employees, tombstones and watermark")
+    void givenWrittenSnapshot_whenRead_thenRestoreEmployeesAndWatermark() throws IOException {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        directory.apply(employee(1L, "vinicius@example.com", T0, false));
+        directory.apply(employee(2L, "arthur@example.com", T0, true));
+        directory.apply(employee(1L, "vinicius.andrade@example.com", T0.plusSeconds(1), false));
+        SyncWatermark watermark = new SyncWatermark(T0.plusSeconds(1), 1L);
+        Path file = directoryPath.resolve("employees.snapshot");
+
+        // when
+        EmployeeDirectorySnapshot.write(file, directory, watermark);
+        EmployeeDirectorySnapshot.Restored restored = EmployeeDirectorySnapshot.read(file).orElseThrow();
+
+        // then
+        EmployeeDirectory copy = restored.directory();
+        assertThat(restored.watermark()).isEqualTo(watermark);
+        assertThat(copy.size()).isEqualTo(1);
+        assertThat(copy.findById(1L)).map(Employee::getEmail).contains("vinicius.andrade@example.com");
+        assertThat(copy.findByEmail("vinicius@example.com")).isEmpty();
+
+        // a exclusão continua valendo contra versões mais antigas
+        assertThat(copy.apply(employee(2L, "arthur@example.com", T0.minusSeconds(1), false))).isFalse();
+        assertThat(copy.findById(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given restored directory when apply changes then copy the mapped records and keep serving")
+    void givenRestoredDirectory_whenApply_thenKeepServing() throws IOException {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        directory.apply(employee(1L, "vinicius@example.com", T0, false));
+        Path file = directoryPath.resolve("employees.snapshot");
+        EmployeeDirectorySnapshot.write(file, directory, SyncWatermark.INITIAL);
+        EmployeeDirectory restored = EmployeeDirectorySnapshot.read(file).orElseThrow().directory();
+
+        // when - o buffer mapeado é somente leitura
+        restored.apply(employee(2L, "arthur@example.com", T0, false));
+
+        // then
+        assertThat(restored.findById(1L)).isPresent();
+        assertThat(restored.findByEmail("arthur@example.com")).map(Employee::getId).contains(2L);
+    }
+
+    @Test
+    @DisplayName("Given corrupted or missing snapshot when read then return empty")
+    void givenCorruptedOrMissingSnapshot_whenRead_thenReturnEmpty() throws IOException {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        directory.apply(employee(1L, "vinicius@example.com", T0, false));
+        Path file = directoryPath.resolve("employees.snapshot");
+        EmployeeDirectorySnapshot.write(file, directory, SyncWatermark.INITIAL);
+
+        // when - um byte dos registros é alterado
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(Files.size(file) - 1);
+            raf.write('X');
+        }
+
+        // then
+        assertThat(EmployeeDirectorySnapshot.read(file)).isEmpty();
+        assertThat(EmployeeDirectorySnapshot.read(directoryPath.resolve("missing.snapshot"))).isEmpty();
+    }
+
+    private static Employee employee(long id, String email, Instant updatedAt, boolean deleted) {
+        return Employee.builder()
+                .id(id)
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email(email)
+                .updatedAt(updatedAt)
+                .deleted(deleted)
+                .build();
+    }
+}
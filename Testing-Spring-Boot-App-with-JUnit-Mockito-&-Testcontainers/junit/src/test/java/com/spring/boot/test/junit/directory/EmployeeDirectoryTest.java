@@ -0,0 +1,132 @@
+package com.spring.boot.test.junit.directory;
+
+import com.spring.boot.test.junit.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeDirectoryTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-15T10:00:00.123456Z");
+
+    @Test
+    @DisplayName("Given applied employee when find by id and email then return an equal employee")
+    void givenAppliedEmployee_whenFind_thenReturnEqualEmployee() {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        Employee employee = employee(1L, "Vinícius", "vinicius@example.com", T0);
+
+        // when
+        directory.apply(employee);
+
+        // then - nomes com acentos passam pelo UTF-8 sem perda e o updatedAt mantém os microssegundos
+        assertThat(directory.findById(1L)).hasValueSatisfying(found -> {
+            assertThat(found).isEqualTo(employee);
+            assertThat(found.getUpdatedAt()).isEqualTo(T0);
+        });
+        assertThat(directory.findByEmail("vinicius@example.com")).contains(employee);
+        assertThat(directory.findByEmail("Vinicius@Example.com")).contains(employee);
+        assertThat(directory.containsEmail("VINICIUS@EXAMPLE.COM")).isTrue();
+        assertThat(directory.findById(2L)).isEmpty();
+        assertThat(directory.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given email changed when find by the old email then return empty")
+    void givenEmailChanged_whenFindByOldEmail_thenReturnEmpty() {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        directory.apply(employee(1L, "Arthur", "old@example.com", T0));
+
+        // when
+        directory.apply(employee(1L, "Arthur", "new@example.com", T0.plusSeconds(1)));
+
+        // then
+        assertThat(directory.findByEmail("old@example.com")).isEmpty();
+        assertThat(directory.findByEmail("new@example.com")).map(Employee::getId).contains(1L);
+        assertThat(directory.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Given older version after newer one when apply then keep the newer version")
+    void givenOlderVersion_whenApply_thenKeepNewerVersion() {
+        // given - exclusão já aplicada
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        Employee deleted = employee(1L, "Arthur", "arthur@example.com", T0.plusSeconds(5));
+        deleted.setDeleted(true);
+        directory.apply(deleted);
+
+        // when - uma sincronização atrasada entrega a versão anterior à exclusão
+        boolean applied = directory.apply(employee(1L, "Arthur", "arthur@example.com", T0));
+
+        // then
+        assertThat(applied).isFalse();
+        assertThat(directory.findById(1L)).isEmpty();
+        assertThat(directory.findByEmail("arthur@example.com")).isEmpty();
+        assertThat(directory.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given many rewrites when apply then compact old versions and keep every employee")
+    void givenManyRewrites_whenApply_thenCompactAndKeepEveryEmployee() {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+
+        // when - cada funcionário é reescrito várias vezes, o suficiente para passar do limite de compactação
+        for (int version = 0; version < 20; version++) {
+            for (long id = 1; id <= 2000; id++)
+                directory.apply(employee(id, "first" + version, "employee" + id + "@example.com", T0.plusSeconds(version)));
+        }
+
+        // then
+        assertThat(directory.size()).isEqualTo(2000);
+        assertThat(directory.usedBytes()).isLessThan(2 * 1024 * 1024);
+
+        for (long id = 1; id <= 2000; id++) {
+            assertThat(directory.findById(id)).map(Employee::getFirstName).contains("first19");
+            assertThat(directory.findByEmail("employee" + id + "@example.com")).map(Employee::getId).contains(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Given employees when find by prefix then match names and emails ignoring case and follow changes")
+    void givenEmployees_whenFindByPrefix_thenMatchNamesAndEmailsIgnoringCase() {
+        // given
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        directory.apply(employee(1L, "Mariana", "mari@example.com", T0));
+        directory.apply(employee(2L, "Marcos", "marcos@example.com", T0));
+        directory.apply(employee(3L, "Arthur", "arthur@example.com", T0));
+
+        // then - cada funcionário uma vez, na ordem da primeira chave encontrada
+        assertThat(directory.findByPrefix("MAR", 10)).extracting(Employee::getId).containsExactly(2L, 1L);
+        assertThat(directory.findByPrefix("andr", 2)).extracting(Employee::getId).hasSize(2);
+        assertThat(directory.containsEmail("Arthur@Example.com")).isTrue();
+        assertThat(directory.containsEmail("arthur")).isFalse();
+
+        // when - o funcionário 1 muda de nome e de e-mail, e o 3 é excluído
+        directory.apply(employee(1L, "Beatriz", "beatriz@example.com", T0.plusSeconds(1)));
+        Employee deleted = employee(3L, "Arthur", "arthur@example.com", T0.plusSeconds(1));
+        deleted.setDeleted(true);
+        directory.apply(deleted);
+
+        // then
+        assertThat(directory.findByPrefix("mar", 10)).extracting(Employee::getId).containsExactly(2L);
+        assertThat(directory.findByPrefix("bea", 10)).extracting(Employee::getFirstName).containsExactly("Beatriz");
+        assertThat(directory.findByPrefix("ar", 10)).isEmpty();
+        assertThat(directory.containsEmail("mari@example.com")).isFalse();
+        assertThat(directory.containsEmail("arthur@example.com")).isFalse();
+    }
+
+    private static Employee employee(long id, String firstName, String email, Instant updatedAt) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Andrade")
+                .email(email)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
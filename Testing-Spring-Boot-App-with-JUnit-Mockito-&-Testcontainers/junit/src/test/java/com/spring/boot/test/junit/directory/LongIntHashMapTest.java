@@ -0,0 +1,55 @@
+package com.spring.boot.test.junit.directory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongIntHashMapTest {
+
+    @Test
+    @DisplayName("Given random puts and removes when compared with HashMap then contents match")
+    void givenRandomPutsAndRemoves_whenCompareWithHashMap_thenContentsMatch() {
+        // given - poucas chaves distintas, para forçar colisões, remoções no meio das sequências e redimensionamentos
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            long key = 1 + random.nextInt(2000);
+
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        // then
+        assertThat(map.size()).isEqualTo(expected.size());
+
+        for (long key = 1; key <= 2000; key++)
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, LongIntHashMap.MISSING));
+
+        Map<Long, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertThat(iterated).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Given missing key when get then return MISSING")
+    void givenMissingKey_whenGet_thenReturnMissing() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        map.put(Long.MIN_VALUE, 7);
+
+        assertThat(map.get(Long.MIN_VALUE)).isEqualTo(7);
+        assertThat(map.get(Long.MAX_VALUE)).isEqualTo(LongIntHashMap.MISSING);
+    }
+}
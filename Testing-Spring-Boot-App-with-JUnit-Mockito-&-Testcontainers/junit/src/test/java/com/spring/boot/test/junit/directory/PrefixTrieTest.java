@@ -0,0 +1,101 @@
+package com.spring.boot.test.junit.directory;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixTrieTest {
+
+    @Test
+    @DisplayName("Given random adds, removes and compactions when compared with TreeMap then every prefix visits the same ids")
+    void givenRandomAddsAndRemoves_whenCompareWithTreeMap_thenPrefixesMatch() {
+        // given - chaves curtas de um alfabeto pequeno, para forçar divisões e fusões de rótulos
+        PrefixTrie trie = new PrefixTrie(4);
+        TreeMap<String, List<Long>> expected = new TreeMap<>();
+        Random random = new Random(42);
+
+        // when - com reorganizações no meio, para que as alterações seguintes partam da árvore reescrita
+        for (int i = 0; i < 50_000; i++) {
+            if (i % 20_000 == 10_000)
+                trie.compact();
+
+            String key = randomKey(random);
+            long id = 1 + random.nextInt(20);
+
+            if (random.nextInt(3) == 0) {
+                boolean removed = expected.getOrDefault(key, new ArrayList<>()).remove(Long.valueOf(id));
+                assertThat(trie.remove(key, id)).isEqualTo(removed);
+            } else {
+                // Os ids mais recentes de cada chave são visitados primeiro
+                trie.add(key, id);
+                expected.computeIfAbsent(key, k -> new ArrayList<>()).add(0, id);
+            }
+        }
+
+        // then - ids de cada prefixo, com as chaves em ordem alfabética
+        assertThat(trie.size()).isEqualTo(expected.values().stream().mapToInt(List::size).sum());
+
+        for (String prefix : List.of("", "a", "ab", "abc", "b", "ba", "cab", "ccc", "d")) {
+            List<Long> visited = new ArrayList<>();
+            trie.forEachWithPrefix(prefix, visited::add);
+
+            List<Long> expectedIds = new ArrayList<>();
+            for (Map.Entry<String, List<Long>> entry : expected.entrySet()) {
+                if (entry.getKey().startsWith(prefix))
+                    expectedIds.addAll(entry.getValue());
+            }
+            assertThat(visited).as("prefix %s", prefix).isEqualTo(expectedIds);
+        }
+    }
+
+    @Test
+    @DisplayName("Given keys sharing prefixes when visit then ignore case, stop early and find exact keys only")
+    void givenKeysSharingPrefixes_whenVisit_thenIgnoreCaseAndStopEarly() {
+        PrefixTrie trie = new PrefixTrie(16);
+        trie.add("Mariana", 3);
+        trie.add("Maria", 1);
+        trie.add("Marcos", 2);
+        trie.add("maria@example.com", 4);
+
+        // O prefixo termina no meio do rótulo "ria"
+        List<Long> visited = new ArrayList<>();
+        trie.forEachWithPrefix("MARI", visited::add);
+        assertThat(visited).containsExactly(1L, 4L, 3L);
+
+        // O visitante interrompe o percurso
+        List<Long> first = new ArrayList<>();
+        trie.forEachWithPrefix("mar", id -> first.add(id) && first.size() < 2);
+        assertThat(first).containsExactly(2L, 1L);
+
+        List<Long> exact = new ArrayList<>();
+        trie.forEachExact("maria", exact::add);
+        trie.forEachExact("mari", exact::add);
+        assertThat(exact).containsExactly(1L);
+
+        // Sem "maria" e "mariana", o nó "ia" fica com um único filho e é fundido com ele
+        assertThat(trie.remove("maria", 1)).isTrue();
+        assertThat(trie.remove("mariana", 3)).isTrue();
+        assertThat(trie.remove("mariana", 3)).isFalse();
+
+        List<Long> remaining = new ArrayList<>();
+        trie.forEachWithPrefix("m", remaining::add);
+        trie.forEachExact("maria@example.com", remaining::add);
+        assertThat(remaining).containsExactly(2L, 4L, 4L);
+    }
+
+    private static String randomKey(Random random) {
+        char[] key = new char[1 + random.nextInt(4)];
+
+        for (int i = 0; i < key.length; i++)
+            key[i] = (char) ('a' + random.nextInt(3));
+
+        return new String(key);
+    }
+}
@@ -0,0 +1,66 @@
+package com.spring.boot.test.junit.id;
+
+import com.spring.boot.test.junit.shard.ShardResolver;
+import org.hibernate.resource.beans.container.spi.BeanContainer;
+import org.hibernate.resource.beans.container.spi.ContainedBean;
+import org.hibernate.resource.beans.spi.ManagedBeanRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class EmployeeIdentifierGeneratorTest {
+
+    @Test
+    @DisplayName("Given strategies of two session factories when generate then each uses its own")
+    void givenTwoStrategies_whenGenerate_thenEachUsesItsOwn() {
+        // given - dois contextos em cache ao mesmo tempo, com números de shards diferentes
+        EmployeeIdentifierGenerator single = new EmployeeIdentifierGenerator(
+                new EmployeeIdStrategy(shard -> 10, new ShardResolver(1, Map.of())));
+        EmployeeIdentifierGenerator sharded = new EmployeeIdentifierGenerator(
+                new EmployeeIdStrategy(shard -> 10, new ShardResolver(2, Map.of())));
+
+        // when / then - o id de um não depende da estratégia registrada pelo outro
+        assertThat(single.generate(null, null, null, null)).isEqualTo(new ShardResolver(1, Map.of()).idFor(10, 0));
+        assertThat(sharded.generate(null, null, null, null)).isEqualTo(new ShardResolver(2, Map.of()).idFor(10, 0));
+        assertThat(single.generate(null, null, null, null)).isNotEqualTo(sharded.generate(null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Given bean container when look up strategy then return the context bean")
+    void givenBeanContainer_whenLookup_thenReturnContextBean() {
+        // given
+        EmployeeIdStrategy strategy = new EmployeeIdStrategy(shard -> 1, new ShardResolver(1, Map.of()));
+        ContainedBean<EmployeeIdStrategy> bean = containedBean(strategy);
+        BeanContainer beanContainer = mock(BeanContainer.class);
+        given(beanContainer.getBean(eq(EmployeeIdStrategy.class), any(), any())).willReturn(bean);
+
+        // when / then
+        assertThat(EmployeeIdentifierGenerator.lookup(beanRegistry(beanContainer))).isSameAs(strategy);
+    }
+
+    @Test
+    @DisplayName("Given no bean container when look up strategy then return the defaults")
+    void givenNoBeanContainer_whenLookup_thenReturnDefaults() {
+        assertThat(EmployeeIdentifierGenerator.lookup(beanRegistry(null))).isSameAs(EmployeeIdStrategy.defaults());
+    }
+
+    private static ManagedBeanRegistry beanRegistry(BeanContainer beanContainer) {
+        ManagedBeanRegistry beanRegistry = mock(ManagedBeanRegistry.class);
+        given(beanRegistry.getBeanContainer()).willReturn(beanContainer);
+        return beanRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ContainedBean<EmployeeIdStrategy> containedBean(EmployeeIdStrategy strategy) {
+        ContainedBean<EmployeeIdStrategy> bean = mock(ContainedBean.class);
+        given(bean.getBeanInstance()).willReturn(strategy);
+        return bean;
+    }
+}
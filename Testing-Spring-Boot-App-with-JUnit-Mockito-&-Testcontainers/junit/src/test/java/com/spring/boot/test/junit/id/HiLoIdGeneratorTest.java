@@ -0,0 +1,63 @@
+package com.spring.boot.test.junit.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HiLoIdGeneratorTest {
+
+    @Test
+    @DisplayName("Given block size when generate a full block then reserve a single block")
+    void givenBlockSize_whenGenerateFullBlock_thenReserveSingleBlock() {
+        // given
+        AtomicInteger reservations = new AtomicInteger();
+        HiLoIdGenerator generator = new HiLoIdGenerator(shard -> {
+            reservations.incrementAndGet();
+            return 7;
+        }, 100);
+
+        // when
+        long[] values = LongStream.range(0, 100).map(i -> generator.nextValue(0)).toArray();
+
+        // then
+        assertThat(reservations).hasValue(1);
+        assertThat(values).containsExactly(LongStream.range(700, 800).toArray());
+    }
+
+    @Test
+    @DisplayName("Given exhausted block when generate then reserve the next block")
+    void givenExhaustedBlock_whenNextValue_thenReserveNextBlock() {
+        // given
+        AtomicInteger blocks = new AtomicInteger();
+        HiLoIdGenerator generator = new HiLoIdGenerator(shard -> blocks.getAndIncrement(), 2);
+
+        // when / then
+        assertThat(LongStream.range(0, 5).map(i -> generator.nextValue(0)).toArray())
+                .containsExactly(0, 1, 2, 3, 4);
+        assertThat(blocks).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Given two shards when generate then each shard uses its own blocks")
+    void givenTwoShards_whenNextValue_thenEachShardUsesOwnBlocks() {
+        // given - cada shard tem a sua tabela de blocos
+        Map<Integer, Long> nextBlock = new HashMap<>();
+        HiLoIdGenerator generator = new HiLoIdGenerator(shard -> nextBlock.merge(shard, 1L, Long::sum) - 1, 10);
+
+        // when
+        long first = generator.nextValue(0);
+        long second = generator.nextValue(1);
+        long third = generator.nextValue(0);
+
+        // then
+        assertThat(first).isEqualTo(0);
+        assertThat(second).isEqualTo(0);
+        assertThat(third).isEqualTo(1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.spring.boot.test.junit.id;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JdbcIdBlockSourceTest {
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // Um banco por teste, com a tabela da migração do H2
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE employee_id_block (name VARCHAR(64) NOT NULL, next_block BIGINT NOT NULL, "
+                    + "CONSTRAINT pk_employee_id_block PRIMARY KEY (name))");
+        }
+    }
+
+    @Test
+    @DisplayName("Given no sequence row when reserve blocks then create it and hand out consecutive blocks")
+    void givenNoSequenceRow_whenNextBlock_thenCreateRowAndReserveConsecutiveBlocks() {
+        JdbcIdBlockSource blockSource = new JdbcIdBlockSource(dataSource, "employee");
+
+        assertThat(IntStream.range(0, 3).mapToLong(i -> blockSource.nextBlock(0)).toArray())
+                .containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Given another instance creating the sequence row when reserve then wait for it and take the next block")
+    void givenConcurrentFirstReservation_whenNextBlock_thenTakeNextBlock() throws Exception {
+        JdbcIdBlockSource blockSource = new JdbcIdBlockSource(dataSource, "employee");
+
+        try (Connection other = dataSource.getConnection()) {
+            // Outra instância criou a linha, reservando o bloco 0, e ainda não confirmou a transação
+            other.setAutoCommit(false);
+            try (Statement statement = other.createStatement()) {
+                statement.execute("INSERT INTO employee_id_block (name, next_block) VALUES ('employee', 1)");
+            }
+
+            CompletableFuture<Long> block = CompletableFuture.supplyAsync(() -> blockSource.nextBlock(0));
+            Thread.sleep(200);
+            other.commit();
+
+            assertThat(block.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+    }
+}
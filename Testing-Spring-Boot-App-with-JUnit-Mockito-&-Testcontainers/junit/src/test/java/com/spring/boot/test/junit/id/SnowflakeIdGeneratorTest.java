@@ -0,0 +1,71 @@
+package com.spring.boot.test.junit.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH_MILLIS + 86_400_000L;
+
+    @Test
+    @DisplayName("Given more values than the sequence holds in one millisecond when generate then values stay unique and increasing")
+    void givenSequenceOverflow_whenNextValue_thenUniqueAndIncreasing() {
+        // given - relógio parado
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, () -> NOW);
+        Set<Long> values = new HashSet<>();
+        long previous = -1;
+
+        // when / then
+        for (int i = 0; i < 5000; i++) {
+            long value = generator.nextValue(0);
+
+            assertThat(value).isGreaterThan(previous).isLessThan(IdGenerator.MAX_VALUE);
+            values.add(value);
+            previous = value;
+        }
+        assertThat(values).hasSize(5000);
+    }
+
+    @Test
+    @DisplayName("Given clock moving backwards when generate then values keep increasing")
+    void givenClockMovingBackwards_whenNextValue_thenValuesKeepIncreasing() {
+        // given
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+        long first = generator.nextValue(0);
+
+        // when
+        clock.addAndGet(-10_000);
+        long second = generator.nextValue(0);
+
+        // then
+        assertThat(second).isGreaterThan(first);
+        assertThat(SnowflakeIdGenerator.timestampOf(second)).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("Given two nodes at the same instant when generate then values differ")
+    void givenTwoNodes_whenNextValue_thenValuesDiffer() {
+        // given
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, () -> NOW);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, () -> NOW);
+
+        // when / then
+        assertThat(first.nextValue(0)).isNotEqualTo(second.nextValue(0));
+        assertThat(SnowflakeIdGenerator.timestampOf(first.nextValue(0))).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("Given node id out of range when create then fail")
+    void givenNodeIdOutOfRange_whenCreate_thenFail() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
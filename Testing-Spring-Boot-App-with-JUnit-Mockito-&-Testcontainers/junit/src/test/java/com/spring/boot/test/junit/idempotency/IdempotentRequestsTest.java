@@ -0,0 +1,133 @@
+package com.spring.boot.test.junit.idempotency;
+
+import com.spring.boot.test.junit.bulkhead.TrafficClass;
+import com.spring.boot.test.junit.exception.BulkheadRejectedException;
+import com.spring.boot.test.junit.exception.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IdempotentRequestsTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    @DisplayName("Given retry while original is in flight when execute then share the original response")
+    void givenRetryWhileInFlight_whenExecute_thenShareOriginalResponse() {
+        IdempotentRequests requests = new IdempotentRequests(Duration.ofMinutes(1), 10, now::get);
+        CompletableFuture<ResponseEntity<String>> pending = new CompletableFuture<>();
+
+        // Original ainda em execução quando a repetição chega
+        CompletableFuture<ResponseEntity<String>> original = requests.execute("key", "body", () -> {
+            executions.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<ResponseEntity<String>> retry = requests.execute("key", "body", this::created);
+
+        assertThat(retry).isNotDone();
+
+        pending.complete(new ResponseEntity<>("saved", HttpStatus.CREATED));
+
+        // Uma única execução; a repetição é marcada
+        assertThat(executions).hasValue(1);
+        assertThat(original.join().getHeaders().containsKey(IdempotentRequests.REPLAYED_HEADER)).isFalse();
+        assertThat(retry.join().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.join().getBody()).isEqualTo("saved");
+        assertThat(retry.join().getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    @DisplayName("Given same key with different request when execute then reject it")
+    void givenSameKeyWithDifferentRequest_whenExecute_thenReject() {
+        IdempotentRequests requests = new IdempotentRequests(Duration.ofMinutes(1), 10, now::get);
+
+        requests.execute("key", "body", this::created);
+
+        assertThatThrownBy(() -> requests.execute("key", "other body", this::created))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given request rejected before running when retried then execute it again")
+    void givenRequestRejectedBeforeRunning_whenRetried_thenExecuteAgain() {
+        IdempotentRequests requests = new IdempotentRequests(Duration.ofMinutes(1), 10, now::get);
+
+        CompletableFuture<ResponseEntity<String>> failed = requests.execute("key", "body",
+                () -> CompletableFuture.failedFuture(new BulkheadRejectedException(TrafficClass.WRITE, "timed out")));
+        assertThat(failed).isCompletedExceptionally();
+
+        // A rejeição do bulkhead garante que nada foi gravado, e não é guardada
+        assertThat(requests.execute("key", "body", this::created).join().getBody()).isEqualTo("created");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given request failing with unknown outcome when retried then replay the failure without executing")
+    void givenRequestFailingWithUnknownOutcome_whenRetried_thenReplayFailure() {
+        IdempotentRequests requests = new IdempotentRequests(Duration.ofMinutes(1), 10, now::get);
+
+        // A falha pode ter ocorrido depois da gravação, por exemplo na efetivação da transação
+        requests.execute("key", "body", () -> CompletableFuture.failedFuture(new IllegalStateException("commit failed")));
+
+        assertThat(requests.execute("key", "body", this::created)).failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(IllegalStateException.class);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Given in-flight request when key limit is exceeded then keep its key")
+    void givenInFlightRequest_whenKeyLimitExceeded_thenKeepItsKey() {
+        IdempotentRequests requests = new IdempotentRequests(Duration.ofMinutes(1), 1, now::get);
+        CompletableFuture<ResponseEntity<String>> pending = new CompletableFuture<>();
+
+        requests.execute("a", "body", () -> pending);
+        requests.execute("b", "body", this::created);
+
+        // "a" ainda executa e não é removida, mesmo acima do limite e depois do prazo
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        requests.execute("c", "body", this::created);
+        requests.execute("a", "body", this::created);
+
+        assertThat(executions).hasValue(2);
+        assertThat(requests.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given expired or evicted keys when execute then execute again and keep the store bounded")
+    void givenExpiredOrEvictedKeys_whenExecute_thenExecuteAgainAndStayBounded() {
+        IdempotentRequests requests = new IdempotentRequests(Duration.ofMinutes(1), 2, now::get);
+
+        // Expiração pelo prazo
+        requests.execute("a", "body", this::created);
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        requests.execute("a", "body", this::created);
+        assertThat(executions).hasValue(2);
+
+        // Limite de chaves: "a" é a mais antiga e é removida
+        requests.execute("b", "body", this::created);
+        requests.execute("c", "body", this::created);
+        assertThat(requests.size()).isEqualTo(2);
+
+        requests.execute("c", "body", this::created);
+        requests.execute("a", "body", this::created);
+        assertThat(executions).hasValue(5);
+    }
+
+    private CompletableFuture<ResponseEntity<String>> created() {
+        executions.incrementAndGet();
+        return CompletableFuture.completedFuture(new ResponseEntity<>("created", HttpStatus.CREATED));
+    }
+}
@@ -5,7 +5,7 @@ import com.spring.boot.test.junit.JunitApplication;
 import com.spring.boot.test.junit.config.TestConfig;
 import com.spring.boot.test.junit.model.Employee;
 import com.spring.boot.test.junit.repository.EmployeeRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.spring.boot.test.junit.support.MySQLIntegrationTest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,10 +13,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
-import org.testcontainers.containers.MySQLContainer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,17 +24,15 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         classes = {JunitApplication.class, TestConfig.class})
 @AutoConfigureMockMvc
-//@Testcontainers
+@MySQLIntegrationTest
 public class EmployeeControllerIT {
-    
-//    @Container
-//    private static MySQLContainer mySQLContainer = new MySQLContainer("mysql:lastest");
-            
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -45,11 +42,6 @@ public class EmployeeControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @BeforeEach
-    void setUp() {
-        employeeRepository.deleteAll();
-    }
-
     // write test cases here
     @Test
     @DisplayName("Given employee object when create employee then return saved employee")
@@ -63,7 +55,7 @@ public class EmployeeControllerIT {
                 .build();
 
         // Chamada HTTP simulada para criar um novo Employee
-        ResultActions response = mockMvc.perform(post("/api/v1/employee")
+        ResultActions response = performAsync(post("/api/v1/employee")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employee)));
 
@@ -100,7 +92,7 @@ public class EmployeeControllerIT {
 
         employeeRepository.saveAll(listOfEmployees);
 
-        ResultActions response = mockMvc.perform(get("/api/v1/employee"));
+        ResultActions response = performAsync(get("/api/v1/employee"));
 
         response.andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(listOfEmployees.size())));
@@ -123,12 +115,12 @@ public class EmployeeControllerIT {
         employeeRepository.save(employee);
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/v1/employee/{id}", employee.getId()));
+        ResultActions response = performAsync(get("/api/v1/employee/{id}", employee.getId()));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isOk())
                 .andDo(print())
-                .andExpect(jsonPath("$.id", is(employee.getId().intValue())))
+                .andExpect(jsonPath("$.id", is(employee.getId())))
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())))
@@ -150,7 +142,7 @@ public class EmployeeControllerIT {
         employeeRepository.save(employee);
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/v1/employee/{id}", employeeId));
+        ResultActions response = performAsync(get("/api/v1/employee/{id}", employeeId));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNotFound())
@@ -182,7 +174,7 @@ public class EmployeeControllerIT {
                 .build();
 
         // Act
-        ResultActions response = mockMvc.perform(put("/api/v1/employee/{id}", employee.getId())
+        ResultActions response = performAsync(put("/api/v1/employee/{id}", employee.getId())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employeeUpdate)));
 
@@ -217,7 +209,7 @@ public class EmployeeControllerIT {
                 .build();
 
         // Act
-        ResultActions response = mockMvc.perform(put("/api/v1/employee/{id}", employeeId)
+        ResultActions response = performAsync(put("/api/v1/employee/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employeeUpdate)));
 
@@ -242,7 +234,7 @@ public class EmployeeControllerIT {
         employeeRepository.save(employee); // Salva o objeto no banco de dados
 
         // Act
-        ResultActions response = mockMvc.perform(delete("/api/v1/employee/{id}", employee.getId()));
+        ResultActions response = performAsync(delete("/api/v1/employee/{id}", employee.getId()));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNoContent())
@@ -264,10 +256,22 @@ public class EmployeeControllerIT {
         employeeRepository.save(employee); // Salva o objeto no banco de dados
 
         // Act
-        ResultActions response = mockMvc.perform(delete("/api/v1/employee/{id}", employeeId));
+        ResultActions response = performAsync(delete("/api/v1/employee/{id}", employeeId));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNotFound())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    /**
+     * Os endpoints executam nos bulkheads e respondem de forma assíncrona: executa a requisição e
+     * despacha o resultado.
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -5,7 +5,9 @@ import com.spring.boot.test.junit.JunitApplication;
 import com.spring.boot.test.junit.config.TestConfig;
 import com.spring.boot.test.junit.model.Employee;
 import com.spring.boot.test.junit.repository.EmployeeRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.spring.boot.test.junit.support.CountQueries;
+import com.spring.boot.test.junit.support.ExpectedQueries;
+import com.spring.boot.test.junit.support.MySQLIntegrationTest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
@@ -22,11 +26,16 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
-        classes = {JunitApplication.class, TestConfig.class})
+        classes = {JunitApplication.class, TestConfig.class},
+        // Sem o tempo de acomodação, a sincronização já devolve as alterações feitas pelo próprio teste
+        properties = "employee.sync.settle-time=PT0S")
 @AutoConfigureMockMvc
+@MySQLIntegrationTest
+@CountQueries
 public class EmployeeControllerIntegrationTests {
 
     @Autowired
@@ -38,14 +47,10 @@ public class EmployeeControllerIntegrationTests {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @BeforeEach
-    void setUp() {
-        employeeRepository.deleteAll();
-    }
-
     // write test cases here
     @Test
     @DisplayName("Given employee object when create employee then return saved employee")
+    @ExpectedQueries(select = 1, insert = 2) // verificação do e-mail, funcionário e evento da outbox
     void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
 
         // Criação de um objeto de Employee para simular a entrada do usuário
@@ -56,7 +61,7 @@ public class EmployeeControllerIntegrationTests {
                 .build();
 
         // Chamada HTTP simulada para criar um novo Employee
-        ResultActions response = mockMvc.perform(post("/api/v1/employee")
+        ResultActions response = performAsync(post("/api/v1/employee")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employee)));
 
@@ -75,6 +80,7 @@ public class EmployeeControllerIntegrationTests {
 
     @Test
     @DisplayName("Given employee object when get all employees then return status ok")
+    @ExpectedQueries(select = 1, insert = 2) // os dois funcionários e uma única consulta, qualquer que seja o total
     void givenEmployeeObject_whenGetAllEmployees_thenReturnStatusOk() throws Exception {
         // Arrange
         List<Employee> listOfEmployees = new ArrayList<>();
@@ -93,7 +99,7 @@ public class EmployeeControllerIntegrationTests {
 
         employeeRepository.saveAll(listOfEmployees);
 
-        ResultActions response = mockMvc.perform(get("/api/v1/employee"));
+        ResultActions response = performAsync(get("/api/v1/employee"));
 
         response.andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(listOfEmployees.size())));
@@ -102,26 +108,24 @@ public class EmployeeControllerIntegrationTests {
 
     @Test
     @DisplayName("Given employee object when get employee by id then return status ok")
+    @ExpectedQueries(select = 1, insert = 1) // o funcionário e a busca por id
     void givenEmployeeObject_whenGetEmployeeById_thenReturnStatusOk() throws Exception {
         // Arrange
 
-        // Criação de um objeto de Employee para simular dados existentes no banco de dados
-        Employee employee = Employee.builder()
-                .id(1L)
+        // Criação de um objeto de Employee para simular dados existentes no banco de dados; o id é do gerador
+        Employee employee = employeeRepository.save(Employee.builder()
                 .firstName("Vinícius")
                 .lastName("Andrade")
                 .email("vinicius_andrade2010@hotmail.com")
-                .build();
-
-        employeeRepository.save(employee);
+                .build());
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/v1/employee/{id}", employee.getId()));
+        ResultActions response = performAsync(get("/api/v1/employee/{id}", employee.getId()));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isOk())
                 .andDo(print())
-                .andExpect(jsonPath("$.id", is(employee.getId().intValue())))
+                .andExpect(jsonPath("$.id", is(employee.getId())))
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())))
@@ -143,7 +147,7 @@ public class EmployeeControllerIntegrationTests {
         employeeRepository.save(employee);
 
         // Act
-        ResultActions response = mockMvc.perform(get("/api/v1/employee/{id}", employeeId));
+        ResultActions response = performAsync(get("/api/v1/employee/{id}", employeeId));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNotFound())
@@ -153,19 +157,17 @@ public class EmployeeControllerIntegrationTests {
 
     @Test
     @DisplayName("Given employee object when update employee then return updated employee")
+    // O funcionário; na alteração, a leitura com bloqueio (findByIdForUpdate), o UPDATE e o evento da outbox
+    @ExpectedQueries(select = 1, insert = 2, update = 1)
     void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() throws Exception {
 
         // Arrange
-        long employeeId = 1L;
-        // Criação de um objeto de Employee para simular dados existentes no banco de dados
-        Employee employee = Employee.builder()
-                .id(employeeId)
+        // Criação de um objeto de Employee para simular dados existentes no banco de dados; o id é do gerador
+        Employee employee = employeeRepository.save(Employee.builder()
                 .firstName("Vinicius")
                 .lastName("Andrade")
                 .email("vinicius_andrade2010@hotmail.com")
-                .build();
-
-        employeeRepository.save(employee); // Salva o objeto no banco de dados
+                .build());
 
         // Criação de um objeto de Employee para simular a entrada do usuário
         Employee employeeUpdate = Employee.builder()
@@ -175,7 +177,7 @@ public class EmployeeControllerIntegrationTests {
                 .build();
 
         // Act
-        ResultActions response = mockMvc.perform(put("/api/v1/employee/{id}", employee.getId())
+        ResultActions response = performAsync(put("/api/v1/employee/{id}", employee.getId())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employeeUpdate)));
 
@@ -210,7 +212,7 @@ public class EmployeeControllerIntegrationTests {
                 .build();
 
         // Act
-        ResultActions response = mockMvc.perform(put("/api/v1/employee/{id}", employeeId)
+        ResultActions response = performAsync(put("/api/v1/employee/{id}", employeeId)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(employeeUpdate)));
 
@@ -221,21 +223,19 @@ public class EmployeeControllerIntegrationTests {
 
     @Test
     @DisplayName("Given employee object when delete employee then return status no content")
+    // O funcionário; a exclusão é lógica, então é uma leitura, uma alteração e o evento da outbox
+    @ExpectedQueries(select = 1, insert = 2, update = 1)
     void givenEmployeeObject_whenDeleteEmployee_thenReturnStatusNoContent() throws Exception {
         // Arrange
-        long employeeId = 1L;
-        // Criação de um objeto de Employee para simular dados existentes no banco de dados
-        Employee employee = Employee.builder()
-                .id(employeeId)
+        // Criação de um objeto de Employee para simular dados existentes no banco de dados; o id é do gerador
+        Employee employee = employeeRepository.save(Employee.builder()
                 .firstName("Vinícius")
                 .lastName("Andrade")
                 .email("vinicius_andrade2010@hotmail.com")
-                .build();
-
-        employeeRepository.save(employee); // Salva o objeto no banco de dados
+                .build());
 
         // Act
-        ResultActions response = mockMvc.perform(delete("/api/v1/employee/{id}", employee.getId()));
+        ResultActions response = performAsync(delete("/api/v1/employee/{id}", employee.getId()));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNoContent())
@@ -257,10 +257,48 @@ public class EmployeeControllerIntegrationTests {
         employeeRepository.save(employee); // Salva o objeto no banco de dados
 
         // Act
-        ResultActions response = mockMvc.perform(delete("/api/v1/employee/{id}", employeeId));
+        ResultActions response = performAsync(delete("/api/v1/employee/{id}", employeeId));
 
         // Asserts para verificar se a resposta é conforme o esperado
         response.andExpect(status().isNotFound())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Given employees when get changes since then return them in a single select")
+    @ExpectedQueries(select = 1, insert = 2) // os dois funcionários e uma única consulta por página
+    void givenEmployees_whenGetChangesSince_thenReturnThemInSingleSelect() throws Exception {
+        // Arrange
+        employeeRepository.saveAll(List.of(
+                Employee.builder()
+                        .firstName("Vinícius")
+                        .lastName("Andrade")
+                        .email("vinicius_andrade2010@hotmail.com")
+                        .build(),
+                Employee.builder()
+                        .firstName("Arthur")
+                        .lastName("Andrade")
+                        .email("arthurdsandrade2008@gmail.com")
+                        .build()));
+
+        // Act
+        ResultActions response = performAsync(get("/api/v1/employee/changes-since").param("limit", "10"));
+
+        // Asserts para verificar se a resposta é conforme o esperado
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees.length()", is(2)))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    /**
+     * Os endpoints executam nos bulkheads e respondem de forma assíncrona: executa a requisição e
+     * despacha o resultado.
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,123 @@
+package com.spring.boot.test.junit.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede as migrações de {@code db/migration/mysql} sobre uma tabela {@code employee} grande, em um MySQL real,
+ * e verifica que as alterações declaradas como online não bloqueiam as escritas enquanto são executadas.
+ * <p>
+ * O número de funcionários pode ser alterado com {@code -Demployee.migration.rows}.
+ */
+@DisabledInNativeImage
+@Testcontainers(disabledWithoutDocker = true)
+public class SchemaMigrationIntegrationTests {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrationIntegrationTests.class);
+
+    private static final int ROWS = Integer.getInteger("employee.migration.rows", 1_000_000);
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("db_employee_junit");
+
+    @Test
+    @DisplayName("Given large employee table when migrate to latest version then writes are not blocked")
+    void givenLargeEmployeeTable_whenMigrate_thenWritesAreNotBlocked() throws Exception {
+        // given - o esquema da versão 1 com a tabela populada
+        flyway(MigrationVersion.fromVersion("1")).migrate();
+        seedEmployees();
+
+        AtomicBoolean migrating = new AtomicBoolean(true);
+        CompletableFuture<Long> maxWriteNanos = CompletableFuture.supplyAsync(() -> updateWhile(migrating));
+
+        // when - as demais migrações, com escritas concorrentes
+        long start = System.nanoTime();
+        MigrateResult result;
+        try {
+            result = flyway(MigrationVersion.LATEST).migrate();
+        } finally {
+            migrating.set(false);
+        }
+        Duration migration = Duration.ofNanos(System.nanoTime() - start);
+        Duration slowestWrite = Duration.ofNanos(maxWriteNanos.get());
+
+        log.info("Migrated {} employees from version 1 to {} in {} ms; slowest concurrent update took {} ms",
+                ROWS, result.targetSchemaVersion, migration.toMillis(), slowestWrite.toMillis());
+
+        // then - a migração terminou e nenhuma escrita esperou por ela
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isPositive();
+        assertThat(jdbc().queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'employee' AND index_name = 'idx_employee_email'",
+                Integer.class)).isPositive();
+        assertThat(slowestWrite).isLessThan(migration.dividedBy(2));
+    }
+
+    private Flyway flyway(MigrationVersion target) {
+        return Flyway.configure()
+                .dataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())
+                .locations("classpath:db/migration/mysql")
+                .target(target)
+                .load();
+    }
+
+    private void seedEmployees() {
+        SingleConnectionDataSource connection = new SingleConnectionDataSource(
+                mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword(), true);
+        try {
+            JdbcTemplate jdbc = new JdbcTemplate(connection);
+
+            jdbc.execute("SET SESSION cte_max_recursion_depth = " + ROWS);
+            jdbc.update("INSERT INTO employee (id, first_name, last_name, email) " +
+                    "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) " +
+                    "SELECT n, CONCAT('first', n MOD 1000), CONCAT('last', n MOD 997), CONCAT('employee', n, '@example.com') " +
+                    "FROM seq", ROWS);
+        } finally {
+            connection.destroy();
+        }
+    }
+
+    /**
+     * Atualiza funcionários aleatórios até a migração terminar.
+     *
+     * @return A duração, em nanossegundos, da atualização mais lenta.
+     */
+    private long updateWhile(AtomicBoolean migrating) {
+        JdbcTemplate jdbc = jdbc();
+        long slowest = 0;
+
+        while (migrating.get()) {
+            long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+            long start = System.nanoTime();
+
+            jdbc.update("UPDATE employee SET last_name = ? WHERE id = ?", "updated", id);
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        return slowest;
+    }
+
+    private static JdbcTemplate jdbc() {
+        return new JdbcTemplate(new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword()));
+    }
+}
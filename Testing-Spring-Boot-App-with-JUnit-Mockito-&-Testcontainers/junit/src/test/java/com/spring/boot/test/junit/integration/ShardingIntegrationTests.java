@@ -0,0 +1,131 @@
+package com.spring.boot.test.junit.integration;
+
+import com.spring.boot.test.junit.JunitApplication;
+import com.spring.boot.test.junit.config.TestConfig;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.service.AsyncEmployeeService;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.shard.ShardContext;
+import com.spring.boot.test.junit.shard.ShardResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica o sharding com dois bancos H2 em memória, com o esquema das migrações, na execução padrão dos testes:
+ * roteamento por hash e por tenant, ids únicos entre os shards e scatter-gather nas listagens e buscas, pelos
+ * bulkheads.
+ */
+@DisabledInNativeImage
+@ActiveProfiles("h2")
+@SpringBootTest(classes = {JunitApplication.class, TestConfig.class}, properties = {
+        "employee.sharding.enabled=true",
+        "employee.sharding.tenants.acme=1",
+        "employee.sharding.shards[0].url=" + ShardingIntegrationTests.SHARD0,
+        "employee.sharding.shards[0].username=sa",
+        "employee.sharding.shards[1].url=" + ShardingIntegrationTests.SHARD1,
+        "employee.sharding.shards[1].username=sa"
+})
+public class ShardingIntegrationTests {
+
+    static final String SHARD0 = "jdbc:h2:mem:employee_shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String SHARD1 = "jdbc:h2:mem:employee_shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String shard0 = SHARD0;
+    private static final String shard1 = SHARD1;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private AsyncEmployeeService asyncEmployeeService;
+
+    @Autowired
+    private ShardResolver shardResolver;
+
+    @BeforeEach
+    void setUp() {
+        for (String shard : List.of(shard0, shard1)) {
+            jdbc(shard).execute("DELETE FROM employee");
+            jdbc(shard).execute("DELETE FROM employee_outbox");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.clear();
+    }
+
+    @Test
+    @DisplayName("Given employees saved without tenant when list them then spread over shards with shard safe ids")
+    void givenEmployeesWithoutTenant_whenGetAll_thenSpreadOverShardsWithShardSafeIds() {
+        for (int i = 0; i < 20; i++)
+            employeeService.saveEmployee(employee("Vinícius", "employee" + i + "@example.com"));
+
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        assertThat(employees).hasSize(20);
+        assertThat(employees).extracting(Employee::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(countOn(shard0)).isPositive();
+        assertThat(countOn(shard1)).isPositive();
+
+        // Cada id leva ao shard onde o registro foi gravado
+        for (Employee employee : employees) {
+            String origin = shardResolver.shardForId(employee.getId()) == 0 ? shard0 : shard1;
+            assertThat(jdbc(origin).queryForObject("SELECT COUNT(*) FROM employee WHERE id = ?",
+                    Integer.class, employee.getId())).isEqualTo(1);
+            assertThat(employeeService.getEmployeeById(employee.getId())).contains(employee);
+        }
+    }
+
+    @Test
+    @DisplayName("Given homonyms on different shards when search by name then gather them from every shard")
+    void givenHomonymsOnDifferentShards_whenSearchByName_thenGatherFromEveryShard() {
+        ShardContext.runOn(0, () -> employeeService.saveEmployee(employee("Arthur", "arthur0@example.com")));
+        ShardContext.runOn(1, () -> employeeService.saveEmployee(employee("Arthur", "arthur1@example.com")));
+
+        // Pelo bulkhead de leituras pontuais, que consulta os shards em paralelo
+        assertThat(asyncEmployeeService.searchEmployeesByName("Arthur", "Andrade").join())
+                .extracting(Employee::getEmail)
+                .containsExactlyInAnyOrder("arthur0@example.com", "arthur1@example.com");
+    }
+
+    @Test
+    @DisplayName("Given pinned tenant when save employees then store all of them on the tenant shard")
+    void givenPinnedTenant_whenSaveEmployees_thenStoreOnTenantShard() {
+        ShardContext.set(shardResolver.shardForTenant("acme"));
+        for (int i = 0; i < 5; i++)
+            employeeService.saveEmployee(employee("Vinícius", "acme" + i + "@example.com"));
+        ShardContext.clear();
+
+        assertThat(countOn(shard0)).isZero();
+        assertThat(countOn(shard1)).isEqualTo(5);
+    }
+
+    private static JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(new DriverManagerDataSource(shard, "sa", ""));
+    }
+
+    private static int countOn(String shard) {
+        return jdbc(shard).queryForObject("SELECT COUNT(*) FROM employee", Integer.class);
+    }
+
+    private static Employee employee(String firstName, String email) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Andrade")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.spring.boot.test.junit.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spring.boot.test.junit.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeJsonSerializerTest {
+
+    private ObjectMapper reflectiveMapper;
+    private ObjectMapper handWrittenMapper;
+
+    @BeforeEach
+    public void setUp() {
+        reflectiveMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        handWrittenMapper = reflectiveMapper.copy()
+                .registerModule(new SimpleModule().addSerializer(new EmployeeJsonSerializer()));
+    }
+
+    @Test
+    @DisplayName("Given employee when serialize then produce the same JSON as the bean serializer")
+    void givenEmployee_whenSerialize_thenSameJsonAsBeanSerializer() throws Exception {
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("vinicius_andrade2010@hotmail.com")
+                .updatedAt(Instant.parse("2024-01-15T10:15:30.123456Z"))
+                .deleted(true)
+                .build();
+
+        assertThat(handWrittenMapper.writeValueAsString(employee))
+                .isEqualTo(reflectiveMapper.writeValueAsString(employee));
+    }
+
+    @Test
+    @DisplayName("Given employee with null fields when serialize then write nulls like the bean serializer")
+    void givenEmployeeWithNullFields_whenSerialize_thenWriteNulls() throws Exception {
+        Employee employee = Employee.builder()
+                .firstName("Arthur")
+                .build();
+
+        assertThat(handWrittenMapper.writeValueAsString(employee))
+                .isEqualTo(reflectiveMapper.writeValueAsString(employee));
+    }
+
+    @Test
+    @DisplayName("Given list of employees when serialize then round trip back to the same employees")
+    void givenEmployeeList_whenSerialize_thenRoundTrip() throws Exception {
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Vinícius").lastName("Andrade").email("vinicius_andrade2010@hotmail.com").build(),
+                Employee.builder().id(2L).firstName("Arthur").lastName("Andrade").email("arthurdsandrade2008@gmail.com").build());
+
+        String json = handWrittenMapper.writeValueAsString(employees);
+
+        assertThat(handWrittenMapper.readerForListOf(Employee.class).<List<Employee>>readValue(json))
+                .isEqualTo(employees);
+    }
+}
@@ -0,0 +1,290 @@
+package com.spring.boot.test.junit.notification;
+
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+import com.spring.boot.test.junit.repository.EmployeeOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeBroadcasterTest {
+
+    private static final Duration SETTLE_DELAY = Duration.ofSeconds(2);
+
+    @Mock
+    private EmployeeOutboxRepository outboxRepository;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-15T10:00:00Z"));
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Given events not yet settled when poll then deliver only the settled prefix and advance later")
+    void givenUnsettledEvents_whenPoll_thenDeliverSettledPrefixOnly() throws Exception {
+        EmployeeChangeBroadcaster broadcaster = broadcaster(16);
+        given(outboxRepository.findLastIdCreatedUntil(any())).willReturn(10L);
+        broadcaster.poll();
+        RecordingEmitter emitter = subscribe(broadcaster, null);
+
+        // O evento 12 ainda está no prazo de acomodação: o 13 espera por ele
+        given(outboxRepository.findAfter(eq(10L), any(Limit.class)))
+                .willReturn(List.of(event(11, SETTLE_DELAY), event(12, Duration.ZERO), event(13, SETTLE_DELAY)));
+        broadcaster.poll();
+        flushDispatcher();
+        assertThat(emitter.sent()).containsExactly("11");
+
+        clock.advance(SETTLE_DELAY);
+        given(outboxRepository.findAfter(eq(11L), any(Limit.class)))
+                .willReturn(List.of(event(12, SETTLE_DELAY), event(13, SETTLE_DELAY)));
+        broadcaster.poll();
+        flushDispatcher();
+        assertThat(emitter.sent()).containsExactly("11", "12", "13");
+    }
+
+    @Test
+    @DisplayName("Given slow subscriber when its queue fills then disconnect it")
+    void givenSlowSubscriber_whenQueueFills_thenDisconnectIt() throws Exception {
+        EmployeeChangeBroadcaster broadcaster = broadcaster(2);
+        given(outboxRepository.findLastIdCreatedUntil(any())).willReturn(0L);
+        broadcaster.poll();
+
+        // As threads de envio estão ocupadas, e a fila do assinante não é esvaziada
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        RecordingEmitter emitter = subscribe(broadcaster, null);
+
+        given(outboxRepository.findAfter(eq(0L), any(Limit.class)))
+                .willReturn(List.of(event(1, SETTLE_DELAY), event(2, SETTLE_DELAY), event(3, SETTLE_DELAY)));
+        broadcaster.poll();
+
+        // O assinante sai na hora; a conexão é encerrada pelas threads de envio, quando ficam livres
+        assertThat(broadcaster.getSubscriberCount()).isZero();
+        release.countDown();
+        flushDispatcher();
+        assertThat(emitter.completed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given subscriber blocked in send when another poll overflows its queue then do not stall the poll")
+    void givenSubscriberBlockedInSend_whenQueueOverflows_thenPollAndSubscribeDoNotWait() throws Exception {
+        // Uma thread de envio fica presa na escrita para o cliente lento, segurando o monitor do emitter
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEmitter slow = new BlockingEmitter(sending, release);
+        List<SseEmitter> connections = new CopyOnWriteArrayList<>(List.of(slow));
+        Supplier<SseEmitter> emitters = () -> connections.isEmpty() ? new RecordingEmitter() : connections.remove(0);
+        EmployeeChangeBroadcaster broadcaster = new EmployeeChangeBroadcaster(outboxRepository, null, 16, 1,
+                SETTLE_DELAY, 100, dispatcher, emitters, clock);
+        given(outboxRepository.findLastIdCreatedUntil(any())).willReturn(0L);
+        broadcaster.poll();
+        broadcaster.subscribe(null);
+
+        given(outboxRepository.findAfter(eq(0L), any(Limit.class))).willReturn(List.of(event(1, SETTLE_DELAY)));
+        broadcaster.poll();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - os próximos eventos não cabem na fila do cliente lento
+        given(outboxRepository.findAfter(eq(1L), any(Limit.class)))
+                .willReturn(List.of(event(2, SETTLE_DELAY), event(3, SETTLE_DELAY)));
+        ExecutorService relay = Executors.newSingleThreadExecutor();
+        try {
+            relay.submit(broadcaster::poll).get(5, TimeUnit.SECONDS);
+
+            // then - o poll termina, o cliente sai da lista e novas assinaturas não esperam pela escrita
+            assertThat(broadcaster.getSubscriberCount()).isZero();
+            relay.submit(() -> broadcaster.subscribe(null)).get(5, TimeUnit.SECONDS);
+            assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            relay.shutdownNow();
+        }
+
+        flushDispatcher();
+        assertThat(slow.completed).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given last event id before the buffered window when subscribe then resync, otherwise resume")
+    void givenLastEventId_whenSubscribe_thenResumeOrResync() throws Exception {
+        EmployeeChangeBroadcaster broadcaster = broadcaster(16);
+
+        // Antes da primeira leitura da outbox, nada garante que o buffer tenha os eventos perdidos
+        RecordingEmitter beforeStart = subscribe(broadcaster, 10L);
+
+        given(outboxRepository.findLastIdCreatedUntil(any())).willReturn(10L);
+        given(outboxRepository.findAfter(eq(10L), any(Limit.class))).willReturn(List.of(event(11, SETTLE_DELAY)));
+        broadcaster.poll();
+
+        // O cursor inicial é 10: quem parou no 5 perdeu eventos que o buffer nunca teve
+        RecordingEmitter stale = subscribe(broadcaster, 5L);
+        RecordingEmitter resumed = subscribe(broadcaster, 10L);
+
+        flushDispatcher();
+        assertThat(beforeStart.sent()).containsExactly("resync", "11");
+        assertThat(stale.sent()).containsExactly("resync");
+        assertThat(resumed.sent()).containsExactly("11");
+    }
+
+    /**
+     * Espera os envios já agendados; a thread única de envio executa as tarefas em ordem.
+     */
+    private void flushDispatcher() throws Exception {
+        dispatcher.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private EmployeeChangeBroadcaster broadcaster(int subscriberQueueCapacity) {
+        return new EmployeeChangeBroadcaster(outboxRepository, null, 16, subscriberQueueCapacity, SETTLE_DELAY, 100,
+                dispatcher, () -> {
+                    RecordingEmitter emitter = new RecordingEmitter();
+                    emitters.add(emitter);
+                    return emitter;
+                }, clock);
+    }
+
+    private RecordingEmitter subscribe(EmployeeChangeBroadcaster broadcaster, Long lastEventId) {
+        broadcaster.subscribe(lastEventId);
+        return emitters.get(emitters.size() - 1);
+    }
+
+    /**
+     * Evento gravado {@code age} antes do instante atual do relógio.
+     */
+    private EmployeeOutboxEvent event(long id, Duration age) {
+        return EmployeeOutboxEvent.builder()
+                .id(id)
+                .eventType(EmployeeEventType.UPDATED)
+                .employeeId(id)
+                .payload("{\"id\":" + id + "}")
+                .createdAt(clock.instant().minus(age))
+                .build();
+    }
+
+    /**
+     * Registra o id de cada evento enviado, ou o nome do evento quando ele não tem id.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String event = builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining());
+
+            if (event.startsWith("id:"))
+                events.add(event.substring(3, event.indexOf('\n')));
+            else if (event.startsWith("event:"))
+                events.add(event.substring(6, event.indexOf('\n')));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        private List<String> sent() {
+            return events;
+        }
+    }
+
+    /**
+     * Bloqueia o primeiro envio até ser liberado; como em {@link SseEmitter}, o envio e o encerramento são
+     * sincronizados no próprio emitter.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending;
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        private BlockingEmitter(CountDownLatch sending, CountDownLatch release) {
+            this.sending = sending;
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.spring.boot.test.junit.notification;
+
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.outbox.EmployeeEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeEventRingBufferTest {
+
+    @Test
+    @DisplayName("Given buffered events when events after last id then return only the newer events in order")
+    void givenBufferedEvents_whenEventsAfter_thenReturnNewerEvents() {
+        EmployeeEventRingBuffer buffer = new EmployeeEventRingBuffer(4);
+
+        for (long id = 1; id <= 3; id++)
+            buffer.add(event(id));
+
+        assertThat(buffer.eventsAfter(1L)).hasValueSatisfying(events ->
+                assertThat(events).extracting(EmployeeEvent::id).containsExactly(2L, 3L));
+        assertThat(buffer.eventsAfter(3L)).hasValueSatisfying(events -> assertThat(events).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Given full buffer when add then evict the oldest event")
+    void givenFullBuffer_whenAdd_thenEvictOldestEvent() {
+        EmployeeEventRingBuffer buffer = new EmployeeEventRingBuffer(3);
+
+        for (long id = 1; id <= 5; id++)
+            buffer.add(event(id));
+
+        assertThat(buffer.eventsAfter(2L)).hasValueSatisfying(events ->
+                assertThat(events).extracting(EmployeeEvent::id).containsExactly(3L, 4L, 5L));
+    }
+
+    @Test
+    @DisplayName("Given last id older than the buffer when events after then require resync")
+    void givenLastIdOlderThanBuffer_whenEventsAfter_thenRequireResync() {
+        EmployeeEventRingBuffer buffer = new EmployeeEventRingBuffer(3);
+
+        for (long id = 1; id <= 5; id++)
+            buffer.add(event(id));
+
+        assertThat(buffer.eventsAfter(1L)).isEmpty();
+    }
+
+    private static EmployeeEvent event(long id) {
+        return new EmployeeEvent(id, EmployeeEventType.UPDATED, id, "{\"id\":" + id + "}", Instant.now());
+    }
+}
@@ -0,0 +1,119 @@
+package com.spring.boot.test.junit.outbox;
+
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.model.EmployeeOutboxEvent;
+import com.spring.boot.test.junit.repository.EmployeeOutboxRepository;
+import com.spring.boot.test.junit.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+public class EmployeeOutboxRelayTest {
+
+    @Mock
+    private EmployeeOutboxRepository outboxRepository;
+
+    @Mock
+    private ObjectProvider<EmployeeEventSink> sinkProvider;
+
+    @Mock
+    private ObjectProvider<ShardRouter> shardRouterProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryEmployeeEventSink memorySink;
+
+    private EmployeeOutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        memorySink = new InMemoryEmployeeEventSink(100);
+        given(sinkProvider.orderedStream()).willReturn(Stream.of(memorySink));
+
+        relay = new EmployeeOutboxRelay(outboxRepository, sinkProvider, shardRouterProvider, transactionManager, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Given pending outbox events when relay then publish them in batches and mark them as published")
+    void givenPendingEvents_whenRelay_thenPublishInBatchesAndMarkPublished() {
+        // Configuração: três eventos pendentes, lidos em dois lotes de no máximo dois eventos
+        given(outboxRepository.findUnpublished(any(Pageable.class)))
+                .willReturn(List.of(outboxEvent(1L), outboxEvent(2L)))
+                .willReturn(List.of(outboxEvent(3L)));
+
+        // Ação
+        relay.relay();
+
+        // Verificação: os três eventos chegaram ao destino, em ordem, e os dois lotes foram marcados
+        assertThat(memorySink.drain())
+                .extracting(EmployeeEvent::id)
+                .containsExactly(1L, 2L, 3L);
+
+        verify(outboxRepository, times(2)).findUnpublished(any(Pageable.class));
+        verify(outboxRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxRepository).markPublished(eq(List.of(3L)), any());
+    }
+
+    @Test
+    @DisplayName("Given no pending outbox events when relay then publish nothing")
+    void givenNoPendingEvents_whenRelay_thenPublishNothing() {
+        given(outboxRepository.findUnpublished(any(Pageable.class))).willReturn(Collections.emptyList());
+
+        relay.relay();
+
+        assertThat(memorySink.drain()).isEmpty();
+        verify(outboxRepository, never()).markPublished(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Given failing sink when relay then keep the batch pending")
+    void givenFailingSink_whenRelay_thenKeepBatchPending() {
+        EmployeeEventSink failingSink = events -> {
+            throw new IllegalStateException("broker unavailable");
+        };
+        given(sinkProvider.orderedStream()).willReturn(Stream.of(failingSink));
+        relay = new EmployeeOutboxRelay(outboxRepository, sinkProvider, shardRouterProvider, transactionManager, 2, Duration.ofHours(1));
+
+        given(outboxRepository.findUnpublished(any(Pageable.class))).willReturn(List.of(outboxEvent(1L)));
+
+        relay.relay();
+
+        verify(outboxRepository, never()).markPublished(anyCollection(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    private static EmployeeOutboxEvent outboxEvent(long id) {
+        return EmployeeOutboxEvent.builder()
+                .id(id)
+                .eventType(EmployeeEventType.CREATED)
+                .employeeId(id)
+                .payload("{\"id\":" + id + "}")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
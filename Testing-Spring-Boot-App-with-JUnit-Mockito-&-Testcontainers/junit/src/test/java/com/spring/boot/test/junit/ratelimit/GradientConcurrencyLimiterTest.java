@@ -0,0 +1,83 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GradientConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Given limit reached when acquire then reject until a permit is released")
+    void givenLimitReached_whenAcquire_thenRejectUntilRelease() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10);
+
+        GradientConcurrencyLimiter.Permit first = limiter.tryAcquire(0).orElseThrow();
+        limiter.tryAcquire(0).orElseThrow();
+
+        assertThat(limiter.tryAcquire(0)).isEmpty();
+
+        limiter.release(first, MILLIS, false);
+
+        assertThat(limiter.tryAcquire(MILLIS)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Given stable latency at the limit when release then grow the limit")
+    void givenStableLatency_whenRelease_thenGrowLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(4, 1, 100);
+
+        runBatches(limiter, 50, MILLIS);
+
+        assertThat(limiter.getLimit()).isGreaterThan(4);
+    }
+
+    @Test
+    @DisplayName("Given growing latency at the limit when release then shrink the limit")
+    void givenGrowingLatency_whenRelease_thenShrinkLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100);
+
+        runBatches(limiter, 20, MILLIS);
+        int before = limiter.getLimit();
+
+        runBatches(limiter, 20, 20 * MILLIS);
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("Given failed requests when release then free the permit without sampling latency")
+    void givenFailedRequests_whenRelease_thenFreePermitWithoutSampling() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(1, 1, 10);
+
+        for (int i = 0; i < 100; i++)
+            limiter.release(limiter.tryAcquire(0).orElseThrow(), 100 * MILLIS, true);
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    /**
+     * Ocupa todo o limite atual e devolve as permissões com a latência informada, repetidas vezes.
+     */
+    private static void runBatches(GradientConcurrencyLimiter limiter, int batches, long latency) {
+        long now = 0;
+
+        for (int batch = 0; batch < batches; batch++) {
+            List<GradientConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            limiter.tryAcquire(now).ifPresent(permits::add);
+            while (permits.size() < limiter.getLimit())
+                limiter.tryAcquire(now).ifPresent(permits::add);
+
+            now += latency;
+            for (GradientConcurrencyLimiter.Permit permit : permits)
+                limiter.release(permit, now, false);
+        }
+    }
+}
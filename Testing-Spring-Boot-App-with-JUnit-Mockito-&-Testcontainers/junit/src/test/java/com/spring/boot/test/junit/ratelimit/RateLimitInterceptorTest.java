@@ -0,0 +1,102 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import com.spring.boot.test.junit.bulkhead.EmployeeBulkheads;
+import com.spring.boot.test.junit.config.RateLimitConfig;
+import com.spring.boot.test.junit.controller.EmployeeController;
+import com.spring.boot.test.junit.idempotency.IdempotentRequests;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.service.impl.BulkheadEmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.context.aot.DisabledInAotMode;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisabledInAotMode
+@WebMvcTest(controllers = EmployeeController.class, properties = {
+        "employee.rate-limit.endpoints.getAllEmployees.capacity=2",
+        "employee.rate-limit.endpoints.getAllEmployees.refill-per-second=0.01",
+        // As requisições assíncronas não despachadas continuam ocupando o limite de concorrência
+        "employee.rate-limit.endpoints.getAllEmployees.initial-concurrency=8",
+        "employee.rate-limit.trusted-proxies=127.0.0.1"
+})
+@Import({RateLimitConfig.class, EmployeeBulkheads.class, BulkheadEmployeeService.class, IdempotentRequests.class})
+public class RateLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @Test
+    @DisplayName("Given client over its budget when get all employees then return 429 without calling the service")
+    void givenClientOverBudget_whenGetAllEmployees_thenReturnTooManyRequests() throws Exception {
+        given(employeeService.getAllEmployees()).willReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/employee").header("X-Client-Id", "noisy")).andExpect(request().asyncStarted());
+        mockMvc.perform(get("/api/v1/employee").header("X-Client-Id", "noisy")).andExpect(request().asyncStarted());
+
+        mockMvc.perform(get("/api/v1/employee").header("X-Client-Id", "noisy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // O orçamento é por cliente: outro cliente continua sendo atendido
+        mockMvc.perform(get("/api/v1/employee").header("X-Client-Id", "quiet")).andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("Given client id header from an untrusted address when get all employees then limit by address")
+    void givenClientIdFromUntrustedAddress_whenGetAllEmployees_thenLimitByAddress() throws Exception {
+        given(employeeService.getAllEmployees()).willReturn(List.of());
+
+        // Um novo identificador a cada requisição não renova o orçamento de quem não passa por um proxy confiável
+        for (int i = 0; i < 2; i++)
+            mockMvc.perform(get("/api/v1/employee").with(remoteAddress("203.0.113.7")).header("X-Client-Id", "id-" + i))
+                    .andExpect(request().asyncStarted());
+
+        mockMvc.perform(get("/api/v1/employee").with(remoteAddress("203.0.113.7")).header("X-Client-Id", "id-2"))
+                .andExpect(status().isTooManyRequests());
+
+        // O usuário autenticado tem orçamento próprio, mesmo no endereço já limitado
+        mockMvc.perform(get("/api/v1/employee").with(remoteAddress("203.0.113.7")).principal(() -> "vinicius"))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("Given tight budget on get all employees when get by id then use the default budget")
+    void givenTightBudgetOnList_whenGetById_thenUseDefaultBudget() throws Exception {
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(Employee.builder()
+                .id(1L)
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("vinicius_andrade2010@hotmail.com")
+                .build()));
+
+        for (int i = 0; i < 10; i++)
+            mockMvc.perform(get("/api/v1/employee/{id}", 1L).header("X-Client-Id", "point-reader"))
+                    .andExpect(request().asyncStarted());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
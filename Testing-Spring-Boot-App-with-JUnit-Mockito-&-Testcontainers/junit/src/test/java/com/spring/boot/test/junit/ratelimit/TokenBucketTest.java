@@ -0,0 +1,57 @@
+package com.spring.boot.test.junit.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Given full bucket when consume beyond capacity then reject with the time until the next token")
+    void givenFullBucket_whenConsumeBeyondCapacity_thenRejectWithWaitTime() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+
+        // Com 2 tokens por segundo, o próximo token fica disponível em meio segundo
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    @DisplayName("Given empty bucket when time passes then refill up to the capacity")
+    void givenEmptyBucket_whenTimePasses_thenRefillUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.tryConsume(SECOND)).isZero();
+        assertThat(bucket.tryConsume(SECOND)).isPositive();
+
+        assertThat(bucket.tryConsume(10 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(10 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(10 * SECOND)).isPositive();
+    }
+
+    @Test
+    @DisplayName("Given more clients than the limit when acquire then evict the least recently used bucket")
+    void givenMoreClientsThanLimit_whenAcquire_thenEvictLeastRecentlyUsed() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 2);
+
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+        assertThat(limiter.tryAcquire("a", 0)).isPositive();
+
+        // "b" é o cliente há mais tempo sem requisições: o bucket dele dá lugar ao de "c"
+        assertThat(limiter.tryAcquire("c", 0)).isZero();
+        assertThat(limiter.getClientCount()).isEqualTo(2);
+        assertThat(limiter.tryAcquire("a", 0)).isPositive();
+        assertThat(limiter.tryAcquire("b", 0)).isZero();
+    }
+}
@@ -1,17 +1,25 @@
 package com.spring.boot.test.junit.repository;
 
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.support.CountQueries;
+import com.spring.boot.test.junit.support.ExpectedQueries;
+import com.spring.boot.test.junit.support.MySQLIntegrationTest;
+import com.spring.boot.test.junit.support.QueryCount;
+import com.spring.boot.test.junit.support.QueryCounter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -21,11 +29,19 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
  */
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@MySQLIntegrationTest
+@CountQueries
 public class EmployeeRepositoryIntegrationTests {
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
     private Employee empregado1;
 
     /**
@@ -35,8 +51,6 @@ public class EmployeeRepositoryIntegrationTests {
     @BeforeEach
     public void setUp() {
 
-        employeeRepository.deleteAll();
-
         empregado1 = Employee.builder()
                 .firstName("Vinícius")
                 .lastName("Andrade")
@@ -208,126 +222,192 @@ public class EmployeeRepositoryIntegrationTests {
     }
 
     /**
-     * Caso de teste para verificar a busca de um objeto {@link Employee} usando JPQL (Java Persistence Query Language) no repositório.
+     * Caso de teste para verificar a busca de funcionários pelo primeiro nome e sobrenome no repositório.
      * <p>
      * Dado um objeto {@link Employee} salvo,
-     * quando a busca é realizada usando JPQL no {@link EmployeeRepository},
-     * então o funcionário retornado não deve ser nulo e seus atributos devem corresponder ao funcionário salvo.
+     * quando a busca é realizada pelo primeiro nome e sobrenome no {@link EmployeeRepository},
+     * então a lista retornada deve conter apenas o funcionário salvo.
      */
     @Test
-    @DisplayName("Given Employee Object When Find By JPQL Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByJPQL_thenReturnEmployeeObject() {
-
-
+    @DisplayName("Given Employee Object When Find By Name Then Return Employee List")
+    @ExpectedQueries(select = 1, insert = 1) // a consulta descarrega a inclusão pendente antes de executar
+    public void givenEmployeeObject_whenFindByName_thenReturnEmployeeList() {
         employeeRepository.save(empregado1);
 
-        // when - find employee by JPQL
-        Employee employeeDB = employeeRepository.findByJPQL(empregado1.getFirstName(), empregado1.getLastName());
+        // when - find employees by first name and last name
+        List<Employee> employees = employeeRepository.findByName(empregado1.getFirstName(), empregado1.getLastName());
 
         // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
-
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        assertThat(employees).hasSize(1);
+        assertEquals("Vinícius", employees.get(0).getFirstName());
+        assertEquals("Andrade", employees.get(0).getLastName());
+        assertEquals("vinicius_andrade2010@hotmail.com", employees.get(0).getEmail());
     }
 
     /**
-     * Caso de teste para verificar a busca de um objeto {@link Employee} usando uma consulta nativa no repositório.
+     * Caso de teste para verificar a busca pelo nome quando há funcionários homônimos.
      * <p>
-     * Dado um objeto {@link Employee} salvo,
-     * quando a busca é realizada usando uma consulta nativa no {@link EmployeeRepository},
-     * então o funcionário retornado não deve ser nulo e seus atributos devem corresponder ao funcionário salvo.
+     * Dados dois funcionários com o mesmo primeiro nome e sobrenome,
+     * quando a busca é realizada pelo nome no {@link EmployeeRepository},
+     * então ambos devem ser retornados, em ordem de id, em vez de uma exceção de resultado não único.
      */
     @Test
-    @DisplayName("Given Employee Object When Find By Native Query Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByNativeQuery_thenReturnEmployeeObject() {
-
-        employeeRepository.save(empregado1);
+    @DisplayName("Given Employees With Same Name When Find By Name Then Return All Of Them")
+    public void givenEmployeesWithSameName_whenFindByName_thenReturnAllOfThem() {
+        Employee homonimo = Employee.builder()
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("viniciusdsandrade0662@gmail.com")
+                .build();
 
-        // when - find employee by Native Query
-        Employee employeeDB = employeeRepository.findByNativeQuery(empregado1.getFirstName(), empregado1.getLastName());
+        employeeRepository.saveAll(List.of(empregado1, homonimo));
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // when - find employees by first name and last name
+        List<Employee> employees = employeeRepository.findByName("Vinícius", "Andrade");
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - verify if both employees were found
+        assertThat(employees)
+                .extracting(Employee::getEmail)
+                .containsExactly("vinicius_andrade2010@hotmail.com", "viniciusdsandrade0662@gmail.com");
     }
 
     /**
-     * Caso de teste para verificar a busca de um objeto {@link Employee} usando JPQL (Java Persistence Query Language) com parâmetros nomeados no repositório.
+     * Caso de teste para verificar a busca de funcionários apenas pelo primeiro nome no repositório.
      * <p>
-     * Dado um objeto {@link Employee} salvo,
-     * quando a busca é realizada usando JPQL com parâmetros nomeados no {@link EmployeeRepository},
-     * então o funcionário retornado não deve ser nulo e seus atributos devem corresponder ao funcionário salvo.
+     * Dados dois funcionários com sobrenomes iguais e primeiros nomes diferentes,
+     * quando a busca é realizada pelo primeiro nome no {@link EmployeeRepository},
+     * então apenas o funcionário com aquele primeiro nome deve ser retornado.
      */
     @Test
-    @DisplayName("Given Employee Object When Find By JPQL With Named Parameters Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByJPQLWithNamedParameters_thenReturnEmployeeObject() {
-        employeeRepository.save(empregado1);
+    @DisplayName("Given Employee Object When Find By First Name Then Return Employee List")
+    @ExpectedQueries(select = 1, insert = 2)
+    public void givenEmployeeObject_whenFindByFirstName_thenReturnEmployeeList() {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
 
-        // when - find employee by JPQL with named parameters
-        Employee employeeDB = employeeRepository.findByJPQLWithNamedParameters(empregado1.getFirstName(), empregado1.getLastName());
+        employeeRepository.saveAll(List.of(empregado1, empregado2));
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // when - find employees by first name
+        List<Employee> employees = employeeRepository.findByFirstName("Arthur");
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - verify if only the matching employee was found
+        assertThat(employees)
+                .extracting(Employee::getEmail)
+                .containsExactly("arthurdsandrade2008@gmail.com");
     }
 
     /**
-     * Caso de teste para verificar a busca de um objeto {@link Employee} usando o primeiro nome e o último nome no repositório.
+     * Caso de teste para verificar que a listagem dos funcionários não gera uma consulta por funcionário.
      * <p>
-     * Dado um objeto {@link Employee} salvo,
-     * quando a busca é realizada usando o primeiro nome e o último nome no {@link EmployeeRepository},
-     * então o funcionário retornado não deve ser nulo e seus atributos devem corresponder ao funcionário salvo.
+     * Dados três funcionários salvos e fora do contexto de persistência,
+     * quando todos são buscados no {@link EmployeeRepository},
+     * então uma única consulta deve ser executada.
      */
     @Test
-    @DisplayName("Given Employee Object When Find By First Name And Last Name Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByFirstNameAndLastName_thenReturnEmployeeObject() {
+    @DisplayName("Given Saved Employees When Find All Then Execute A Single Select")
+    public void givenSavedEmployees_whenFindAll_thenExecuteSingleSelect() throws Exception {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
 
-        employeeRepository.save(empregado1);
+        Employee empregado3 = Employee.builder()
+                .firstName("Maria")
+                .lastName("Andrade")
+                .email("maria_andrade@gmail.com")
+                .build();
 
-        // when - find employee by first name and last name
-        Employee employeeDB = employeeRepository.findByFirstNameAndLastName(empregado1.getFirstName(), empregado1.getLastName());
+        employeeRepository.saveAll(List.of(empregado1, empregado2, empregado3));
+        entityManager.flush();
+        entityManager.clear();
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // when - find all employees
+        QueryCount queries = queryCounter.count(() -> assertThat(employeeRepository.findAll()).hasSize(3));
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - a single select, whatever the number of employees
+        assertThat(queries).isEqualTo(new QueryCount(1, 0, 0, 0));
     }
 
     /**
-     * Caso de teste para verificar a busca de um objeto {@link Employee} usando uma consulta nativa com parâmetros nomeados no repositório.
+     * Caso de teste para verificar as contagens agrupadas das estatísticas.
      * <p>
-     * Dado um objeto {@link Employee} salvo,
-     * quando a busca é realizada usando uma consulta nativa com parâmetros nomeados no {@link EmployeeRepository},
-     * então o funcionário retornado não deve ser nulo e seus atributos devem corresponder ao funcionário salvo.
+     * Dados funcionários com sobrenomes e domínios repetidos, um deles excluído,
+     * quando as contagens por sobrenome e por domínio de e-mail são consultadas,
+     * então os valores mais frequentes devem vir primeiro, sem contar o funcionário excluído.
      */
     @Test
-    @DisplayName("Given Employee Object When Find By Native Query With Named Parameters Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByNativeQueryWithNamedParameters_thenReturnEmployeeObject() {
-        employeeRepository.save(empregado1);
+    @DisplayName("Given Employees When Count By Last Name And Email Domain Then Return Top Groups")
+    public void givenEmployees_whenCountByLastNameAndEmailDomain_thenReturnTopGroups() {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
 
-        // when - find employee by Native Query with named parameters
-        Employee employeeDB = employeeRepository.findByNativeQueryWithNamedParameters(empregado1.getFirstName(), empregado1.getLastName());
+        Employee empregado3 = Employee.builder()
+                .firstName("Maria")
+                .lastName("Silva")
+                .email("maria_silva@GMAIL.com")
+                .build();
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        Employee excluido = Employee.builder()
+                .firstName("José")
+                .lastName("Silva")
+                .email("jose_silva@gmail.com")
+                .deleted(true)
+                .build();
+
+        employeeRepository.saveAll(List.of(empregado1, empregado2, empregado3, excluido));
+        entityManager.flush();
+
+        // when - the two most frequent values of each group
+        List<EmployeeRepository.GroupCount> byLastName = employeeRepository.countByLastName(2);
+        List<EmployeeRepository.GroupCount> byEmailDomain = employeeRepository.countByEmailDomain(2);
+
+        // then - the deleted employee is not counted and domains ignore case
+        assertThat(byLastName).extracting(EmployeeRepository.GroupCount::getName, EmployeeRepository.GroupCount::getTotal)
+                .containsExactly(tuple("Andrade", 2L), tuple("Silva", 1L));
+        assertThat(byEmailDomain).extracting(EmployeeRepository.GroupCount::getName, EmployeeRepository.GroupCount::getTotal)
+                .containsExactly(tuple("gmail.com", 2L), tuple("hotmail.com", 1L));
+        assertThat(employeeRepository.count()).isEqualTo(3);
+    }
+
+    /**
+     * A busca por prefixo, usada nas sugestões quando o diretório em memória não está disponível, compara o padrão
+     * com o nome, o sobrenome e o e-mail; um {@code _} escapado no padrão é literal.
+     */
+    @Test
+    @DisplayName("Given Employees When Find By Name Or Email Like Then Return Limited Matches In Id Order")
+    public void givenEmployees_whenFindByNameOrEmailLike_thenReturnLimitedMatchesInIdOrder() {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Vieira")
+                .email("arthur.vieira@gmail.com")
+                .build();
+
+        Employee empregado3 = Employee.builder()
+                .firstName("Maria")
+                .lastName("Silva")
+                .email("maria_silva@gmail.com")
+                .build();
+
+        employeeRepository.saveAll(List.of(empregado1, empregado2, empregado3));
+        entityManager.flush();
+
+        // when
+        List<Employee> porNome = employeeRepository.findByNameOrEmailLike("Vi%", Limit.of(10));
+        List<Employee> limitados = employeeRepository.findByNameOrEmailLike("Vi%", Limit.of(1));
+        List<Employee> porEmail = employeeRepository.findByNameOrEmailLike("maria!_%", Limit.of(10));
+        List<Employee> escapados = employeeRepository.findByNameOrEmailLike("mari!_%", Limit.of(10));
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - pelo primeiro nome ou pelo sobrenome, em ordem de id; sem o escape, "mari_%" encontraria Maria
+        assertThat(porNome).extracting(Employee::getId).containsExactly(empregado1.getId(), empregado2.getId());
+        assertThat(limitados).hasSize(1);
+        assertThat(porEmail).containsExactly(empregado3);
+        assertThat(escapados).isEmpty();
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,16 @@
 package com.spring.boot.test.junit.repository;
 
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.support.CountQueries;
+import com.spring.boot.test.junit.support.ExpectedQueries;
+import com.spring.boot.test.junit.support.QueryCount;
+import com.spring.boot.test.junit.support.QueryCounter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,16 +19,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 import java.util.Optional;
 
-@DataJpaTest
+// Perfil h2: o banco embarcado do @DataJpaTest com o dialeto do H2, e não o do MySQL do perfil padrão
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+@CountQueries
 public class EmployeeRepositoryTest {
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
     private Employee empregado1;
 
     @BeforeEach
@@ -147,91 +165,152 @@ public class EmployeeRepositoryTest {
     }
 
     @Test
-    @DisplayName("Given Employee Object When Find By JPQL Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByJPQL_thenReturnEmployeeObject() {
+    @DisplayName("Given Deleted Employee When Find By Id For Update Then Return Empty")
+    public void givenDeletedEmployee_whenFindByIdForUpdate_thenReturnEmpty() {
+        employeeRepository.save(empregado1);
+        assertThat(employeeRepository.findByIdForUpdate(empregado1.getId())).isPresent();
+
+        // when - the employee is logically deleted
+        empregado1.setDeleted(true);
+        employeeRepository.saveAndFlush(empregado1);
+        entityManager.clear();
 
+        // then - the locking read skips it, like findById
+        assertThat(employeeRepository.findByIdForUpdate(empregado1.getId())).isEmpty();
+    }
 
+    @Test
+    @DisplayName("Given Employee Object When Find By Name Then Return Employee List")
+    @ExpectedQueries(select = 1, insert = 1) // a consulta descarrega a inclusão pendente antes de executar
+    public void givenEmployeeObject_whenFindByName_thenReturnEmployeeList() {
         employeeRepository.save(empregado1);
 
-        // when - find employee by JPQL
-        Employee employeeDB = employeeRepository.findByJPQL(empregado1.getFirstName(), empregado1.getLastName());
+        // when - find employees by first name and last name
+        List<Employee> employees = employeeRepository.findByName(empregado1.getFirstName(), empregado1.getLastName());
 
         // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
-
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        assertThat(employees).hasSize(1);
+        assertEquals("Vinícius", employees.get(0).getFirstName());
+        assertEquals("Andrade", employees.get(0).getLastName());
+        assertEquals("vinicius_andrade2010@hotmail.com", employees.get(0).getEmail());
     }
 
     @Test
-    @DisplayName("Given Employee Object When Find By Native Query Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByNativeQuery_thenReturnEmployeeObject() {
+    @DisplayName("Given Employees With Same Name When Find By Name Then Return All Of Them")
+    public void givenEmployeesWithSameName_whenFindByName_thenReturnAllOfThem() {
+        Employee homonimo = Employee.builder()
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("viniciusdsandrade0662@gmail.com")
+                .build();
 
-        employeeRepository.save(empregado1);
+        employeeRepository.saveAll(List.of(empregado1, homonimo));
 
-        // when - find employee by Native Query
-        Employee employeeDB = employeeRepository.findByNativeQuery(empregado1.getFirstName(), empregado1.getLastName());
+        // when - find employees by first name and last name
+        List<Employee> employees = employeeRepository.findByName("Vinícius", "Andrade");
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // then - verify if both employees were found
+        assertThat(employees)
+                .extracting(Employee::getEmail)
+                .containsExactly("vinicius_andrade2010@hotmail.com", "viniciusdsandrade0662@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Given Employee Object When Find By First Name Then Return Employee List")
+    @ExpectedQueries(select = 1, insert = 2)
+    public void givenEmployeeObject_whenFindByFirstName_thenReturnEmployeeList() {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        employeeRepository.saveAll(List.of(empregado1, empregado2));
+
+        // when - find employees by first name
+        List<Employee> employees = employeeRepository.findByFirstName("Arthur");
+
+        // then - verify if only the matching employee was found
+        assertThat(employees)
+                .extracting(Employee::getEmail)
+                .containsExactly("arthurdsandrade2008@gmail.com");
     }
 
     @Test
-    @DisplayName("Given Employee Object When Find By JPQL With Named Parameters Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByJPQLWithNamedParameters_thenReturnEmployeeObject() {
-        employeeRepository.save(empregado1);
+    @DisplayName("Given Saved Employees When Find All Then Execute A Single Select")
+    public void givenSavedEmployees_whenFindAll_thenExecuteSingleSelect() throws Exception {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
 
-        // when - find employee by JPQL with named parameters
-        Employee employeeDB = employeeRepository.findByJPQLWithNamedParameters(empregado1.getFirstName(), empregado1.getLastName());
+        employeeRepository.saveAll(List.of(empregado1, empregado2));
+        entityManager.flush();
+        entityManager.clear();
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // when - find all employees
+        QueryCount queries = queryCounter.count(() -> assertThat(employeeRepository.findAll()).hasSize(2));
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - a single select, whatever the number of employees
+        assertThat(queries).isEqualTo(new QueryCount(1, 0, 0, 0));
     }
 
     @Test
-    @DisplayName("Given Employee Object When Find By First Name And Last Name Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByFirstNameAndLastName_thenReturnEmployeeObject() {
+    @DisplayName("Given Employees When Count By Last Name And Email Domain Then Return Top Groups")
+    @ExpectedQueries(select = 2, insert = 4)
+    public void givenEmployees_whenCountByLastNameAndEmailDomain_thenReturnTopGroups() {
+        Employee empregado2 = Employee.builder()
+                .firstName("Arthur")
+                .lastName("Andrade")
+                .email("arthurdsandrade2008@gmail.com")
+                .build();
 
-        employeeRepository.save(empregado1);
+        Employee empregado3 = Employee.builder()
+                .firstName("Maria")
+                .lastName("Silva")
+                .email("maria_silva@gmail.com")
+                .build();
+
+        Employee excluido = Employee.builder()
+                .firstName("José")
+                .lastName("Silva")
+                .email("jose_silva@gmail.com")
+                .deleted(true)
+                .build();
 
-        // when - find employee by first name and last name
-        Employee employeeDB = employeeRepository.findByFirstNameAndLastName(empregado1.getFirstName(), empregado1.getLastName());
+        employeeRepository.saveAll(List.of(empregado1, empregado2, empregado3, excluido));
+        entityManager.flush();
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // when - the two most frequent values of each group, read from the generated email_domain column on H2
+        List<EmployeeRepository.GroupCount> byLastName = employeeRepository.countByLastName(2);
+        List<EmployeeRepository.GroupCount> byEmailDomain = employeeRepository.countByEmailDomain(2);
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - the deleted employee is not counted, and ties are broken by name
+        assertThat(byLastName).extracting(EmployeeRepository.GroupCount::getName, EmployeeRepository.GroupCount::getTotal)
+                .containsExactly(tuple("Andrade", 2L), tuple("Silva", 1L));
+        assertThat(byEmailDomain).extracting(EmployeeRepository.GroupCount::getName, EmployeeRepository.GroupCount::getTotal)
+                .containsExactly(tuple("gmail.com", 2L), tuple("hotmail.com", 1L));
     }
 
     @Test
-    @DisplayName("Given Employee Object When Find By Native Query With Named Parameters Then Return Employee Object")
-    public void givenEmployeeObject_whenFindByNativeQueryWithNamedParameters_thenReturnEmployeeObject() {
+    @DisplayName("Given Repeated Name Search When Find By Name Then Reuse The Precompiled Query Plan")
+    public void givenRepeatedNameSearch_whenFindByName_thenReuseThePrecompiledQueryPlan() {
         employeeRepository.save(empregado1);
 
-        // when - find employee by Native Query with named parameters
-        Employee employeeDB = employeeRepository.findByNativeQueryWithNamedParameters(empregado1.getFirstName(), empregado1.getLastName());
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
 
-        // then - verify if the employee was found correctly
-        assertThat(employeeDB).isNotNull();
+        // when - search the same name several times
+        employeeRepository.findByName(empregado1.getFirstName(), empregado1.getLastName());
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++)
+            employeeRepository.findByName(empregado1.getFirstName(), empregado1.getLastName());
 
-        // Assertions to verify if the employee was found correctly
-        assertEquals("Vinícius", employeeDB.getFirstName());
-        assertEquals("Andrade", employeeDB.getLastName());
-        assertEquals("vinicius_andrade2010@hotmail.com", employeeDB.getEmail());
+        // then - the named query is never parsed again
+        assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(10);
     }
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package com.spring.boot.test.junit.service;
 
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.exception.EmailAlreadyExistsException;
 import com.spring.boot.test.junit.exception.ResourceNotFoundException;
 import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.model.EmployeeEventType;
+import com.spring.boot.test.junit.outbox.EmployeeOutbox;
 import com.spring.boot.test.junit.repository.EmployeeRepository;
 import com.spring.boot.test.junit.service.impl.EmployeeServiceImpl;
+import com.spring.boot.test.junit.writebehind.EmployeeWriteBehind;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -11,20 +18,30 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+@DisabledInNativeImage
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
 
@@ -34,16 +51,23 @@ public class EmployeeServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    /**
+     * Mocked instance of {@link EmployeeOutbox}.
+     */
+    @Mock
+    private EmployeeOutbox employeeOutbox;
+
     /**
      * Instance of {@link EmployeeServiceImpl} with mocked dependencies.
      */
-    @InjectMocks
     private EmployeeServiceImpl employeeService;
 
     private Employee employee;
 
     @BeforeEach
     public void setUp() {
+        employeeService = new EmployeeServiceImpl(employeeRepository, employeeOutbox, Duration.ofSeconds(2), null, null);
+
         employee = Employee.builder()
                 .id(1L)
                 .firstName("Vinícius")
@@ -69,19 +93,57 @@ public class EmployeeServiceTest {
 
         // Assertiva: Verifica se o objeto savedEmployee não é nulo.
         assertThat(savedEmployee).isNotNull();
+
+        // Verificação: Verifica se o evento de criação foi gravado na outbox.
+        verify(employeeOutbox, times(1)).record(EmployeeEventType.CREATED, employee);
     }
     
+    @Test
+    @DisplayName("Test save employee calls the repository once per statement")
+    void givenEmployee_whenSaveEmployee_thenLookUpEmailAndSaveOnlyOnce() {
+        // Configuração: nenhum funcionário com o mesmo e-mail.
+        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // Ação: Chama o método saveEmployee do employeeService.
+        employeeService.saveEmployee(employee);
+
+        // Verificação: uma consulta pelo e-mail e uma inclusão, como fixado em EmployeeControllerIntegrationTests;
+        // uma chamada a mais ao repositório é um comando SQL a mais.
+        verify(employeeRepository, times(1)).findByEmail(employee.getEmail());
+        verify(employeeRepository, times(1)).save(employee);
+        verifyNoMoreInteractions(employeeRepository);
+    }
+
     @Test
     @DisplayName("Which throws exception when employee already exists with this email")
     void givenEmployee_whenSaveEmployee_thenThrowException() {
         // Configuração: Configura o comportamento esperado do employeeRepository ao chamar findByEmail, retornando Optional.of(employee).
         given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
 
-        // Assertiva: Verifica se chamar o método saveEmployee do employeeService lança uma exceção ResourceNotFoundException com a mensagem esperada.
+        // Assertiva: Verifica se chamar o método saveEmployee do employeeService lança uma exceção EmailAlreadyExistsException com a mensagem esperada.
         assertThatThrownBy(
                 () -> employeeService.saveEmployee(employee))
-                .isInstanceOf(ResourceNotFoundException.class)
-                .hasMessage("Employee already exists with this email");
+                .isInstanceOf(EmailAlreadyExistsException.class)
+                .hasMessage("E-mail already exists: " + employee.getEmail());
+    }
+
+    @Test
+    @DisplayName("Test save employee rejects an existing email written with different case")
+    void givenEmailWithDifferentCase_whenSaveEmployee_thenThrowException() {
+        // Configuração: o e-mail gravado está na forma normalizada, e a requisição usa maiúsculas.
+        given(employeeRepository.findByEmail("vinicius_andrade2010@hotmail.com")).willReturn(Optional.of(employee));
+        Employee duplicate = Employee.builder()
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("Vinicius_Andrade2010@Hotmail.com")
+                .build();
+
+        // Assertiva: a verificação no banco usa a mesma normalização do diretório.
+        assertThatThrownBy(() -> employeeService.saveEmployee(duplicate))
+                .isInstanceOf(EmailAlreadyExistsException.class)
+                .hasMessage("E-mail already exists: vinicius_andrade2010@hotmail.com");
+        verify(employeeRepository, never()).save(any());
     }
 
     @Test
@@ -121,6 +183,26 @@ public class EmployeeServiceTest {
         assertThat(employeeList).hasSize(0);
     }
 
+    @Test
+    @DisplayName("Test for each employee reads the table in keyset pages")
+    void givenMoreEmployeesThanOnePage_whenForEachEmployee_thenVisitEveryPage() {
+        // Configuração: uma página cheia, de ids 1 a 1000, seguida de uma página com o último funcionário.
+        List<Employee> firstPage = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> Employee.builder().id(id).build())
+                .toList();
+        Employee last = Employee.builder().id(1001L).build();
+        given(employeeRepository.findPageAfter(eq(0L), any(Limit.class))).willReturn(firstPage);
+        given(employeeRepository.findPageAfter(eq(1000L), any(Limit.class))).willReturn(List.of(last));
+
+        // Ação: percorre todos os funcionários.
+        List<Employee> visited = new ArrayList<>();
+        employeeService.forEachEmployee(visited::add);
+
+        // Assertivas: cada página parte do último id da anterior, e a página incompleta encerra a varredura.
+        assertThat(visited).hasSize(1001).endsWith(last);
+        verify(employeeRepository, times(2)).findPageAfter(any(Long.class), any(Limit.class));
+    }
+
 
     @Test
     @DisplayName("Test get employee by id")
@@ -135,14 +217,100 @@ public class EmployeeServiceTest {
         assertThat(optionalEmployee).isNotNull();
         assertThat(optionalEmployee).isNotEmpty();
         assertThat(optionalEmployee.get().getId()).isEqualTo(employee.getId());
+
+        // Verificação: uma única leitura no repositório.
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        verifyNoMoreInteractions(employeeRepository);
     }
 
 
+    @Test
+    @DisplayName("Test save employee with an email already in the loaded directory")
+    void givenEmailInLoadedDirectory_whenSaveEmployee_thenThrowWithoutQueryingRepository() {
+        // Configuração: diretório carregado com um funcionário que usa o mesmo e-mail, com outra grafia.
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        employee.setUpdatedAt(Instant.parse("2024-01-15T10:00:00Z"));
+        directory.apply(employee);
+        directory.markReady();
+        employeeService = new EmployeeServiceImpl(employeeRepository, employeeOutbox, Duration.ofSeconds(2), directory, null);
+
+        Employee duplicate = Employee.builder()
+                .firstName("Vinicius")
+                .lastName("Alves")
+                .email("Vinicius_Andrade2010@hotmail.com")
+                .build();
+
+        // Assertivas: recusado pelo diretório, sem consulta ao repositório.
+        assertThatThrownBy(() -> employeeService.saveEmployee(duplicate))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Test get employee by id and by email from the loaded directory")
+    void givenLoadedDirectory_whenGetEmployeeByIdOrEmail_thenDoNotQueryRepository() {
+        // Configuração: diretório em memória carregado com o funcionário.
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        employee.setUpdatedAt(Instant.parse("2024-01-15T10:00:00Z"));
+        directory.apply(employee);
+        directory.markReady();
+        employeeService = new EmployeeServiceImpl(employeeRepository, employeeOutbox, Duration.ofSeconds(2), directory, null);
+
+        // Ação: Busca o funcionário pelo id e pelo e-mail.
+        Optional<Employee> byId = employeeService.getEmployeeById(employee.getId());
+        Optional<Employee> byEmail = employeeService.getEmployeeByEmail(employee.getEmail());
+
+        // Assertivas: o funcionário vem do diretório, sem consulta ao repositório.
+        assertThat(byId).contains(employee);
+        assertThat(byEmail).contains(employee);
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Test update employee with write-behind enabled")
+    void givenWriteBehind_whenUpdateEmployee_thenEnqueueWithoutSaving(@Mock EmployeeWriteBehind writeBehind) {
+        // Configuração: escrita tardia habilitada.
+        employeeService = new EmployeeServiceImpl(employeeRepository, employeeOutbox, Duration.ofSeconds(2), null, writeBehind);
+        given(writeBehind.enqueue(employee)).willReturn(employee);
+        given(writeBehind.pending(employee.getId())).willReturn(Optional.of(employee));
+
+        // Ação: Atualiza e busca o funcionário pelo id.
+        Employee updatedEmployee = employeeService.updateEmployeeById(employee);
+        Optional<Employee> byId = employeeService.getEmployeeById(employee.getId());
+
+        // Assertivas: a alteração fica no buffer, sem gravação nem evento, e é vista na leitura por id.
+        assertThat(updatedEmployee).isEqualTo(employee);
+        assertThat(byId).contains(employee);
+        verifyNoInteractions(employeeRepository, employeeOutbox);
+    }
+
+    @Test
+    @DisplayName("Test update missing employee with write-behind enabled")
+    void givenWriteBehindAndMissingEmployee_whenUpdateEmployee_thenThrowWithoutEnqueue(
+            @Mock EmployeeWriteBehind writeBehind) {
+        // Configuração: escrita tardia habilitada, sem alteração pendente e sem o funcionário no banco.
+        employeeService = new EmployeeServiceImpl(employeeRepository, employeeOutbox, Duration.ofSeconds(2), null, writeBehind);
+        given(writeBehind.pending(employee.getId())).willReturn(Optional.empty());
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.empty());
+
+        // Ação e Assertivas: a alteração é recusada antes de entrar no buffer.
+        assertThatThrownBy(() -> employeeService.updateEmployeeById(employee))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(writeBehind, never()).enqueue(any(Employee.class));
+    }
+
     @Test
     @DisplayName("Test for update employee")
     void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee() {
-        // Configuração: Configura o comportamento esperado do employeeRepository ao chamar save com o objeto employee.
-        given(employeeRepository.save(employee)).willReturn(employee);
+        // Configuração: o funcionário gravado é lido com bloqueio, e o save retorna a entidade recebida.
+        Employee stored = Employee.builder()
+                .id(1L)
+                .firstName("Vinícius")
+                .lastName("Andrade")
+                .email("vinicius_andrade2010@hotmail.com")
+                .build();
+        given(employeeRepository.findByIdForUpdate(1L)).willReturn(Optional.of(stored));
+        given(employeeRepository.save(stored)).willReturn(stored);
 
         // Assertivas iniciais: Verifica as propriedades do objeto employee antes da atualização.
         assertThat(employee).isNotNull();
@@ -164,20 +332,84 @@ public class EmployeeServiceTest {
         assertThat(updatedEmployee.getFirstName()).isEqualTo("Arthur");
         assertThat(updatedEmployee.getLastName()).isEqualTo("Andrade");
         assertThat(updatedEmployee.getEmail()).isEqualTo("arthurdsandrade0662@gmail.com");
+
+        // Verificação: os campos foram copiados para a entidade lida, e não gravados a partir do corpo.
+        assertThat(updatedEmployee).isSameAs(stored);
+        verify(employeeOutbox, times(1)).record(EmployeeEventType.UPDATED, stored);
+
+        // Verificação: uma única leitura, a com bloqueio, antes da alteração; nenhuma leitura sem bloqueio.
+        verify(employeeRepository, times(1)).findByIdForUpdate(1L);
+        verify(employeeRepository, times(1)).save(stored);
+        verifyNoMoreInteractions(employeeRepository);
     }
 
+    @Test
+    @DisplayName("Test update employee deleted concurrently")
+    void givenDeletedEmployee_whenUpdateEmployee_thenThrowWithoutSaving() {
+        // Configuração: o funcionário foi excluído antes da leitura com bloqueio.
+        given(employeeRepository.findByIdForUpdate(1L)).willReturn(Optional.empty());
+
+        // Assertiva: a alteração não recria o funcionário nem desfaz a exclusão.
+        assertThatThrownBy(() -> employeeService.updateEmployeeById(employee))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(employeeRepository, never()).save(any());
+        verifyNoInteractions(employeeOutbox);
+    }
+
+
+    @Test
+    @DisplayName("Test get employee changes since watermark when there are more changes than the limit")
+    void givenMoreChangesThanLimit_whenGetEmployeeChangesSince_thenReturnPageAndNextWatermark() {
+        // Configuração: três funcionários alterados, mas o cliente pediu apenas dois.
+        Employee changed1 = Employee.builder().id(1L).updatedAt(Instant.parse("2024-01-15T10:00:00Z")).build();
+        Employee changed2 = Employee.builder().id(2L).updatedAt(Instant.parse("2024-01-15T10:00:00Z")).deleted(true).build();
+        Employee changed3 = Employee.builder().id(3L).updatedAt(Instant.parse("2024-01-15T10:00:01Z")).build();
+
+        given(employeeRepository.findChangedSince(eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(3)))
+                .willReturn(new ArrayList<>(List.of(changed1, changed2, changed3)));
+
+        // Ação: Chama o método getEmployeeChangesSince do employeeService a partir do início.
+        EmployeeChangesPage page = employeeService.getEmployeeChangesSince(SyncWatermark.INITIAL, 2);
+
+        // Assertivas: a página tem dois funcionários e o watermark aponta para o último deles.
+        assertThat(page.employees()).containsExactly(changed1, changed2);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(SyncWatermark.parse(page.watermark())).isEqualTo(SyncWatermark.of(changed2));
+
+        // Verificação: a página e a indicação de mais alterações vêm de uma única consulta.
+        verify(employeeRepository, times(1)).findChangedSince(eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(3));
+        verifyNoMoreInteractions(employeeRepository);
+    }
+
+    @Test
+    @DisplayName("Test delete employee reads the employee once before the logical delete")
+    void givenEmployeeId_whenDeleteEmployee_thenFindAndSaveOnlyOnce() {
+        // Configuração: o funcionário existe.
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // Ação: Chama o método deleteEmployee do employeeService com o ID do funcionário.
+        employeeService.deleteEmployee(employee.getId());
+
+        // Verificação: a exclusão é lógica, com uma única leitura antes da alteração.
+        assertThat(employee.isDeleted()).isTrue();
+        verify(employeeRepository, times(1)).findById(employee.getId());
+        verify(employeeRepository, times(1)).save(employee);
+        verifyNoMoreInteractions(employeeRepository);
+        verify(employeeOutbox, times(1)).record(EmployeeEventType.DELETED, employee);
+    }
 
     @Test
     @DisplayName("Test for delete employee")
     void givenEmployeeId_whenDeleteEmployee_thenNothing() {
-        // Configuração: Configura o comportamento do employeeRepository para não fazer nada ao chamar deleteById com o ID do funcionário.
-        willDoNothing().given(employeeRepository).deleteById(employee.getId());
+        // Configuração: o funcionário existe.
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
 
         // Ação: Chama o método deleteEmployee do employeeService com o ID do funcionário.
         employeeService.deleteEmployee(employee.getId());
 
-        // Verificação: Verifica se o método deleteById do employeeRepository foi chamado exatamente uma vez com o ID do funcionário.
-        verify(employeeRepository, times(1)).deleteById(employee.getId());
+        // Verificação: a exclusão é lógica; o registro nunca é removido com deleteById.
+        verify(employeeRepository, never()).deleteById(employee.getId());
 
         // Assertiva: Garante que o objeto employee não é nulo.
         assertThat(employee).isNotNull();
@@ -0,0 +1,64 @@
+package com.spring.boot.test.junit.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardResolverTest {
+
+    @Test
+    @DisplayName("Given ids generated with the shard auto increment offset when resolve then return the origin shard")
+    void givenIdsFromShardOffsets_whenShardForId_thenReturnOriginShard() {
+        ShardResolver resolver = new ShardResolver(3, Map.of());
+
+        for (int shard = 0; shard < 3; shard++) {
+            // auto_increment_increment = 3, auto_increment_offset = shard + 1
+            for (long id = resolver.autoIncrementOffset(shard); id < 100; id += 3)
+                assertThat(resolver.shardForId(id)).isEqualTo(shard);
+        }
+    }
+
+    @Test
+    @DisplayName("Given generator values when build the id on a shard then resolve the same shard")
+    void givenGeneratorValues_whenIdFor_thenShardForIdReturnsSameShard() {
+        ShardResolver resolver = new ShardResolver(3, Map.of());
+
+        for (int shard = 0; shard < 3; shard++) {
+            for (long value = 0; value < 100; value++)
+                assertThat(resolver.shardForId(resolver.idFor(value, shard))).isEqualTo(shard);
+        }
+        assertThat(new ShardResolver(1, Map.of()).idFor(41, 0)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Given pinned tenant when resolve then return the configured shard")
+    void givenPinnedTenant_whenShardForTenant_thenReturnConfiguredShard() {
+        ShardResolver resolver = new ShardResolver(4, Map.of("acme", 3));
+
+        assertThat(resolver.shardForTenant("acme")).isEqualTo(3);
+        assertThat(resolver.shardForTenant("other")).isEqualTo(resolver.shardForKey("other"));
+    }
+
+    @Test
+    @DisplayName("Given many keys when resolve then spread them over every shard")
+    void givenManyKeys_whenShardForKey_thenSpreadOverEveryShard() {
+        ShardResolver resolver = new ShardResolver(4, Map.of());
+
+        assertThat(IntStream.range(0, 1000)
+                .map(i -> resolver.shardForKey("employee" + i + "@example.com"))
+                .distinct())
+                .containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("Given tenant pinned to an unknown shard when create then fail")
+    void givenTenantPinnedToUnknownShard_whenCreate_thenFail() {
+        assertThatThrownBy(() -> new ShardResolver(2, Map.of("acme", 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
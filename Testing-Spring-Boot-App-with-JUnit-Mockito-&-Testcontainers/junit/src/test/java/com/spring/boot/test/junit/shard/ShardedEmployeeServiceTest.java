@@ -0,0 +1,162 @@
+package com.spring.boot.test.junit.shard;
+
+import com.spring.boot.test.junit.directory.EmployeeDirectory;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.model.EmployeeChangesPage;
+import com.spring.boot.test.junit.model.EmployeeStats;
+import com.spring.boot.test.junit.model.SyncWatermark;
+import com.spring.boot.test.junit.service.EmployeeService;
+import com.spring.boot.test.junit.service.impl.ShardedEmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@DisabledInNativeImage
+@ExtendWith(MockitoExtension.class)
+public class ShardedEmployeeServiceTest {
+
+    @Mock
+    private EmployeeService delegate;
+
+    private ShardRouter router;
+    private ShardedEmployeeService service;
+
+    @BeforeEach
+    public void setUp() {
+        // Fora de um bulkhead, os shards são consultados em sequência
+        router = new ShardRouter(new ShardResolver(2, Map.of("acme", 1)), trafficClass -> null);
+        service = new ShardedEmployeeService(delegate, router, null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ShardContext.clear();
+    }
+
+    @Test
+    @DisplayName("Given id generated by shard 1 when get employee by id then query only shard 1")
+    void givenIdFromShard1_whenGetEmployeeById_thenQueryShard1() {
+        given(delegate.getEmployeeById(4L)).willAnswer(invocation ->
+                Optional.of(employee(4L, "shard" + ShardContext.current())));
+
+        assertThat(service.getEmployeeById(4L)).hasValueSatisfying(employee ->
+                assertThat(employee.getFirstName()).isEqualTo("shard1"));
+    }
+
+    @Test
+    @DisplayName("Given tenant in context when save employee then use the tenant shard")
+    void givenTenantInContext_whenSaveEmployee_thenUseTenantShard() {
+        given(delegate.saveEmployee(any(Employee.class))).willAnswer(invocation ->
+                employee(1L, "shard" + ShardContext.current()));
+
+        ShardContext.set(new ShardResolver(2, Map.of("acme", 1)).shardForTenant("acme"));
+
+        assertThat(service.saveEmployee(employee(null, "Vinícius")).getFirstName()).isEqualTo("shard1");
+    }
+
+    @Test
+    @DisplayName("Given employees on both shards when get all employees then merge them in id order")
+    void givenEmployeesOnBothShards_whenGetAllEmployees_thenMergeInIdOrder() {
+        given(delegate.getAllEmployees()).willAnswer(invocation -> ShardContext.current() == 0
+                ? List.of(employee(1L, "a"), employee(3L, "c"), employee(5L, "e"))
+                : List.of(employee(2L, "b"), employee(6L, "f")));
+
+        assertThat(service.getAllEmployees())
+                .extracting(Employee::getId)
+                .containsExactly(1L, 2L, 3L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("Given suggestions on both shards when suggest employees then merge in key order without duplicates")
+    void givenSuggestionsOnBothShards_whenSuggestEmployees_thenMergeInKeyOrderWithoutDuplicates() {
+        // Cada shard devolve as sugestões do banco em ordem de id; o funcionário 2 aparece nos dois shards
+        given(delegate.suggestEmployees("ma", 4)).willAnswer(invocation -> ShardContext.current() == 0
+                ? List.of(employee(1L, "Mateus"), employee(2L, "maria"), employee(3L, "Marcos"))
+                : List.of(employee(2L, "maria"), employee(4L, "Manoel")));
+
+        assertThat(service.suggestEmployees("ma", 4))
+                .extracting(Employee::getId)
+                .containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Given ready directory when suggest employees then query it once without scattering")
+    void givenReadyDirectory_whenSuggestEmployees_thenQueryOnce() {
+        EmployeeDirectory directory = new EmployeeDirectory(16);
+        directory.markReady();
+        service = new ShardedEmployeeService(delegate, router, directory);
+        given(delegate.suggestEmployees("an", 3)).willReturn(List.of(employee(2L, "ana")));
+
+        assertThat(service.suggestEmployees("an", 3)).extracting(Employee::getId).containsExactly(2L);
+        then(delegate).should(times(1)).suggestEmployees("an", 3);
+    }
+
+    @Test
+    @DisplayName("Given stats on both shards when get employee stats then sum the counts and keep the top values")
+    void givenStatsOnBothShards_whenGetEmployeeStats_thenSumCountsAndKeepTop() {
+        given(delegate.getEmployeeStats(2)).willAnswer(invocation -> ShardContext.current() == 0
+                ? new EmployeeStats(10, List.of(group("Silva", 4), group("Souza", 3)), List.of(group("gmail.com", 6)))
+                : new EmployeeStats(8, List.of(group("Lima", 5), group("Silva", 2)), List.of(group("gmail.com", 5))));
+
+        EmployeeStats stats = service.getEmployeeStats(2);
+
+        assertThat(stats.total()).isEqualTo(18);
+        assertThat(stats.byLastName()).containsExactly(group("Silva", 6), group("Lima", 5));
+        assertThat(stats.byEmailDomain()).containsExactly(group("gmail.com", 11));
+    }
+
+    @Test
+    @DisplayName("Given changes on both shards when get changes since then return the first page of the merged order")
+    void givenChangesOnBothShards_whenGetChangesSince_thenReturnFirstMergedPage() {
+        Instant t0 = Instant.parse("2024-01-15T10:00:00Z");
+
+        given(delegate.getEmployeeChangesSince(any(SyncWatermark.class), anyInt())).willAnswer(invocation -> {
+            List<Employee> employees = ShardContext.current() == 0
+                    ? List.of(changed(1L, t0), changed(3L, t0.plusSeconds(2)))
+                    : List.of(changed(2L, t0.plusSeconds(1)), changed(4L, t0.plusSeconds(3)));
+            return new EmployeeChangesPage(employees, "ignored", false);
+        });
+
+        EmployeeChangesPage page = service.getEmployeeChangesSince(SyncWatermark.INITIAL, 3);
+
+        assertThat(page.employees()).extracting(Employee::getId).containsExactly(1L, 2L, 3L);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.watermark()).isEqualTo(SyncWatermark.of(changed(3L, t0.plusSeconds(2))).toString());
+    }
+
+    private static Employee employee(Long id, String firstName) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Andrade")
+                .email(firstName + "@example.com")
+                .build();
+    }
+
+    private static Employee changed(long id, Instant updatedAt) {
+        Employee employee = employee(id, "employee" + id);
+        employee.setUpdatedAt(updatedAt);
+        return employee;
+    }
+
+    private static EmployeeStats.GroupCount group(String value, long count) {
+        return new EmployeeStats.GroupCount(value, count);
+    }
+}
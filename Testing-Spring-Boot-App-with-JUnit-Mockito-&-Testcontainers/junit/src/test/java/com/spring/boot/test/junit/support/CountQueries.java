@@ -0,0 +1,21 @@
+package com.spring.boot.test.junit.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Conta os comandos SQL de cada teste de uma classe com contexto do Spring: o {@link QueryCounter} pode ser
+ * injetado no teste para medir um trecho, e {@link ExpectedQueries} fixa a contagem do teste inteiro. Assim, um
+ * N+1 ou uma consulta redundante introduzidos no código falham o teste.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Import(QueryCountingConfiguration.class)
+@ExtendWith(QueryCountExtension.class)
+public @interface CountQueries {
+}
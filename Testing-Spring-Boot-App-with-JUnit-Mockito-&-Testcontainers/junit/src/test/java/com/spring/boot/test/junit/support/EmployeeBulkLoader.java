@@ -0,0 +1,191 @@
+package com.spring.boot.test.junit.support;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import com.spring.boot.test.junit.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Carrega na tabela {@code employee} a massa de um {@link EmployeeDataGenerator}.
+ * <p>
+ * No MySQL, a carga é feita em blocos de {@link #CHUNK_SIZE} funcionários, cada um em um
+ * {@code LOAD DATA LOCAL INFILE} e na sua própria transação, com o arquivo gerado enquanto o servidor o lê, sem
+ * passar pelo disco; a conexão precisa de {@code allowLoadLocalInfile=true} e o servidor, de
+ * {@code local_infile=ON} (em um container, {@code withCommand("--local-infile=1")}). Nos demais bancos, como o
+ * H2 embarcado, sem ida e volta pela rede, a carga usa lotes JDBC confirmados um a um: transações grandes deixam
+ * o H2 mais lento, e o {@code CSVREAD} não é mais rápido que os lotes.
+ * <p>
+ * Também pode ser executado diretamente, com as propriedades de sistema {@code employee.load.url},
+ * {@code employee.load.username}, {@code employee.load.password}, {@code employee.load.rows} e
+ * {@code employee.load.seed}.
+ */
+public class EmployeeBulkLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBulkLoader.class);
+
+    public static final int CHUNK_SIZE = 1_000_000;
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final String COLUMNS = "id, first_name, last_name, email, updated_at, deleted";
+
+    private static final DateTimeFormatter MYSQL_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private final DataSource dataSource;
+
+    public EmployeeBulkLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("employee.load.url", "jdbc:mysql://localhost:3306/db_employee_junit");
+        if (url.startsWith("jdbc:mysql:") && !url.contains("allowLoadLocalInfile"))
+            url += (url.contains("?") ? "&" : "?") + "allowLoadLocalInfile=true";
+
+        DataSource dataSource = new DriverManagerDataSource(url,
+                System.getProperty("employee.load.username", "root"),
+                System.getProperty("employee.load.password", ""));
+
+        new EmployeeBulkLoader(dataSource).load(
+                new EmployeeDataGenerator(Long.getLong("employee.load.seed", 42)),
+                Long.getLong("employee.load.rows", 1_000_000));
+    }
+
+    /**
+     * Carrega os funcionários de índice zero a {@code count - 1} do gerador.
+     */
+    public void load(EmployeeDataGenerator generator, long count) throws SQLException {
+        long start = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL");
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try {
+                for (long from = 0; from < count; from += CHUNK_SIZE) {
+                    long to = Math.min(from + CHUNK_SIZE, count);
+
+                    if (mysql)
+                        loadDataInfile(connection, generator, from, to);
+                    else
+                        insertBatches(connection, generator, from, to);
+
+                    connection.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Loaded {} employees in {} s ({} rows/s)", count, String.format("%.1f", seconds),
+                Math.round(count / seconds));
+    }
+
+    private static void loadDataInfile(Connection connection, EmployeeDataGenerator generator, long from, long to)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new CsvInputStream(generator, from, to));
+            statement.execute("LOAD DATA LOCAL INFILE 'employees.csv' INTO TABLE employee CHARACTER SET utf8mb4 " +
+                    "FIELDS TERMINATED BY ',' LINES TERMINATED BY '\\n' (" + COLUMNS + ")");
+        }
+    }
+
+    private static void insertBatches(Connection connection, EmployeeDataGenerator generator, long from, long to)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO employee (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)")) {
+
+            for (long index = from; index < to; index++) {
+                Employee employee = generator.employee(index);
+
+                statement.setLong(1, employee.getId());
+                statement.setString(2, employee.getFirstName());
+                statement.setString(3, employee.getLastName());
+                statement.setString(4, employee.getEmail());
+                statement.setTimestamp(5, Timestamp.from(employee.getUpdatedAt()));
+                statement.setBoolean(6, employee.isDeleted());
+                statement.addBatch();
+
+                if ((index - from + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * O CSV de um bloco, gerado uma linha por vez à medida que é lido. Os nomes e e-mails do gerador não têm
+     * vírgulas nem aspas, então não há escape. As datas são gravadas em UTC, como o Hibernate grava os
+     * {@code Instant} no MySQL.
+     */
+    private static class CsvInputStream extends InputStream {
+
+        private final EmployeeDataGenerator generator;
+        private final long to;
+        private long next;
+        private byte[] line = new byte[0];
+        private int position;
+
+        CsvInputStream(EmployeeDataGenerator generator, long from, long to) {
+            this.generator = generator;
+            this.next = from;
+            this.to = to;
+        }
+
+        @Override
+        public int read() {
+            if (!fill())
+                return -1;
+
+            return line[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int read = 0;
+
+            while (read < length && fill()) {
+                int count = Math.min(length - read, line.length - position);
+                System.arraycopy(line, position, buffer, offset + read, count);
+                position += count;
+                read += count;
+            }
+            return read == 0 && length > 0 ? -1 : read;
+        }
+
+        private boolean fill() {
+            if (position < line.length)
+                return true;
+            if (next >= to)
+                return false;
+
+            Employee employee = generator.employee(next++);
+            line = (employee.getId() + "," + employee.getFirstName() + "," + employee.getLastName() + ","
+                    + employee.getEmail() + ","
+                    + LocalDateTime.ofInstant(employee.getUpdatedAt(), ZoneOffset.UTC).format(MYSQL_DATETIME) + ","
+                    + (employee.isDeleted() ? 1 : 0) + "\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.spring.boot.test.junit.support;
+
+import com.spring.boot.test.junit.model.Employee;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeBulkLoaderTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    public void setUp() {
+        // Um banco H2 novo por teste, com o esquema das migrações
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    @DisplayName("Given generator when load into H2 then every generated employee is stored")
+    void givenGenerator_whenLoad_thenStoreEveryGeneratedEmployee() throws Exception {
+        EmployeeDataGenerator generator = new EmployeeDataGenerator(42).withFirstId(1_000);
+
+        // when - carrega 50 mil funcionários
+        new EmployeeBulkLoader(dataSource).load(generator, 50_000);
+
+        // then - todos foram gravados, com os valores do gerador
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM employee", Long.class)).isEqualTo(50_000);
+        assertThat(jdbc.queryForObject("SELECT MIN(id) FROM employee", Long.class)).isEqualTo(1_000);
+
+        Employee expected = generator.employee(12_345);
+        Map<String, Object> row = jdbc.queryForMap("SELECT * FROM employee WHERE id = ?", expected.getId());
+
+        assertThat(row.get("first_name")).isEqualTo(expected.getFirstName());
+        assertThat(row.get("last_name")).isEqualTo(expected.getLastName());
+        assertThat(row.get("email")).isEqualTo(expected.getEmail());
+        assertThat(((Timestamp) row.get("updated_at")).toInstant()).isEqualTo(expected.getUpdatedAt());
+        assertThat(row.get("deleted")).isEqualTo(false);
+    }
+}
@@ -0,0 +1,195 @@
+package com.spring.boot.test.junit.support;
+
+import com.spring.boot.test.junit.model.Employee;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Gera funcionários sintéticos e realistas em volume de benchmark, de forma determinística: o funcionário de
+ * índice {@code i} depende apenas da semente, das configurações e de {@code i}, então qualquer trecho da massa
+ * pode ser gerado de novo, em qualquer ordem, sem gerar os anteriores.
+ * <p>
+ * O nome de cada funcionário é um primeiro nome, às vezes composto, e dois sobrenomes. Sem colisões
+ * ({@link #withNameCollisionRate(double)} igual a zero), os nomes são distintos até 100 milhões de funcionários
+ * e se repetem depois disso. Com colisões, essa fração dos funcionários repete o nome de um funcionário anterior,
+ * o que exercita as buscas por nome com vários resultados.
+ * <p>
+ * Os e-mails são sempre distintos, derivados do nome e do id, e os domínios seguem uma distribuição de Zipf: com
+ * o expoente padrão, poucos provedores concentram a maior parte dos e-mails e os domínios corporativos formam a
+ * cauda longa. Os {@code updatedAt} se espalham pelo ano anterior a {@link #UPDATED_UNTIL}.
+ */
+public class EmployeeDataGenerator {
+
+    public static final Instant UPDATED_UNTIL = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final long UPDATED_SPAN_MICROS = Duration.ofDays(365).toNanos() / 1_000;
+
+    private static final List<String> FIRST_NAMES = List.of(
+            "Ana", "Maria", "Julia", "Beatriz", "Mariana", "Larissa", "Camila", "Fernanda", "Gabriela", "Amanda",
+            "Bruna", "Leticia", "Juliana", "Patricia", "Aline", "Vanessa", "Carolina", "Isabela", "Luana", "Rafaela",
+            "Sofia", "Helena", "Alice", "Laura", "Manuela", "Valentina", "Giovanna", "Lorena", "Clara", "Cecilia",
+            "Daniela", "Renata", "Tatiane", "Priscila", "Natalia", "Adriana", "Simone", "Sandra", "Luciana", "Debora",
+            "Eduarda", "Raquel", "Sabrina", "Yasmin", "Bianca", "Vitoria", "Livia", "Heloisa", "Lara", "Marina",
+            "Joao", "Jose", "Pedro", "Lucas", "Gabriel", "Rafael", "Mateus", "Gustavo", "Felipe", "Bruno",
+            "Vinicius", "Arthur", "Guilherme", "Rodrigo", "Thiago", "Leonardo", "Diego", "Eduardo", "Marcelo", "Carlos",
+            "Andre", "Paulo", "Ricardo", "Fernando", "Daniel", "Henrique", "Samuel", "Miguel", "Davi", "Bernardo",
+            "Heitor", "Enzo", "Lorenzo", "Theo", "Nicolas", "Caio", "Igor", "Otavio", "Renan", "Fabio",
+            "Marcos", "Antonio", "Francisco", "Luiz", "Sergio", "Roberto", "Alexandre", "Leandro", "Murilo", "Vitor");
+
+    private static final List<String> LAST_NAMES = List.of(
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+            "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+            "Cardoso", "Ramos", "Goncalves", "Santana", "Teixeira", "Araujo", "Pinto", "Correia", "Moura", "Cavalcanti",
+            "Monteiro", "Batista", "Campos", "Borges", "Reis", "Azevedo", "Castro", "Miranda", "Farias", "Barros",
+            "Pires", "Melo", "Duarte", "Rezende", "Fonseca", "Nogueira", "Tavares", "Sales", "Macedo", "Guimaraes",
+            "Xavier", "Brito", "Coelho", "Peixoto", "Siqueira", "Matos", "Aguiar", "Bezerra", "Queiroz", "Bastos",
+            "Leite", "Prado", "Sampaio", "Vasconcelos", "Jesus", "Medeiros", "Franco", "Paiva", "Amaral", "Cunha",
+            "Torres", "Maia", "Rangel", "Pacheco", "Brandao", "Viana", "Camargo", "Magalhaes", "Lacerda", "Toledo",
+            "Bittencourt", "Serrano", "Figueiredo", "Antunes", "Fontes", "Valente", "Porto", "Galvao", "Leal", "Mota");
+
+    private static final List<String> PROVIDER_DOMAINS = List.of(
+            "gmail.com", "hotmail.com", "outlook.com", "yahoo.com.br", "uol.com.br", "bol.com.br", "icloud.com",
+            "terra.com.br", "live.com", "ig.com.br");
+
+    /**
+     * Espaço de nomes distintos: primeiro nome, segundo nome opcional e dois sobrenomes.
+     */
+    private static final long NAME_SPACE = (long) FIRST_NAMES.size() * (FIRST_NAMES.size() + 1)
+            * LAST_NAMES.size() * LAST_NAMES.size();
+
+    /**
+     * Multiplicador primo com {@link #NAME_SPACE}, que embaralha os índices sem repetir nomes.
+     */
+    private static final long NAME_MULTIPLIER = 2_654_435_761L;
+
+    private final long seed;
+    private final long firstId;
+    private final double nameCollisionRate;
+    private final int emailDomains;
+    private final double emailDomainSkew;
+    private final double[] domainCumulativeWeights;
+
+    public EmployeeDataGenerator(long seed) {
+        this(seed, 1, 0.02, 1_000, 1.1);
+    }
+
+    private EmployeeDataGenerator(long seed, long firstId, double nameCollisionRate, int emailDomains,
+                                  double emailDomainSkew) {
+        if (nameCollisionRate < 0 || nameCollisionRate > 1)
+            throw new IllegalArgumentException("nameCollisionRate must be between 0 and 1");
+        if (emailDomains < 1)
+            throw new IllegalArgumentException("emailDomains must be positive");
+
+        this.seed = seed;
+        this.firstId = firstId;
+        this.nameCollisionRate = nameCollisionRate;
+        this.emailDomains = emailDomains;
+        this.emailDomainSkew = emailDomainSkew;
+        this.domainCumulativeWeights = zipfCumulativeWeights(emailDomains, emailDomainSkew);
+    }
+
+    /**
+     * O id do funcionário de índice zero; os demais são sequenciais.
+     */
+    public EmployeeDataGenerator withFirstId(long firstId) {
+        return new EmployeeDataGenerator(seed, firstId, nameCollisionRate, emailDomains, emailDomainSkew);
+    }
+
+    /**
+     * A fração aproximada dos funcionários que repetem o nome completo de um funcionário anterior.
+     */
+    public EmployeeDataGenerator withNameCollisionRate(double nameCollisionRate) {
+        return new EmployeeDataGenerator(seed, firstId, nameCollisionRate, emailDomains, emailDomainSkew);
+    }
+
+    /**
+     * O número de domínios de e-mail distintos e o expoente da distribuição de Zipf entre eles; zero distribui
+     * os e-mails igualmente entre os domínios.
+     */
+    public EmployeeDataGenerator withEmailDomains(int emailDomains, double emailDomainSkew) {
+        return new EmployeeDataGenerator(seed, firstId, nameCollisionRate, emailDomains, emailDomainSkew);
+    }
+
+    public Stream<Employee> employees(long count) {
+        return LongStream.range(0, count).mapToObj(this::employee);
+    }
+
+    public Employee employee(long index) {
+        SplittableRandom random = random(index);
+
+        long nameIndex = index;
+        if (index > 0 && random.nextDouble() < nameCollisionRate)
+            nameIndex = random.nextLong(index);
+
+        long name = Math.floorMod(nameIndex * NAME_MULTIPLIER + seed, NAME_SPACE);
+
+        String lastName = LAST_NAMES.get((int) (name % LAST_NAMES.size())) + " ";
+        name /= LAST_NAMES.size();
+        lastName += LAST_NAMES.get((int) (name % LAST_NAMES.size()));
+        name /= LAST_NAMES.size();
+
+        int middleName = (int) (name % (FIRST_NAMES.size() + 1));
+        name /= FIRST_NAMES.size() + 1;
+        String firstName = FIRST_NAMES.get((int) name);
+        if (middleName < FIRST_NAMES.size())
+            firstName += " " + FIRST_NAMES.get(middleName);
+
+        long id = firstId + index;
+
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(localPart(firstName, lastName) + id + "@" + domain(random.nextDouble()))
+                .updatedAt(UPDATED_UNTIL.minusNanos(random.nextLong(UPDATED_SPAN_MICROS) * 1_000))
+                .build();
+    }
+
+    private String domain(double uniform) {
+        int rank = Arrays.binarySearch(domainCumulativeWeights, uniform);
+        rank = rank >= 0 ? rank : Math.min(-rank - 1, emailDomains - 1);
+
+        return rank < PROVIDER_DOMAINS.size()
+                ? PROVIDER_DOMAINS.get(rank)
+                : "empresa" + (rank - PROVIDER_DOMAINS.size() + 1) + ".com.br";
+    }
+
+    /**
+     * Um gerador por índice, independente dos demais.
+     */
+    private SplittableRandom random(long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    private static String localPart(String firstName, String lastName) {
+        String first = firstName.substring(0, firstName.indexOf(' ') < 0 ? firstName.length() : firstName.indexOf(' '));
+        String last = lastName.substring(lastName.lastIndexOf(' ') + 1);
+
+        return (first + "." + last).toLowerCase(Locale.ROOT);
+    }
+
+    private static double[] zipfCumulativeWeights(int count, double exponent) {
+        double[] cumulative = new double[count];
+        double total = 0;
+
+        for (int rank = 0; rank < count; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < count; rank++)
+            cumulative[rank] /= total;
+
+        return cumulative;
+    }
+}
@@ -0,0 +1,72 @@
+package com.spring.boot.test.junit.support;
+
+import com.spring.boot.test.junit.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class EmployeeDataGeneratorTest {
+
+    private static final int EMPLOYEES = 100_000;
+
+    @Test
+    @DisplayName("Given same seed when generate employees then produce the same employees in any order")
+    void givenSameSeed_whenGenerate_thenDeterministic() {
+        EmployeeDataGenerator generator = new EmployeeDataGenerator(42);
+
+        List<Employee> first = generator.employees(1_000).toList();
+        List<Employee> second = new EmployeeDataGenerator(42).employees(1_000).toList();
+
+        // Mesmos funcionários, e um índice isolado é igual ao gerado em sequência
+        assertThat(second).usingRecursiveFieldByFieldElementComparator().isEqualTo(first);
+        assertThat(generator.employee(500)).usingRecursiveComparison().isEqualTo(first.get(500));
+        assertThat(new EmployeeDataGenerator(43).employee(500).getEmail()).isNotEqualTo(first.get(500).getEmail());
+    }
+
+    @Test
+    @DisplayName("Given name collision rate when generate employees then about that fraction repeats a name")
+    void givenNameCollisionRate_whenGenerate_thenRepeatNamesAtThatRate() {
+        // Sem colisões, todos os nomes são distintos
+        assertThat(distinctNames(new EmployeeDataGenerator(7).withNameCollisionRate(0))).isEqualTo(EMPLOYEES);
+
+        // Com 10% de colisões, cerca de 10% dos funcionários repetem um nome
+        int distinct = distinctNames(new EmployeeDataGenerator(7).withNameCollisionRate(0.10));
+        assertThat(1 - (double) distinct / EMPLOYEES).isCloseTo(0.10, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Given skewed email domains when generate employees then emails are unique and domains follow Zipf")
+    void givenSkewedEmailDomains_whenGenerate_thenUniqueEmailsWithZipfDomains() {
+        List<Employee> employees = new EmployeeDataGenerator(11).withEmailDomains(100, 1.0).employees(EMPLOYEES).toList();
+
+        Map<String, Long> byDomain = employees.stream()
+                .collect(Collectors.groupingBy(employee -> employee.getEmail().substring(employee.getEmail().indexOf('@') + 1),
+                        Collectors.counting()));
+
+        // E-mails distintos, válidos e todos os domínios usados
+        assertThat(employees.stream().map(Employee::getEmail).collect(Collectors.toSet())).hasSize(EMPLOYEES);
+        assertThat(employees).allSatisfy(employee -> assertThat(employee.getEmail()).matches("[a-z]+\\.[a-z]+\\d+@[a-z0-9.]+"));
+        assertThat(byDomain).hasSize(100);
+
+        // Zipf com expoente 1: o primeiro domínio tem o dobro do segundo e cerca de 19% do total (1 / H(100))
+        assertThat((double) byDomain.get("gmail.com") / byDomain.get("hotmail.com")).isCloseTo(2.0, within(0.1));
+        assertThat((double) byDomain.get("gmail.com") / EMPLOYEES).isCloseTo(0.193, within(0.01));
+    }
+
+    private static int distinctNames(EmployeeDataGenerator generator) {
+        Set<String> names = new HashSet<>();
+        Function<Employee, String> fullName = employee -> employee.getFirstName() + " " + employee.getLastName();
+
+        generator.employees(EMPLOYEES).map(fullName).forEach(names::add);
+        return names.size();
+    }
+}
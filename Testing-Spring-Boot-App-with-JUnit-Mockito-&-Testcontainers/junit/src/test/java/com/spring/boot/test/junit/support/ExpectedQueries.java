@@ -0,0 +1,23 @@
+package com.spring.boot.test.junit.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Os comandos SQL que o teste deve executar, verificados por {@link QueryCountExtension} ao final do teste, sem
+ * contar os métodos {@code @BeforeEach}. Os tipos omitidos devem ser zero.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExpectedQueries {
+
+    int select() default 0;
+
+    int insert() default 0;
+
+    int update() default 0;
+
+    int delete() default 0;
+}
@@ -0,0 +1,35 @@
+package com.spring.boot.test.junit.support;
+
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Teste de integração contra o MySQL compartilhado do perfil {@code mysql} (application-mysql.properties): um
+ * único container para toda a execução, reaproveitado entre execuções quando o reuso do Testcontainers está
+ * habilitado, com as tabelas truncadas antes de cada teste.
+ * <p>
+ * As classes anotadas não executam ao mesmo tempo que outras que usem o recurso {@link #DATABASE}, mesmo com a
+ * execução paralela das classes de teste habilitada; as demais classes continuam executando em paralelo.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DisabledInNativeImage
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("mysql")
+@ResourceLock(MySQLIntegrationTest.DATABASE)
+@ExtendWith(TruncateTablesExtension.class)
+public @interface MySQLIntegrationTest {
+
+    /**
+     * Recurso das classes que gravam no banco compartilhado.
+     */
+    String DATABASE = "employee-database";
+}
@@ -0,0 +1,19 @@
+package com.spring.boot.test.junit.support;
+
+/**
+ * Quantidade de comandos SQL enviados ao banco, por tipo. Um lote JDBC conta como um comando; os demais comandos
+ * ({@code TRUNCATE}, {@code SET}, DDL) não são contados.
+ */
+public record QueryCount(int select, int insert, int update, int delete) {
+
+    public static final QueryCount NONE = new QueryCount(0, 0, 0, 0);
+
+    public QueryCount minus(QueryCount other) {
+        return new QueryCount(select - other.select, insert - other.insert,
+                update - other.update, delete - other.delete);
+    }
+
+    public int total() {
+        return select + insert + update + delete;
+    }
+}
@@ -0,0 +1,40 @@
+package com.spring.boot.test.junit.support;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Zera o {@link QueryCounter} do contexto do teste logo antes do método de teste, depois dos métodos
+ * {@code @BeforeEach} e das demais extensões, e compara a contagem com {@link ExpectedQueries} ao final.
+ */
+public class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        queryCounter(context).reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent())
+            return;
+
+        AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), ExpectedQueries.class)
+                .ifPresent(expected -> {
+                    QueryCount expectedCount = new QueryCount(
+                            expected.select(), expected.insert(), expected.update(), expected.delete());
+                    QueryCount actualCount = queryCounter(context).current();
+
+                    if (!expectedCount.equals(actualCount))
+                        throw new AssertionFailedError("Unexpected SQL statement count", expectedCount, actualCount);
+                });
+    }
+
+    private static QueryCounter queryCounter(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(QueryCounter.class);
+    }
+}
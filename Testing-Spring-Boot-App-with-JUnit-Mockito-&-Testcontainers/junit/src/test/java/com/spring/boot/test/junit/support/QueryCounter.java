@@ -0,0 +1,78 @@
+package com.spring.boot.test.junit.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conta os comandos SQL executados pelo {@code DataSource} do contexto do teste, registrado por
+ * {@link QueryCountingConfiguration}. Os comandos de todas as threads são contados, inclusive os dos bulkheads
+ * que executam as requisições, exceto os das tarefas agendadas (como o relay da outbox), que executam a qualquer
+ * momento e tornariam a contagem instável.
+ * <p>
+ * A contagem é zerada antes de cada teste por {@link QueryCountExtension}; {@link #count(Block)} mede apenas um
+ * trecho do teste, sem a preparação dos dados.
+ */
+public class QueryCounter implements QueryExecutionListener {
+
+    private final String schedulerThreadNamePrefix;
+
+    private final AtomicInteger select = new AtomicInteger();
+    private final AtomicInteger insert = new AtomicInteger();
+    private final AtomicInteger update = new AtomicInteger();
+    private final AtomicInteger delete = new AtomicInteger();
+
+    public QueryCounter(String schedulerThreadNamePrefix) {
+        this.schedulerThreadNamePrefix = schedulerThreadNamePrefix;
+    }
+
+    @FunctionalInterface
+    public interface Block {
+        void run() throws Exception;
+    }
+
+    /**
+     * Executa o trecho e retorna apenas os comandos executados por ele.
+     */
+    public QueryCount count(Block block) throws Exception {
+        QueryCount before = current();
+        block.run();
+        return current().minus(before);
+    }
+
+    public QueryCount current() {
+        return new QueryCount(select.get(), insert.get(), update.get(), delete.get());
+    }
+
+    public void reset() {
+        select.set(0);
+        insert.set(0);
+        update.set(0);
+        delete.set(0);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (Thread.currentThread().getName().startsWith(schedulerThreadNamePrefix))
+            return;
+
+        for (QueryInfo query : queryInfoList) {
+            switch (QueryUtils.getQueryType(query.getQuery())) {
+                case SELECT -> select.incrementAndGet();
+                case INSERT -> insert.incrementAndGet();
+                case UPDATE -> update.incrementAndGet();
+                case DELETE -> delete.incrementAndGet();
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.spring.boot.test.junit.support;
+
+import com.spring.boot.test.junit.shard.ShardRoutingDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o bean {@code dataSource} em um proxy do datasource-proxy que informa cada comando ao
+ * {@link QueryCounter}. Importada pelas classes anotadas com {@link CountQueries}.
+ * <p>
+ * Só o bean de nome {@code dataSource} é envolvido; os pools por classe de tráfego não são beans e passam pelo
+ * mesmo proxy. Com sharding, o {@link ShardRoutingDataSource} é injetado pelo próprio tipo e não é envolvido.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountingConfiguration {
+
+    @Bean
+    public QueryCounter queryCounter(
+            @Value("${spring.task.scheduling.thread-name-prefix:scheduling-}") String schedulerThreadNamePrefix) {
+        return new QueryCounter(schedulerThreadNamePrefix);
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(ObjectProvider<QueryCounter> queryCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)
+                        || bean instanceof ShardRoutingDataSource)
+                    return bean;
+
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(queryCounter.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.spring.boot.test.junit.support;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Esvazia as tabelas do banco do contexto do teste antes de cada teste, com {@code TRUNCATE}, em vez de excluir
+ * as linhas uma a uma. O histórico do Flyway e os blocos de ids já reservados são preservados.
+ */
+public class TruncateTablesExtension implements BeforeEachCallback {
+
+    private static final Set<String> PRESERVED_TABLES = Set.of("flyway_schema_history", "employee_id_block");
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        DataSource dataSource = SpringExtension.getApplicationContext(context).getBean(DataSource.class);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        @SuppressWarnings("unchecked")
+        List<String> tables = context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(dataSource, key -> tablesOf(jdbc), List.class);
+
+        for (String table : tables)
+            jdbc.execute("TRUNCATE TABLE " + table);
+    }
+
+    private static List<String> tablesOf(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT table_name FROM information_schema.tables " +
+                        "WHERE table_schema = DATABASE() AND table_type = 'BASE TABLE'", String.class)
+                .stream()
+                .filter(table -> !PRESERVED_TABLES.contains(table.toLowerCase()))
+                .toList();
+    }
+}
@@ -0,0 +1,206 @@
+package com.spring.boot.test.junit.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.boot.test.junit.exception.WriteBehindFullException;
+import com.spring.boot.test.junit.model.Employee;
+import com.spring.boot.test.junit.outbox.EmployeeOutbox;
+import com.spring.boot.test.junit.repository.EmployeeOutboxRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+public class EmployeeWriteBehindTest {
+
+    @TempDir
+    private Path logDirectory;
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    public void setUp() {
+        // Um banco H2 novo por teste, com o esquema das migrações e três funcionários
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:write-behind-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        for (long id = 1; id <= 3; id++)
+            jdbc.update("INSERT INTO employee (id, first_name, last_name, email) VALUES (?, 'Nome', 'Sobrenome', ?)",
+                    id, "nome" + id + "@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Given repeated updates to the same employees when flush then write one update and one event per employee")
+    void givenRepeatedUpdates_whenFlush_thenWriteOneUpdateAndEventPerEmployee() throws IOException {
+        EmployeeWriteBehind writeBehind = writeBehind();
+
+        // when - uma rajada de alterações em dois funcionários
+        for (int i = 1; i <= 5; i++) {
+            writeBehind.enqueue(employee(1L, "Rodrigo" + i));
+            writeBehind.enqueue(employee(2L, "Maria" + i));
+        }
+
+        // then - antes da descarga, a última alteração de cada um fica apenas no buffer
+        assertThat(writeBehind.size()).isEqualTo(2);
+        assertThat(writeBehind.pending(1L)).get().extracting(Employee::getFirstName).isEqualTo("Rodrigo5");
+        assertThat(firstName(1L)).isEqualTo("Nome");
+
+        writeBehind.flush();
+
+        // then - gravadas com um evento por funcionário, e o log é apagado
+        assertThat(firstName(1L)).isEqualTo("Rodrigo5");
+        assertThat(firstName(2L)).isEqualTo("Maria5");
+        assertThat(firstName(3L)).isEqualTo("Nome");
+        assertThat(jdbc.queryForObject("SELECT email FROM employee WHERE id = 1", String.class))
+                .isEqualTo("rodrigo5@gmail.com");
+        assertThat(jdbc.queryForList("SELECT employee_id FROM employee_outbox WHERE event_type = 'UPDATED' ORDER BY employee_id",
+                Long.class)).containsExactly(1L, 2L);
+        assertThat(writeBehind.size()).isZero();
+        assertThat(writeBehind.pending(1L)).isEmpty();
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Given updates not flushed before a crash when restarted then recover them from the log")
+    void givenUnflushedUpdates_whenRestarted_thenRecoverFromLog() throws IOException {
+        WriteBehindLog log = new WriteBehindLog(logDirectory, true);
+        EmployeeWriteBehind writeBehind = writeBehind(log);
+
+        writeBehind.enqueue(employee(1L, "Rodrigo"));
+        writeBehind.enqueue(employee(2L, "Maria"));
+        writeBehind.enqueue(employee(1L, "Rodrigo Alves"));
+
+        // Queda no meio da gravação de um registro: o log termina com um registro incompleto
+        log.close();
+        Files.write(segments().get(0), new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        // when - a aplicação reinicia sobre o mesmo diretório
+        EmployeeWriteBehind restarted = writeBehind();
+
+        // then - as alterações aceitas são recuperadas e gravadas na descarga
+        assertThat(restarted.pending(1L)).get().extracting(Employee::getFirstName).isEqualTo("Rodrigo Alves");
+        assertThat(restarted.size()).isEqualTo(2);
+
+        restarted.flush();
+
+        assertThat(firstName(1L)).isEqualTo("Rodrigo Alves");
+        assertThat(firstName(2L)).isEqualTo("Maria");
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Given employee deleted before flush when flush then neither update nor record an event")
+    void givenEmployeeDeletedBeforeFlush_whenFlush_thenSkipIt() throws IOException {
+        EmployeeWriteBehind writeBehind = writeBehind();
+
+        writeBehind.enqueue(employee(1L, "Rodrigo"));
+        writeBehind.enqueue(employee(2L, "Maria"));
+
+        // when - o funcionário 2 é excluído antes da descarga
+        jdbc.update("UPDATE employee SET deleted = true WHERE id = 2");
+        writeBehind.flush();
+
+        // then
+        assertThat(firstName(2L)).isEqualTo("Nome");
+        assertThat(jdbc.queryForList("SELECT employee_id FROM employee_outbox", Long.class)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Given failing flush when flush then keep the updates and the log for the next flush")
+    void givenFailingFlush_whenFlush_thenKeepUpdatesForNextFlush() throws IOException {
+        EmployeeWriteBehind writeBehind = writeBehind();
+
+        writeBehind.enqueue(employee(1L, "Rodrigo"));
+
+        // when - a gravação dos eventos falha e a transação é desfeita
+        jdbc.execute("ALTER TABLE employee_outbox RENAME TO employee_outbox_old");
+        writeBehind.flush();
+
+        // then - a alteração continua pendente e no log
+        assertThat(firstName(1L)).isEqualTo("Nome");
+        assertThat(writeBehind.pending(1L)).isPresent();
+        assertThat(segments()).hasSize(2);
+
+        // when - o banco volta
+        jdbc.execute("ALTER TABLE employee_outbox_old RENAME TO employee_outbox");
+        writeBehind.flush();
+
+        // then
+        assertThat(firstName(1L)).isEqualTo("Rodrigo");
+        assertThat(writeBehind.size()).isZero();
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Given database down when buffer fills then reject updates to employees not yet pending")
+    void givenDatabaseDown_whenBufferFills_thenRejectNewEmployees() throws IOException {
+        // Com max-pending 2, o buffer recusa funcionários novos a partir de 8; cada descarga antecipada falha
+        EmployeeWriteBehind writeBehind = writeBehind(new WriteBehindLog(logDirectory, false), 2);
+        jdbc.execute("ALTER TABLE employee_outbox RENAME TO employee_outbox_old");
+
+        for (long id = 1; id <= 8; id++)
+            writeBehind.enqueue(employee(id, "Rodrigo"));
+
+        // then - um funcionário novo é recusado antes de ir para o log, e um já pendente continua sendo aceito
+        assertThatThrownBy(() -> writeBehind.enqueue(employee(9L, "Rodrigo")))
+                .isInstanceOf(WriteBehindFullException.class);
+        writeBehind.enqueue(employee(1L, "Maria"));
+
+        assertThat(writeBehind.size()).isEqualTo(8);
+        assertThat(writeBehind.pending(9L)).isEmpty();
+        assertThat(writeBehind.pending(1L)).map(Employee::getFirstName).contains("Maria");
+    }
+
+    private EmployeeWriteBehind writeBehind() throws IOException {
+        return writeBehind(new WriteBehindLog(logDirectory, false));
+    }
+
+    private EmployeeWriteBehind writeBehind(WriteBehindLog log) {
+        return writeBehind(log, 1_000);
+    }
+
+    private EmployeeWriteBehind writeBehind(WriteBehindLog log, int maxPending) {
+        EmployeeOutbox outbox = new EmployeeOutbox(mock(EmployeeOutboxRepository.class), dataSource,
+                new ObjectMapper().findAndRegisterModules());
+
+        return new EmployeeWriteBehind(log, dataSource, new DataSourceTransactionManager(dataSource), outbox, null,
+                Runnable::run, maxPending, 2);
+    }
+
+    private static Employee employee(Long id, String firstName) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Alves")
+                .email(firstName.replace(' ', '.') + "@gmail.com")
+                .build();
+    }
+
+    private String firstName(Long id) {
+        return jdbc.queryForObject("SELECT first_name FROM employee WHERE id = ?", String.class, id);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            return files.sorted().toList();
+        }
+    }
+}